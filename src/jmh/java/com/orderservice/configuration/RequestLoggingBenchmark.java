@@ -0,0 +1,115 @@
+package com.orderservice.configuration;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.orderservice.configuration.PayloadLogSampler.PAYLOAD;
+
+/**
+ * Logs what {@code OrderController.create} logs per request, a summary at INFO and the full
+ * request at DEBUG with the payload marker, into an ECS JSON file. It compares a synchronous file
+ * appender with the bounded async one from {@code logback-spring.xml}, with every payload logged
+ * and with payloads sampled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    private static final String CREATE_LOG_INFO = "ORDERCONTROLLER - create method for partner: {} with {} items";
+    private static final String CREATE_PAYLOAD_LOG_DEBUG = "ORDERCONTROLLER - create method with dto: {}";
+    private static final int ITEMS = 20;
+    private static final int QUEUE_SIZE = 8192;
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    @Param({"1", "100"})
+    private int payloadSampleEvery;
+
+    private LoggerContext context;
+    private Logger logger;
+    private Path logFile;
+    private OrderRequestDTO request;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        context.putObject(Environment.class.getName(), new StandardEnvironment());
+        logFile = Files.createTempFile("request-logging", ".log");
+
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("ecs");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+
+        PayloadLogSampler sampler = new PayloadLogSampler();
+        sampler.setEvery(payloadSampleEvery);
+        sampler.start();
+        context.addTurboFilter(sampler);
+
+        logger = context.getLogger(RequestLoggingBenchmark.class);
+        logger.setLevel(Level.DEBUG);
+        logger.setAdditive(false);
+        logger.addAppender("async".equals(appender) ? async(file) : file);
+
+        List<OrderItemRequestDTO> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new OrderItemRequestDTO(UUID.randomUUID(), i + 1, new BigDecimal("19.90")));
+        }
+        request = new OrderRequestDTO(UUID.randomUUID(), items);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void logCreateRequest() {
+        logger.info(CREATE_LOG_INFO, request.partnerId(), request.items().size());
+        logger.debug(PAYLOAD, CREATE_PAYLOAD_LOG_DEBUG, request);
+    }
+
+    private Appender<ILoggingEvent> async(Appender<ILoggingEvent> delegate) {
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(QUEUE_SIZE);
+        async.setNeverBlock(true);
+        async.addAppender(delegate);
+        async.start();
+        return async;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.entity.Order;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes an {@link OrderResponseDTO} with an {@link ObjectMapper} configured like the one Boot
+ * builds from {@code spring.jackson.*}, which is what every uncached order response pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderResponseSerializationBenchmark {
+
+    private static final BigDecimal UNIT_PRICE = new BigDecimal("19.90");
+
+    @Param({"1", "10", "100"})
+    private int itemCount;
+
+    private ObjectMapper objectMapper;
+    private OrderResponseDTO response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .failOnEmptyBeans(false)
+                .build();
+
+        List<OrderItemResponseDTO> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new OrderItemResponseDTO(UUID.randomUUID(), UUID.randomUUID(), i + 1, UNIT_PRICE));
+        }
+        response = new OrderResponseDTO(UUID.randomUUID(), UUID.randomUUID(), items,
+                                        UNIT_PRICE.multiply(BigDecimal.valueOf(itemCount)),
+                                        Order.OrderStatus.PENDENTE, LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+}
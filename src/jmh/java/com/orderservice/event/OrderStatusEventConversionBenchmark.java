@@ -0,0 +1,60 @@
+package com.orderservice.event;
+
+import com.orderservice.configuration.RabbitMQConfig;
+import com.orderservice.entity.Order;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips an {@link OrderStatusEvent} through the message converter declared in
+ * {@link RabbitMQConfig}, once when the outbox row is written and once per delivery, for each content type
+ * the converter accepts. The payload size of each format is printed on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderStatusEventConversionBenchmark {
+
+    @Param({MessageProperties.CONTENT_TYPE_JSON, OrderStatusEventBinaryConverter.CONTENT_TYPE})
+    private String contentType;
+
+    private MessageConverter messageConverter;
+    private OrderStatusEvent event;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        messageConverter = new RabbitMQConfig().messageConverter();
+        event = new OrderStatusEvent(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("500.00"),
+                                     Order.OrderStatus.APROVADO, LocalDateTime.now());
+        message = messageConverter.toMessage(event, properties());
+        System.out.printf("%n%s payload: %d bytes%n", contentType, message.getBody().length);
+    }
+
+    @Benchmark
+    public Message toMessage() {
+        return messageConverter.toMessage(event, properties());
+    }
+
+    @Benchmark
+    public Object fromMessage() {
+        return messageConverter.fromMessage(message);
+    }
+
+    private MessageProperties properties() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(contentType);
+        return properties;
+    }
+
+}
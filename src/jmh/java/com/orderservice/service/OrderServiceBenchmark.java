@@ -0,0 +1,73 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.OrderItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request CPU and allocation cost of the pure parts of {@link OrderService}: summing the
+ * request items and mapping a loaded order to its response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private static final BigDecimal UNIT_PRICE = new BigDecimal("19.90");
+
+    @Param({"1", "10", "100"})
+    private int itemCount;
+
+    private List<OrderItemRequestDTO> requestItems;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        requestItems = new ArrayList<>(itemCount);
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        order = Order.builder()
+                .id(UUID.randomUUID())
+                .partnerId(UUID.randomUUID())
+                .status(Order.OrderStatus.PENDENTE)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .items(items)
+                .build();
+        for (int i = 0; i < itemCount; i++) {
+            UUID productId = UUID.randomUUID();
+            int quantity = i + 1;
+            requestItems.add(new OrderItemRequestDTO(productId, quantity, UNIT_PRICE));
+            items.add(OrderItem.builder()
+                              .id(UUID.randomUUID())
+                              .order(order)
+                              .productId(productId)
+                              .quantity(quantity)
+                              .unitPrice(UNIT_PRICE)
+                              .build());
+        }
+        order.setTotalAmount(OrderService.getTotalAmount(requestItems));
+    }
+
+    @Benchmark
+    public BigDecimal getTotalAmount() {
+        return OrderService.getTotalAmount(requestItems);
+    }
+
+    @Benchmark
+    public OrderResponseDTO toResponseDTO() {
+        return OrderService.toResponseDTO(order);
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.orderservice.configuration;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lets at most {@code permits} callers hold a connection at once. With virtual threads thousands of
+ * requests can reach the pool together; queueing them on a fair semaphore parks them cheaply and in
+ * arrival order instead of having all of them spin in the pool's own connection wait.
+ * <p>
+ * Permits are taken per thread, not per connection. A thread that already holds a connection and opens
+ * another one ({@code REQUIRES_NEW}, a {@code JdbcTemplate} call inside a JPA transaction) would otherwise
+ * wait on its own permit once all of them are out; its nested connections skip the semaphore and only wait
+ * in the pool, bounded by the pool's connection timeout.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private static final String CLOSE = "close";
+    private static final String BULKHEAD_TIMEOUT = "Timed out after %d ms waiting for a database connection permit";
+    private static final String BULKHEAD_INTERRUPTED = "Interrupted waiting for a database connection permit";
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final ThreadLocal<AtomicInteger> openConnections = ThreadLocal.withInitial(AtomicInteger::new);
+
+    public BulkheadDataSource(DataSource targetDataSource, int permits, Duration acquireTimeout) {
+        super(targetDataSource);
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return guard(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return guard(() -> super.getConnection(username, password));
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(BULKHEAD_TIMEOUT.formatted(acquireTimeoutMillis));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(BULKHEAD_INTERRUPTED, e);
+        }
+    }
+
+    private Connection guard(ConnectionSupplier supplier) throws SQLException {
+        AtomicInteger threadConnections = openConnections.get();
+        boolean permitted = threadConnections.get() == 0;
+        if (permitted) {
+            acquire();
+        }
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            if (permitted) {
+                permits.release();
+            }
+            throw e;
+        }
+        threadConnections.incrementAndGet();
+        return releasingOnClose(connection, threadConnections, permitted);
+    }
+
+    private Connection releasingOnClose(Connection connection, AtomicInteger threadConnections, boolean permitted) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (CLOSE.equals(method.getName()) && released.compareAndSet(false, true)) {
+                            threadConnections.decrementAndGet();
+                            if (permitted) {
+                                permits.release();
+                            }
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+}
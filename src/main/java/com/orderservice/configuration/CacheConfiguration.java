@@ -0,0 +1,60 @@
+package com.orderservice.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orderservice.dto.CachedOrderResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caches are Caffeine backed and configured through {@code spring.cache.*}; every cache listed in
+ * {@code spring.cache.cache-names} gets its hit, miss and eviction counters registered in Actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    // 🗃️ Caches
+    public static final String PARTNERS_CACHE = "partners";
+    public static final String ORDERS_CACHE = "orders";
+    public static final String IDEMPOTENCY_KEYS_CACHE = "idempotencyKeys";
+
+    @Value("${orderservice.cache.orders.max-bytes:67108864}")
+    private long ordersMaxBytes;
+
+    @Value("${orderservice.cache.orders.ttl:10m}")
+    private Duration ordersTtl;
+
+    @Value("${orderservice.cache.idempotency-keys.max-size:100000}")
+    private long idempotencyKeysMaxSize;
+
+    @Value("${orderservice.cache.idempotency-keys.ttl:1h}")
+    private Duration idempotencyKeysTtl;
+
+    // Serialized order responses are bounded by their total size instead of an entry count
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> ordersCacheCustomizer() {
+        return cacheManager -> cacheManager.registerCustomCache(ORDERS_CACHE, Caffeine.newBuilder()
+                .maximumWeight(ordersMaxBytes)
+                .weigher((Object id, Object response) -> ((CachedOrderResponseDTO) response).body().length)
+                .expireAfterWrite(ordersTtl)
+                .recordStats()
+                .build());
+    }
+
+    // Only completed keys are cached, so a replay is answered without a database round trip
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> idempotencyKeysCacheCustomizer() {
+        return cacheManager -> cacheManager.registerCustomCache(IDEMPOTENCY_KEYS_CACHE, Caffeine.newBuilder()
+                .maximumSize(idempotencyKeysMaxSize)
+                .expireAfterWrite(idempotencyKeysTtl)
+                .recordStats()
+                .build());
+    }
+
+}
@@ -1,43 +1,77 @@
 package com.orderservice.configuration;
 
-import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
-import org.springframework.beans.factory.annotation.Configurable;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
-import javax.sql.DataSource;
+import java.time.Duration;
 
-@Configurable
+/**
+ * Builds the Hikari pool from {@code spring.datasource.*}. The values set here are only defaults,
+ * anything under {@code spring.datasource.hikari.*} is bound on top of them, so the pool can be
+ * tuned per environment without a rebuild. The default size follows the PostgreSQL rule of thumb
+ * of twice the cores plus one, never below the ten connections the service always ran with, and
+ * connections are validated with JDBC4 {@code isValid} instead of a test query. Pool metrics are
+ * bound by the actuator.
+ * <p>
+ * On virtual threads a {@link BulkheadDataSource} is added as the primary data source in front of the
+ * pool. The Hikari bean stays registered as it is, so anything injecting {@link HikariDataSource}, the
+ * pool metrics included, keeps seeing the pool itself.
+ */
+@Slf4j
+@Configuration
 public class DatabaseConfiguration {
 
-    @Value("${spring.datasource.url}")
-    private String url;
+    private static final String BULKHEAD_LOG_INFO = "Guarding data source {} with a bulkhead of {} permits";
 
-    @Value("${spring.datasource.username}")
-    private String username;
+    static final String POOL_NAME = "orderdb-db-pool";
+    static final long MAX_LIFETIME_MILLIS = 600000;
+    static final long CONNECTION_TIMEOUT_MILLIS = 10000;
+    static final int MIN_POOL_SIZE = 10;
 
-    @Value("${spring.datasource.password}")
-    private String password;
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+
+        int poolSize = defaultPoolSize();
+        dataSource.setMinimumIdle(poolSize);
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setPoolName(POOL_NAME);
+        dataSource.setMaxLifetime(MAX_LIFETIME_MILLIS);
+        dataSource.setConnectionTimeout(CONNECTION_TIMEOUT_MILLIS);
 
-    @Value("${spring.datasource.driver-class-name}")
-    private String driverClassName;
+        return dataSource;
+    }
 
+    /**
+     * Permits default to the pool size and are capped by it, so callers queue on the bulkhead rather
+     * than in the pool.
+     */
     @Bean
-    public DataSource hikariDataSource() {
-        HikariConfig hikariConfig = new HikariConfig();
-        hikariConfig.setJdbcUrl(url);
-        hikariConfig.setUsername(username);
-        hikariConfig.setPassword(password);
-        hikariConfig.setDriverClassName(driverClassName);
-
-        hikariConfig.setMinimumIdle(1);
-        hikariConfig.setMaximumPoolSize(10);
-        hikariConfig.setPoolName("orderdb-db-pool");
-        hikariConfig.setMaxLifetime(600000);
-        hikariConfig.setConnectionTimeout(100000);
-        hikariConfig.setConnectionTestQuery("select 1");
-
-        return new HikariDataSource(hikariConfig);
+    @Primary
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public BulkheadDataSource bulkheadDataSource(
+            HikariDataSource dataSource,
+            @Value("${orderservice.datasource.bulkhead.permits:0}") int permits,
+            @Value("${orderservice.datasource.bulkhead.acquire-timeout:30s}") Duration acquireTimeout) {
+        int poolSize = dataSource.getMaximumPoolSize();
+        int bulkheadPermits = permits > 0 ? Math.min(permits, poolSize) : poolSize;
+        log.info(BULKHEAD_LOG_INFO, dataSource.getPoolName(), bulkheadPermits);
+        return new BulkheadDataSource(dataSource, bulkheadPermits, acquireTimeout);
     }
-}
\ No newline at end of file
+
+    static int defaultPoolSize() {
+        return Math.max(MIN_POOL_SIZE, Runtime.getRuntime().availableProcessors() * 2 + 1);
+    }
+
+}
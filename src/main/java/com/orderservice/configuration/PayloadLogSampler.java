@@ -0,0 +1,37 @@
+package com.orderservice.configuration;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets through one in every {@code every} log statements marked {@link #PAYLOAD} and drops the
+ * rest before a logging event is even created, so full request bodies can stay enabled under load
+ * without formatting each one. Statements below the logger's level are left to the level check.
+ */
+public class PayloadLogSampler extends TurboFilter {
+
+    public static final Marker PAYLOAD = MarkerFactory.getMarker("PAYLOAD");
+
+    private final AtomicLong counter = new AtomicLong();
+    private int every = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (every <= 1 || marker == null || !marker.contains(PAYLOAD)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % every == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setEvery(int every) {
+        this.every = every;
+    }
+
+}
@@ -1,22 +1,26 @@
 package com.orderservice.configuration;
 
+import com.orderservice.event.OrderStatusEventBinaryConverter;
 import org.springframework.amqp.core.*;
-import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
-import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.DefaultClassMapper;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.retry.support.RetryTemplate;
 
 @Configuration
 public class RabbitMQConfig {
 
     // 📦 Exchanges
     public static final String ORDER_EVENT_EXCHANGE = "order.event.exchange";
+    public static final String ORDER_STATUS_BROADCAST_EXCHANGE = "order.status.broadcast";
 
     // 🎯 QUEUES
     public static final String ORDER_STATUS_QUEUE = "order.status.event";
@@ -25,12 +29,42 @@ public class RabbitMQConfig {
     // 🔗 Routing Key
     public static final String ORDER_STATUS_ROUTING_KEY = "order.status.event";
 
+    // 👂 Listeners
+    public static final String ORDER_STATUS_LISTENER_ID = "orderStatusListener";
+    public static final String ORDER_CACHE_EVICTION_LISTENER_ID = "orderCacheEvictionListener";
+    public static final String CACHE_EVICTION_CONTAINER_FACTORY = "cacheEvictionListenerContainerFactory";
+    private static final String LISTENER_THREAD_PREFIX = "rabbit-listener-";
+
+    @Value("${orderservice.listener.batch-size:100}")
+    private int batchSize;
+
+    @Value("${orderservice.listener.batch-receive-timeout:100}")
+    private long batchReceiveTimeout;
+
+    @Value("${orderservice.listener.prefetch:250}")
+    private int prefetch;
+
+    @Value("${orderservice.listener.concurrency:1}")
+    private int concurrency;
+
+    @Value("${orderservice.listener.max-concurrency:1}")
+    private int maxConcurrency;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     // Exchange
     @Bean
     public DirectExchange orderEventExchange() {
         return new DirectExchange(ORDER_EVENT_EXCHANGE);
     }
 
+    // Status events fan out to the work queue and to the cache eviction queue of every instance
+    @Bean
+    public FanoutExchange orderStatusBroadcastExchange() {
+        return new FanoutExchange(ORDER_STATUS_BROADCAST_EXCHANGE);
+    }
+
     // Main Queue with DLQ
     @Bean
     public Queue orderStatusQueue() {
@@ -55,6 +89,26 @@ public class RabbitMQConfig {
                 .with(ORDER_STATUS_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding orderStatusBroadcastBinding() {
+        return BindingBuilder
+                .bind(orderStatusQueue())
+                .to(orderStatusBroadcastExchange());
+    }
+
+    // Per-instance queue, deleted with the connection, so each instance sees every status event once
+    @Bean
+    public Queue orderCacheEvictionQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding orderCacheEvictionBinding() {
+        return BindingBuilder
+                .bind(orderCacheEvictionQueue())
+                .to(orderStatusBroadcastExchange());
+    }
+
     @Bean
     public Binding orderStatusDlqBinding() {
         return BindingBuilder
@@ -63,27 +117,70 @@ public class RabbitMQConfig {
                 .with(ORDER_STATUS_DLQ);
     }
 
-    // Automatic retry with backoff
+    // Automatic retry with backoff, applied per event by the worker that handles it
     @Bean
-    public RetryOperationsInterceptor retryInterceptor() {
-        return RetryInterceptorBuilder.stateless()
-                                      .maxAttempts(3)
-                                      .backOffOptions(1000, 2.0, 10000)
-                                      .recoverer(new RejectAndDontRequeueRecoverer())
-                                      .build();
+    public RetryTemplate orderStatusRetryTemplate() {
+        return RetryTemplate.builder()
+                            .maxAttempts(3)
+                            .exponentialBackoff(1000, 2.0, 10000)
+                            .build();
     }
 
+    // Batch consumer: events are acked manually once the whole batch was handled, failures are
+    // rejected without requeue so they land in the DLQ. The listener decodes the messages itself so an
+    // undecodable one is rejected on its own instead of leaving the batch unacked
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
             ConnectionFactory connectionFactory,
-            RetryOperationsInterceptor retryInterceptor) {
+            MessageConverter messageConverter) {
 
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
-        factory.setAdviceChain(retryInterceptor);
+        factory.setMessageConverter(messageConverter);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setBatchReceiveTimeout(batchReceiveTimeout);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setDefaultRequeueRejected(false);
+        if (virtualThreads) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor(LISTENER_THREAD_PREFIX));
+        }
         return factory;
     }
 
+    // Cache eviction consumer: one event at a time with automatic acks. An event that fails is dropped, the
+    // entry then still expires with the cache TTL
+    @Bean
+    public SimpleRabbitListenerContainerFactory cacheEvictionListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter) {
+
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setDefaultRequeueRejected(false);
+        if (virtualThreads) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor(LISTENER_THREAD_PREFIX));
+        }
+        return factory;
+    }
+
+    // Picks the format by content type: consumers read JSON and binary events alike, producers choose the
+    // format with orderservice.events.content-type, so both sides can migrate independently
+    @Bean
+    @Primary
+    public MessageConverter messageConverter() {
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(
+                jacksonMessageConverter());
+        converter.addDelegate(OrderStatusEventBinaryConverter.CONTENT_TYPE, new OrderStatusEventBinaryConverter());
+        return converter;
+    }
+
     @Bean
     public MessageConverter jacksonMessageConverter() {
         Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
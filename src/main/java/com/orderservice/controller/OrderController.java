@@ -1,22 +1,52 @@
 package com.orderservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.dto.CachedOrderResponseDTO;
+import com.orderservice.dto.OrderBatchRequestDTO;
+import com.orderservice.dto.OrderBatchResponseDTO;
+import com.orderservice.dto.OrderCursor;
+import com.orderservice.dto.OrderPageResponseDTO;
 import com.orderservice.dto.OrderRequestDTO;
 import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.dto.OrderStatsResponseDTO;
+import com.orderservice.dto.OrderStatusBatchRequestDTO;
+import com.orderservice.dto.OrderStatusBatchResponseDTO;
 import com.orderservice.dto.OrderStatusUpdateRequestDTO;
 import com.orderservice.entity.Order;
+import com.orderservice.service.OrderBatchService;
+import com.orderservice.service.OrderExportService;
+import com.orderservice.service.OrderIdempotencyService;
+import com.orderservice.service.OrderResponseCache;
 import com.orderservice.service.OrderService;
+import com.orderservice.service.OrderStatusBatchService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import static com.orderservice.configuration.PayloadLogSampler.PAYLOAD;
 
 @Slf4j
 @RestController
@@ -25,32 +55,90 @@ import java.util.UUID;
 @Tag(name = "Orders", description = "Order Management")
 public class OrderController implements GenericController {
 
-    private static final String CREATE_LOG_INFO = "ORDERCONTROLLER - create method with dto: {}";
+    private static final String CREATE_LOG_INFO = "ORDERCONTROLLER - create method for partner: {} with {} items";
+    private static final String CREATE_PAYLOAD_LOG_DEBUG = "ORDERCONTROLLER - create method with dto: {}";
+    private static final String CREATE_BATCH_LOG_INFO = "ORDERCONTROLLER - createBatch method with {} orders";
     private static final String GET_BY_ID_LOG_INFO = "ORDERCONTROLLER - getById method with id: {}";
     private static final String GET_BY_STATUS_LOG_INFO = "ORDERCONTROLLER - getByStatus method with " +
                                                                      "status: {}";
     private static final String GET_BY_PERIOD_LOG_INFO = "ORDERCONTROLLER - getByPeriod method with " +
                                                                      "start: {} and with end: {}";
+    private static final String GET_PAGE_BY_STATUS_LOG_INFO = "ORDERCONTROLLER - getPageByStatus method with " +
+                                                                          "status: {} and with cursor: {}";
+    private static final String GET_PAGE_BY_PERIOD_LOG_INFO = "ORDERCONTROLLER - getPageByPeriod method with " +
+                                                                          "start: {}, end: {} and cursor: {}";
+    private static final String STREAM_BY_STATUS_LOG_INFO = "ORDERCONTROLLER - streamByStatus method with " +
+                                                                        "status: {}";
+    private static final String STREAM_BY_PERIOD_LOG_INFO = "ORDERCONTROLLER - streamByPeriod method with " +
+                                                                        "start: {} and with end: {}";
+    private static final String EXPORT_LOG_INFO = "ORDERCONTROLLER - export method with start: {}, end: {}, " +
+                                                              "format: {} and cursor: {}";
+    private static final String GET_STATS_LOG_INFO = "ORDERCONTROLLER - getStats method with partner: {}";
     private static final String STATUS_UPDATE_LOG_INFO = "ORDERCONTROLLER - statusUpdate method with" +
-                                                                          " id: {} and with dto: {}";
+                                                                          " id: {} and with status: {}";
+    private static final String STATUS_UPDATE_BATCH_LOG_INFO = "ORDERCONTROLLER - statusUpdateBatch method with" +
+                                                                       " {} orders and with status: {}";
     private static final String CANCEL_LOG_INFO = "ORDERCONTROLLER - cancel method with id: {}";
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String DEFAULT_PAGE_SIZE = "50";
+    private static final int NEW_LINE = '\n';
+    private static final String GZIP = "gzip";
+    private static final String ANY_ENCODING = "*";
+    private static final String QUALITY_PARAMETER = "q=";
+    private static final int GZIP_BUFFER_SIZE = 8192;
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     private final OrderService orderService;
+    private final OrderBatchService orderBatchService;
+    private final OrderStatusBatchService orderStatusBatchService;
+    private final OrderExportService orderExportService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderResponseCache orderResponseCache;
+    private final ObjectMapper objectMapper;
 
-    @Operation(summary = "Create a new order")
+    @Operation(summary = "Create a new order", description = "With an Idempotency-Key header, retries of the " +
+            "same key return the order created first, flagged by the Idempotent-Replayed header; reusing a key " +
+            "for a different request answers 422")
     @PostMapping
-    public ResponseEntity<Void> create(@Valid @RequestBody OrderRequestDTO dto) {
-        log.info(CREATE_LOG_INFO, dto);
-        OrderResponseDTO orderResponseDTO = orderService.createOrder(dto);
-        URI uri = generateHeaderLocation(orderResponseDTO.id());
-        return ResponseEntity.created(uri).build();
+    public ResponseEntity<Void> create(
+            @Valid @RequestBody OrderRequestDTO dto,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        log.info(CREATE_LOG_INFO, dto.partnerId(), dto.items().size());
+        log.debug(PAYLOAD, CREATE_PAYLOAD_LOG_DEBUG, dto);
+        if (idempotencyKey == null) {
+            OrderResponseDTO orderResponseDTO = orderService.createOrder(dto);
+            URI uri = generateHeaderLocation(orderResponseDTO.id());
+            return ResponseEntity.created(uri).build();
+        }
+
+        OrderIdempotencyService.Outcome outcome = orderIdempotencyService.createOrder(idempotencyKey, dto);
+        URI uri = generateHeaderLocation(outcome.orderId());
+        return ResponseEntity.created(uri)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                .build();
+    }
+
+    @Operation(summary = "Create many orders in one request")
+    @PostMapping("/batch")
+    public ResponseEntity<OrderBatchResponseDTO> createBatch(@Valid @RequestBody OrderBatchRequestDTO dto) {
+        log.info(CREATE_BATCH_LOG_INFO, dto.orders().size());
+        return ResponseEntity.ok(orderBatchService.createOrders(dto.orders()));
     }
 
-    @Operation(summary = "Get order by id")
-    @GetMapping("/{id}")
-    public ResponseEntity<OrderResponseDTO> getById(@PathVariable UUID id) {
+    @Operation(summary = "Get order by id", description = "Supports If-None-Match, answering 304 while the order " +
+                                                              "is unchanged")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = OrderResponseDTO.class)))
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getById(@PathVariable UUID id, WebRequest request) {
         log.info(GET_BY_ID_LOG_INFO, id);
-        return ResponseEntity.ok(orderService.getById(id));
+        CachedOrderResponseDTO response = orderResponseCache.get(id);
+        if (request.checkNotModified(response.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(response.eTag()).body(response.body());
     }
 
     @Operation(summary = "Get orders by status")
@@ -70,16 +158,112 @@ public class OrderController implements GenericController {
         return ResponseEntity.ok(orderService.getByPeriod(start, end));
     }
 
+    @Operation(summary = "Get a page of orders by status")
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<OrderPageResponseDTO> getPageByStatus(
+            @PathVariable Order.OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size
+    ) {
+        log.info(GET_PAGE_BY_STATUS_LOG_INFO, status, cursor);
+        return ResponseEntity.ok(orderService.getPageByStatus(status, cursor, size));
+    }
+
+    @Operation(summary = "Get a page of orders by period")
+    @GetMapping("/period/page")
+    public ResponseEntity<OrderPageResponseDTO> getPageByPeriod(
+            @RequestParam LocalDateTime start,
+            @RequestParam LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size
+    ) {
+        log.info(GET_PAGE_BY_PERIOD_LOG_INFO, start, end, cursor);
+        return ResponseEntity.ok(orderService.getPageByPeriod(start, end, cursor, size));
+    }
+
+    @Operation(summary = "Stream orders by status as NDJSON")
+    @GetMapping(value = "/status/{status}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByStatus(@PathVariable Order.OrderStatus status) {
+        log.info(STREAM_BY_STATUS_LOG_INFO, status);
+        StreamingResponseBody body = out -> orderService.streamByStatus(status, ndjsonWriter(out));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Stream orders by period as NDJSON")
+    @GetMapping(value = "/period/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByPeriod(
+            @RequestParam LocalDateTime start,
+            @RequestParam LocalDateTime end
+    ) {
+        log.info(STREAM_BY_PERIOD_LOG_INFO, start, end);
+        StreamingResponseBody body = out -> orderService.streamByPeriod(start, end, ndjsonWriter(out));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Export orders by period as CSV or NDJSON",
+               description = "Streams orders with their items in creation order. Every record carries the cursor " +
+                             "that resumes the export after it, and the body is gzipped when the client accepts it")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam LocalDateTime start,
+            @RequestParam LocalDateTime end,
+            @RequestParam(defaultValue = "NDJSON") OrderExportService.Format format,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        log.info(EXPORT_LOG_INFO, start, end, format, cursor);
+        OrderCursor after = cursor == null ? null : OrderCursor.decode(cursor);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                orderExportService.export(start, end, after, format, out);
+                return;
+            }
+            // closing finishes the gzip stream even if the export fails, the response stream stays with Spring
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(StreamUtils.nonClosing(out), GZIP_BUFFER_SIZE)) {
+                orderExportService.export(start, end, after, format, gzipOut);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format == OrderExportService.Format.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+
+    @Operation(summary = "Get order counts and totals by status",
+               description = "Served from precomputed aggregates, optionally narrowed to one partner")
+    @GetMapping("/stats")
+    public ResponseEntity<OrderStatsResponseDTO> getStats(@RequestParam(required = false) UUID partnerId) {
+        log.info(GET_STATS_LOG_INFO, partnerId);
+        return ResponseEntity.ok(orderService.getStats(partnerId));
+    }
+
     @Operation(summary = "Update order status")
     @PutMapping("/{id}/status")
     public ResponseEntity<OrderResponseDTO> statusUpdate(
             @PathVariable UUID id,
             @Valid @RequestBody OrderStatusUpdateRequestDTO dto
     ) {
-        log.info(STATUS_UPDATE_LOG_INFO, id, dto);
+        log.info(STATUS_UPDATE_LOG_INFO, id, dto.status());
         return ResponseEntity.ok(orderService.updateStatus(id, dto));
     }
 
+    @Operation(summary = "Update the status of many orders",
+               description = "Applies the rules of the single order update to every order and answers with the " +
+                             "outcome of each one")
+    @PutMapping("/status")
+    public ResponseEntity<OrderStatusBatchResponseDTO> statusUpdateBatch(
+            @Valid @RequestBody OrderStatusBatchRequestDTO dto
+    ) {
+        log.info(STATUS_UPDATE_BATCH_LOG_INFO, dto.ids().size(), dto.status());
+        return ResponseEntity.ok(orderStatusBatchService.updateStatus(dto.ids(), dto.status()));
+    }
+
     @Operation(summary = "Order cancel")
     @PutMapping("/{id}/cancel")
     public ResponseEntity<Void> cancel(@PathVariable UUID id) {
@@ -88,4 +272,52 @@ public class OrderController implements GenericController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Reads {@code Accept-Encoding} with its quality values: gzip is used when listed, or covered by
+     * {@code *}, with a non-zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase(GZIP)) {
+                gzipQuality = quality(parts);
+            } else if (name.equals(ANY_ENCODING)) {
+                anyQuality = quality(parts);
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith(QUALITY_PARAMETER)) {
+                try {
+                    return Double.parseDouble(parameter.substring(QUALITY_PARAMETER.length()));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private Consumer<OrderResponseDTO> ndjsonWriter(OutputStream out) {
+        return order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write(NEW_LINE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.orderservice.controller;
 
+import com.orderservice.dto.OrderPageResponseDTO;
 import com.orderservice.dto.PartnerRequestDTO;
 import com.orderservice.dto.PartnerResponseDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.service.OrderService;
 import com.orderservice.service.PartnerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,6 +17,8 @@ import org.springframework.web.bind.annotation.*;
 import java.net.URI;
 import java.util.UUID;
 
+import static com.orderservice.configuration.PayloadLogSampler.PAYLOAD;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/partners")
@@ -21,18 +26,27 @@ import java.util.UUID;
 @Tag(name = "Partners", description = "Partners Management")
 public class PartnerController implements GenericController {
 
-    private static final String CREATE_LOG_INFO = "PARTNERCONTROLLER - create method with dto: {}";
+    private static final String CREATE_LOG_INFO = "PARTNERCONTROLLER - create method";
+    private static final String CREATE_PAYLOAD_LOG_DEBUG = "PARTNERCONTROLLER - create method with dto: {}";
     private static final String GET_BY_ID_LOG_INFO = "PARTNERCONTROLLER - getById method with id: " +
                                                                         "{}";
     private static final String UPDATE_LOG_INFO = "PARTNERCONTROLLER - update method with id: " +
+                                                                        "{}";
+    private static final String UPDATE_PAYLOAD_LOG_DEBUG = "PARTNERCONTROLLER - update method with id: " +
                                                                         "{} and with dto: {}";
+    private static final String GET_ORDERS_LOG_INFO = "PARTNERCONTROLLER - getOrders method with id: {}, " +
+                                                                        "status: {} and cursor: {}";
+
+    private static final String DEFAULT_PAGE_SIZE = "50";
 
     private final PartnerService partnerService;
+    private final OrderService orderService;
 
     @Operation(summary = "Create a new partner")
     @PostMapping
     public ResponseEntity<Void> create(@Valid @RequestBody PartnerRequestDTO dto) {
-        log.info(CREATE_LOG_INFO, dto);
+        log.info(CREATE_LOG_INFO);
+        log.debug(PAYLOAD, CREATE_PAYLOAD_LOG_DEBUG, dto);
         PartnerResponseDTO partnerResponseDTO = partnerService.create(dto);
         URI uri = generateHeaderLocation(partnerResponseDTO.id());
         return ResponseEntity.created(uri).build();
@@ -45,10 +59,25 @@ public class PartnerController implements GenericController {
         return ResponseEntity.ok(partnerService.getById(id));
     }
 
+    @Operation(summary = "Get a page of a partner's orders",
+               description = "Returns order headers only, unless includeItems is set")
+    @GetMapping("/{id}/orders")
+    public ResponseEntity<OrderPageResponseDTO> getOrders(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean includeItems
+    ) {
+        log.info(GET_ORDERS_LOG_INFO, id, status, cursor);
+        return ResponseEntity.ok(orderService.getPageByPartner(id, status, cursor, size, includeItems));
+    }
+
     @Operation(summary = "Update a partner")
     @PostMapping("/{id}")
     public ResponseEntity<PartnerResponseDTO> update(@PathVariable UUID id, @Valid @RequestBody PartnerRequestDTO dto) {
-        log.info(UPDATE_LOG_INFO, id, dto);
+        log.info(UPDATE_LOG_INFO, id);
+        log.debug(PAYLOAD, UPDATE_PAYLOAD_LOG_DEBUG, id, dto);
         return ResponseEntity.ok(partnerService.update(id, dto));
     }
 
@@ -0,0 +1,7 @@
+package com.orderservice.dto;
+
+public record CachedOrderResponseDTO(
+        byte[] body,
+        String eTag
+) {
+}
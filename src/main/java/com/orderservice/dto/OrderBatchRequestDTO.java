@@ -0,0 +1,12 @@
+package com.orderservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record OrderBatchRequestDTO(
+        @NotEmpty @Size(max = 10000) List<@Valid OrderRequestDTO> orders
+) {
+}
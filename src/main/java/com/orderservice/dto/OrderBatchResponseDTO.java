@@ -0,0 +1,10 @@
+package com.orderservice.dto;
+
+import java.util.List;
+
+public record OrderBatchResponseDTO(
+        int created,
+        int rejected,
+        List<OrderBatchResultDTO> results
+) {
+}
@@ -0,0 +1,17 @@
+package com.orderservice.dto;
+
+import java.util.UUID;
+
+public record OrderBatchResultDTO(
+        int index,
+        UUID orderId,
+        Outcome outcome,
+        String message
+) {
+
+    public enum Outcome {
+        CREATED,
+        REJECTED
+    }
+
+}
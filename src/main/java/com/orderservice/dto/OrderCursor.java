@@ -0,0 +1,53 @@
+package com.orderservice.dto;
+
+import com.orderservice.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Keyset position on {@code (created_at, id)}, exchanged with clients as an opaque base64 token.
+ */
+public record OrderCursor(
+        LocalDateTime createdAt,
+        UUID id
+) {
+
+    /**
+     * Sorts cursors the way PostgreSQL sorts {@code (created_at, id)}, which compares uuids as unsigned bytes
+     * rather than as the signed halves {@link UUID#compareTo} uses.
+     */
+    public static final Comparator<OrderCursor> ORDER = Comparator.comparing(OrderCursor::createdAt)
+                                                                  .thenComparing(OrderCursor::id,
+                                                                                 OrderCursor::compareIds);
+
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR = "Invalid cursor!";
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new OrderCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(INVALID_CURSOR);
+        }
+    }
+
+    private static int compareIds(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+}
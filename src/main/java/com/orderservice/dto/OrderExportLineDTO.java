@@ -0,0 +1,12 @@
+package com.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * One NDJSON export line: the order plus the cursor that resumes the export right after it.
+ */
+public record OrderExportLineDTO(
+        String cursor,
+        @JsonUnwrapped OrderResponseDTO order
+) {
+}
@@ -0,0 +1,25 @@
+package com.orderservice.dto;
+
+import com.orderservice.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Order columns without the items, read straight from {@code tb_order} for listings that do not need them.
+ */
+public record OrderHeaderDTO(
+        UUID id,
+        UUID partnerId,
+        BigDecimal totalAmount,
+        Order.OrderStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    public OrderCursor cursor() {
+        return new OrderCursor(createdAt, id);
+    }
+
+}
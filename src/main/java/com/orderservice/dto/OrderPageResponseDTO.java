@@ -0,0 +1,9 @@
+package com.orderservice.dto;
+
+import java.util.List;
+
+public record OrderPageResponseDTO(
+        List<OrderResponseDTO> content,
+        String nextCursor
+) {
+}
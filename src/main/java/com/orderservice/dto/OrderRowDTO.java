@@ -0,0 +1,30 @@
+package com.orderservice.dto;
+
+import com.orderservice.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of an order joined with one of its items, projected straight from the query so reads never
+ * hydrate entities. The item columns are null for an order without items.
+ */
+public record OrderRowDTO(
+        UUID id,
+        UUID partnerId,
+        BigDecimal totalAmount,
+        Order.OrderStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        UUID itemId,
+        UUID productId,
+        Integer quantity,
+        BigDecimal unitPrice
+) {
+
+    public OrderCursor cursor() {
+        return new OrderCursor(createdAt, id);
+    }
+
+}
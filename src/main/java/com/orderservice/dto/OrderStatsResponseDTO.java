@@ -0,0 +1,13 @@
+package com.orderservice.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record OrderStatsResponseDTO(
+        UUID partnerId,
+        long orderCount,
+        BigDecimal totalAmount,
+        List<OrderStatusStatsDTO> statuses
+) {
+}
@@ -0,0 +1,15 @@
+package com.orderservice.dto;
+
+import com.orderservice.entity.Order;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record OrderStatusBatchRequestDTO(
+        @NotEmpty @Size(max = 10000) List<@NotNull UUID> ids,
+        @NotNull Order.OrderStatus status
+) {
+}
@@ -0,0 +1,10 @@
+package com.orderservice.dto;
+
+import java.util.List;
+
+public record OrderStatusBatchResponseDTO(
+        int updated,
+        int rejected,
+        List<OrderStatusBatchResultDTO> results
+) {
+}
@@ -0,0 +1,16 @@
+package com.orderservice.dto;
+
+import java.util.UUID;
+
+public record OrderStatusBatchResultDTO(
+        UUID orderId,
+        Outcome outcome,
+        String message
+) {
+
+    public enum Outcome {
+        UPDATED,
+        REJECTED
+    }
+
+}
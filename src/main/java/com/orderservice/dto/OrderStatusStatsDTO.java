@@ -0,0 +1,12 @@
+package com.orderservice.dto;
+
+import com.orderservice.entity.Order;
+
+import java.math.BigDecimal;
+
+public record OrderStatusStatsDTO(
+        Order.OrderStatus status,
+        long orderCount,
+        BigDecimal totalAmount
+) {
+}
@@ -0,0 +1,10 @@
+package com.orderservice.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record PartnerCreditDTO(
+        UUID partnerId,
+        BigDecimal availableCredit
+) {
+}
@@ -40,7 +40,7 @@ public class Order {
     private OrderStatus status;
 
     @CreatedDate
-    @Column(name = "created_at", nullable = true)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @LastModifiedDate
@@ -53,7 +53,18 @@ public class Order {
         EM_PROCESSAMENTO,
         ENVIADO,
         ENTREGUE,
-        CANCELADO
+        CANCELADO;
+
+        // Orders only move forward and can be canceled until they ship, so the flow has no cycles
+        public boolean canTransitionTo(OrderStatus target) {
+            return switch (this) {
+                case PENDENTE -> target == APROVADO || target == CANCELADO;
+                case APROVADO -> target == EM_PROCESSAMENTO || target == CANCELADO;
+                case EM_PROCESSAMENTO -> target == ENVIADO || target == CANCELADO;
+                case ENVIADO -> target == ENTREGUE;
+                case ENTREGUE, CANCELADO -> false;
+            };
+        }
     }
 
 }
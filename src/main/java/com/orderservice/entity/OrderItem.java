@@ -29,6 +29,10 @@ public class OrderItem {
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
+    // partition key of tb_order_item, always the creation time of the order
+    @Column(name = "order_created_at", nullable = false, updatable = false)
+    private LocalDateTime orderCreatedAt;
+
     @Column(name = "product_id", nullable = false)
     private UUID productId;
 
@@ -46,4 +50,11 @@ public class OrderItem {
     @Column(name = "updated_at", nullable = true)
     private LocalDateTime updatedAt;
 
+    @PrePersist
+    void copyOrderCreatedAt() {
+        if (orderCreatedAt == null && order != null) {
+            orderCreatedAt = order.getCreatedAt();
+        }
+    }
+
 }
@@ -0,0 +1,29 @@
+package com.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Creation time of every order in {@code tb_order}, kept by a database trigger. Queries by id look it up so
+ * PostgreSQL can prune {@code tb_order} to the partition of the order.
+ */
+@Entity
+@Immutable
+@Table(name = "tb_order_key")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderKey {
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+}
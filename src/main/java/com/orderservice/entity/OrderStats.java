@@ -0,0 +1,49 @@
+package com.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_order_stats")
+@IdClass(OrderStats.OrderStatsId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStats {
+
+    @Id
+    @Column(name = "partner_id")
+    private UUID partnerId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 50)
+    private Order.OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "total_amount", precision = 18, scale = 2, nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderStatsId implements Serializable {
+
+        private UUID partnerId;
+        private Order.OrderStatus status;
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_outbox_event")
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    // one id per insert, so the events of an order are numbered in commit order across instances
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_outbox_event")
+    @SequenceGenerator(name = "seq_outbox_event", sequenceName = "seq_outbox_event", allocationSize = 1)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private UUID aggregateId;
+
+    @Column(name = "exchange", nullable = false)
+    private String exchange;
+
+    @Column(name = "routing_key", nullable = false)
+    private String routingKey;
+
+    @Column(name = "type_id")
+    private String typeId;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+}
@@ -0,0 +1,32 @@
+package com.orderservice.event;
+
+import com.orderservice.service.OrderResponseCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import static com.orderservice.configuration.RabbitMQConfig.CACHE_EVICTION_CONTAINER_FACTORY;
+import static com.orderservice.configuration.RabbitMQConfig.ORDER_CACHE_EVICTION_LISTENER_ID;
+
+/**
+ * Evicts the cached response of an order on this instance for every status event, wherever the status
+ * changed. Events reach it through this instance's own queue on the broadcast exchange.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderCacheEvictionListener {
+
+    private static final String EVICT_LOG_DEBUG = "Evicting cached order {} after status change to {}";
+
+    private final OrderResponseCache orderResponseCache;
+
+    @RabbitListener(id = ORDER_CACHE_EVICTION_LISTENER_ID, queues = "#{orderCacheEvictionQueue.name}",
+                    containerFactory = CACHE_EVICTION_CONTAINER_FACTORY)
+    public void evict(OrderStatusEvent event) {
+        log.debug(EVICT_LOG_DEBUG, event.orderId(), event.status());
+        orderResponseCache.evict(event.orderId());
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.orderservice.event;
+
+import com.orderservice.entity.Order;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Encodes {@link OrderStatusEvent} in a fixed binary layout, about a quarter of its JSON size and without
+ * type headers. All numbers are big-endian:
+ * <pre>
+ * version        1 byte   (1)
+ * orderId        16 bytes (most, least significant bits)
+ * partnerId      16 bytes
+ * status         1 byte   (ordinal of {@link Order.OrderStatus}, so statuses may only ever be appended)
+ * updatedAt      12 bytes (epoch seconds as UTC, nanos)
+ * totalAmount    1 byte scale, 1 byte length, then the two's-complement unscaled value
+ * </pre>
+ * Both amount header bytes are signed, so amounts whose scale falls outside a byte or whose unscaled value
+ * needs more than 127 bytes are rejected when encoding instead of being truncated.
+ * Messages are told apart from JSON by {@link #CONTENT_TYPE}, so both formats can share the queue while
+ * producers and consumers migrate.
+ */
+public class OrderStatusEventBinaryConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/vnd.orderservice.order-status-event.v1+binary";
+
+    private static final byte VERSION = 1;
+    private static final int FIXED_LENGTH = 1 + 16 + 16 + 1 + 12 + 2;
+    private static final String UNSUPPORTED_PAYLOAD = "Only OrderStatusEvent can be encoded, got ";
+    private static final String UNSUPPORTED_VERSION = "Unsupported order status event version ";
+    private static final String MALFORMED_PAYLOAD = "Malformed order status event payload";
+    private static final String UNSUPPORTED_AMOUNT = "Total amount %s does not fit the binary layout";
+
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (!(object instanceof OrderStatusEvent event)) {
+            throw new MessageConversionException(UNSUPPORTED_PAYLOAD + object.getClass().getName());
+        }
+
+        byte[] unscaled = event.totalAmount().unscaledValue().toByteArray();
+        int scale = event.totalAmount().scale();
+        if (scale < Byte.MIN_VALUE || scale > Byte.MAX_VALUE || unscaled.length > Byte.MAX_VALUE) {
+            throw new MessageConversionException(UNSUPPORTED_AMOUNT.formatted(event.totalAmount()));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_LENGTH + unscaled.length);
+        buffer.put(VERSION);
+        putUuid(buffer, event.orderId());
+        putUuid(buffer, event.partnerId());
+        buffer.put((byte) event.status().ordinal());
+        buffer.putLong(event.updatedAt().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(event.updatedAt().getNano());
+        buffer.put((byte) scale);
+        buffer.put((byte) unscaled.length);
+        buffer.put(unscaled);
+
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(buffer.capacity());
+        return new Message(buffer.array(), messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        ByteBuffer buffer = ByteBuffer.wrap(message.getBody());
+        try {
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new MessageConversionException(UNSUPPORTED_VERSION + version);
+            }
+
+            UUID orderId = getUuid(buffer);
+            UUID partnerId = getUuid(buffer);
+            Order.OrderStatus status = STATUSES[buffer.get()];
+            LocalDateTime updatedAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            int scale = buffer.get();
+            byte[] unscaled = new byte[buffer.get()];
+            buffer.get(unscaled);
+
+            return new OrderStatusEvent(orderId, partnerId, new BigDecimal(new BigInteger(unscaled), scale), status,
+                                        updatedAt);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException |
+                 NumberFormatException | DateTimeException e) {
+            throw new MessageConversionException(MALFORMED_PAYLOAD, e);
+        }
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+}
@@ -1,22 +1,88 @@
 package com.orderservice.event;
 
-import com.orderservice.configuration.RabbitMQConfig;
+import com.rabbitmq.client.Channel;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.orderservice.configuration.RabbitMQConfig.ORDER_STATUS_LISTENER_ID;
 import static com.orderservice.configuration.RabbitMQConfig.ORDER_STATUS_QUEUE;
+import static com.orderservice.event.OrderStatusEventProcessor.deliveryTag;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class OrderStatusEventListener {
 
-    private static final String RECEIVED_ORDER_STATUS_LOG_INFO = "Received order status event: {}";
+    private static final String RECEIVED_BATCH_LOG_DEBUG = "Received {} order status events";
+    private static final String REJECTED_BATCH_LOG_WARN = "Rejected {} of {} order status messages";
+    private static final String UNDECODABLE_LOG_ERROR = "Could not decode order status message {}, rejecting it";
+    private static final String UNEXPECTED_PAYLOAD = "Not an order status event: ";
+
+    private final OrderStatusEventProcessor processor;
+    private final MessageConverter messageConverter;
+
+    // messages are converted here rather than by the container: with manual acks a conversion failure in the
+    // container would leave the whole batch unacked, so an undecodable message is rejected on its own instead
+    @RabbitListener(id = ORDER_STATUS_LISTENER_ID, queues = ORDER_STATUS_QUEUE)
+    public void receiveEvents(List<org.springframework.amqp.core.Message> messages, Channel channel)
+            throws IOException {
+        log.debug(RECEIVED_BATCH_LOG_DEBUG, messages.size());
+        Set<Long> failed = new HashSet<>();
+        List<Message<OrderStatusEvent>> events = new ArrayList<>(messages.size());
+        for (org.springframework.amqp.core.Message message : messages) {
+            long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            try {
+                events.add(MessageBuilder.withPayload(decode(message))
+                                         .setHeader(AmqpHeaders.DELIVERY_TAG, deliveryTag)
+                                         .build());
+            } catch (MessageConversionException e) {
+                log.error(UNDECODABLE_LOG_ERROR, deliveryTag, e);
+                failed.add(deliveryTag);
+            }
+        }
+        if (!events.isEmpty()) {
+            failed.addAll(processor.process(events));
+        }
+
+        if (failed.isEmpty()) {
+            channel.basicAck(deliveryTag(events.getLast()), true);
+            return;
+        }
+
+        // events unpacked from one packed message share its delivery tag, so each tag is settled once and
+        // a packed message is rejected as a whole when any of its events failed
+        Set<Long> deliveryTags = new LinkedHashSet<>();
+        messages.forEach(message -> deliveryTags.add(message.getMessageProperties().getDeliveryTag()));
+        log.warn(REJECTED_BATCH_LOG_WARN, failed.size(), deliveryTags.size());
+        for (long deliveryTag : deliveryTags) {
+            if (failed.contains(deliveryTag)) {
+                channel.basicNack(deliveryTag, false, false);
+            } else {
+                channel.basicAck(deliveryTag, false);
+            }
+        }
+    }
 
-    @RabbitListener(queues = ORDER_STATUS_QUEUE)
-    public void receiveEvent(OrderStatusEvent event) {
-        log.info(RECEIVED_ORDER_STATUS_LOG_INFO, event);
-        //TODO improve the logic for consumer
+    private OrderStatusEvent decode(org.springframework.amqp.core.Message message) {
+        Object payload = messageConverter.fromMessage(message);
+        if (!(payload instanceof OrderStatusEvent event)) {
+            throw new MessageConversionException(UNEXPECTED_PAYLOAD + payload.getClass().getName());
+        }
+        return event;
     }
 
-}
\ No newline at end of file
+}
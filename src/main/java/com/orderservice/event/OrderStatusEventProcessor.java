@@ -0,0 +1,145 @@
+package com.orderservice.event;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Handles a consumed batch on a fixed set of single-threaded workers. Events are routed to a worker
+ * by a consistent hash of the order id, so every event of an order is handled by the same thread in
+ * the order it was received while different orders are handled in parallel. Parallelism comes from
+ * the workers; more than one consumer ({@code orderservice.listener.concurrency}) interleaves the
+ * queue between channels and gives up that ordering. Handling time is timed per outcome, and the
+ * time from the status change to its event being handled is recorded as consume lag.
+ */
+@Slf4j
+@Component
+public class OrderStatusEventProcessor {
+
+    private static final String RECEIVED_ORDER_STATUS_LOG_INFO = "Received order status event: {}";
+    private static final String HANDLE_FAILED_LOG_ERROR = "Failed to handle order status event {}, rejecting it";
+    private static final String WORKER_THREAD_NAME = "order-status-worker-";
+    private static final String CONSUME_TIMER = "orderservice.events.consume";
+    private static final String LAG_TIMER = "orderservice.events.lag";
+    private static final String OUTCOME_TAG = "outcome";
+
+    private final List<ExecutorService> workers;
+    private final RetryTemplate retryTemplate;
+    private final Timer handledTimer;
+    private final Timer failedTimer;
+    private final Timer lagTimer;
+
+    public OrderStatusEventProcessor(@Value("${orderservice.listener.workers:4}") int workers,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                     RetryTemplate orderStatusRetryTemplate,
+                                     MeterRegistry meterRegistry) {
+        this.workers = IntStream.range(0, workers)
+                                .mapToObj(i -> Executors.newSingleThreadExecutor(threadFactory(virtualThreads, i)))
+                                .toList();
+        this.retryTemplate = orderStatusRetryTemplate;
+        this.handledTimer = meterRegistry.timer(CONSUME_TIMER, OUTCOME_TAG, "success");
+        this.failedTimer = meterRegistry.timer(CONSUME_TIMER, OUTCOME_TAG, "failure");
+        this.lagTimer = meterRegistry.timer(LAG_TIMER);
+    }
+
+    /**
+     * Handles every event of the batch and waits for all workers to finish.
+     *
+     * @return the delivery tags of the events that could not be handled
+     */
+    public Set<Long> process(List<Message<OrderStatusEvent>> messages) {
+        Map<Integer, List<Message<OrderStatusEvent>>> partitions = messages.stream().collect(
+                Collectors.groupingBy(message -> partitionOf(message.getPayload().orderId(), workers.size())));
+
+        List<CompletableFuture<List<Long>>> futures = partitions.entrySet().stream()
+                .map(partition -> CompletableFuture.supplyAsync(() -> handleAll(partition.getValue()),
+                                                                workers.get(partition.getKey())))
+                .toList();
+
+        Set<Long> failed = new HashSet<>();
+        futures.forEach(future -> failed.addAll(future.join()));
+        return failed;
+    }
+
+    /**
+     * Handles one event on its order's worker. No business reaction to status changes is defined yet, so
+     * events are only logged; a failure thrown from here is retried and then rejects the event.
+     */
+    protected void handle(OrderStatusEvent event) {
+        log.info(RECEIVED_ORDER_STATUS_LOG_INFO, event);
+    }
+
+    private List<Long> handleAll(List<Message<OrderStatusEvent>> messages) {
+        List<Long> failed = new ArrayList<>();
+        for (Message<OrderStatusEvent> message : messages) {
+            long start = System.nanoTime();
+            try {
+                retryTemplate.execute(context -> {
+                    handle(message.getPayload());
+                    return null;
+                });
+                handledTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                recordLag(message.getPayload());
+            } catch (RuntimeException e) {
+                failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.error(HANDLE_FAILED_LOG_ERROR, message.getPayload(), e);
+                failed.add(deliveryTag(message));
+            }
+        }
+        return failed;
+    }
+
+    private void recordLag(OrderStatusEvent event) {
+        if (event.updatedAt() != null) {
+            lagTimer.record(Duration.between(event.updatedAt(), LocalDateTime.now()));
+        }
+    }
+
+    private static ThreadFactory threadFactory(boolean virtualThreads, int worker) {
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform();
+        return builder.name(WORKER_THREAD_NAME + worker).factory();
+    }
+
+    static long deliveryTag(Message<?> message) {
+        return message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+    }
+
+    /**
+     * Jump consistent hash (Lamping and Veach): stable for a given worker count and moves only
+     * {@code 1/n} of the orders when a worker is added.
+     */
+    static int partitionOf(UUID orderId, int partitions) {
+        long key = orderId.getMostSignificantBits() ^ orderId.getLeastSignificantBits();
+        long bucket = -1;
+        long next = 0;
+        while (next < partitions) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.forEach(ExecutorService::shutdown);
+    }
+
+}
@@ -1,35 +1,72 @@
 package com.orderservice.event;
 
+import com.orderservice.entity.OutboxEvent;
+import com.orderservice.repository.OutboxEventRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import static com.orderservice.configuration.RabbitMQConfig.ORDER_STATUS_QUEUE;
+import java.util.List;
 
+import static com.orderservice.configuration.RabbitMQConfig.ORDER_STATUS_BROADCAST_EXCHANGE;
+import static com.orderservice.configuration.RabbitMQConfig.ORDER_STATUS_ROUTING_KEY;
+
+/**
+ * Writes order status events to the outbox in the caller's transaction; {@link OutboxRelay} sends
+ * them to RabbitMQ once committed, so a rolled back status change never produces an event and the
+ * request never waits on the broker. Events go to the broadcast exchange, which feeds the work queue and
+ * the order cache eviction queue of every instance.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@Timed("orderservice.events.enqueue")
 public class OrderStatusEventPublisher {
 
-    private static final String SEND_ORDER_STATUS_LOG_INFO = "Sending order status event: {}";
+    private static final String QUEUE_ORDER_STATUS_LOG_INFO = "Queueing order status event in outbox: {}";
+    private static final String QUEUE_ORDER_STATUS_BATCH_LOG_INFO = "Queueing {} order status events in outbox";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MessageConverter messageConverter;
 
-    private final RabbitTemplate rabbitTemplate;
+    @Value("${orderservice.events.content-type:application/json}")
+    private String contentType;
 
+    @Transactional(Transactional.TxType.MANDATORY)
     public void publishStatusChange(OrderStatusEvent event) {
-        log.info(SEND_ORDER_STATUS_LOG_INFO, event);
-        rabbitTemplate.convertAndSend(ORDER_STATUS_QUEUE, event);
+        log.info(QUEUE_ORDER_STATUS_LOG_INFO, event);
+        outboxEventRepository.save(toOutboxEvent(event));
     }
 
-    public void publishStatusChange(com.orderservice.entity.Order order) {
-        OrderStatusEvent event = new OrderStatusEvent(
-                order.getId(),
-                order.getPartnerId(),
-                order.getTotalAmount(),
-                order.getStatus(),
-                order.getUpdatedAt()
-        );
-        publishStatusChange(event);
+    /**
+     * Writes many events with one batched insert, for bulk transitions.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void publishStatusChanges(List<OrderStatusEvent> events) {
+        log.info(QUEUE_ORDER_STATUS_BATCH_LOG_INFO, events.size());
+        outboxEventRepository.saveAll(events.stream().map(this::toOutboxEvent).toList());
+    }
+
+    private OutboxEvent toOutboxEvent(OrderStatusEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(contentType);
+        Message message = messageConverter.toMessage(event, properties);
+
+        return OutboxEvent.builder()
+                          .aggregateId(event.orderId())
+                          .exchange(ORDER_STATUS_BROADCAST_EXCHANGE)
+                          .routingKey(ORDER_STATUS_ROUTING_KEY)
+                          .typeId(properties.getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME))
+                          .contentType(properties.getContentType())
+                          .payload(message.getBody())
+                          .build();
     }
 
-}
\ No newline at end of file
+}
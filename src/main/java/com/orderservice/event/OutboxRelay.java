@@ -0,0 +1,292 @@
+package com.orderservice.event;
+
+import com.orderservice.entity.OutboxEvent;
+import com.orderservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.batch.MessageBatch;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Drains {@code tb_outbox_event} in batches: the pending rows are locked with SKIP LOCKED, sent
+ * without waiting on each other, and marked published only for the messages the broker confirmed.
+ * Unconfirmed rows stay pending and are retried on the next run, so delivery is at-least-once and
+ * the outbox id is sent as message id for consumers to deduplicate. Each batch is timed, and the
+ * time from an event being queued to its broker confirm is recorded as outbox lag.
+ * <p>
+ * Events of one order are sent in the order their status changes committed: outbox ids are taken from
+ * the database on each insert, after the order row lock, and a batch leaves out the orders whose older
+ * events another relay instance has locked. A nacked or unconfirmed event is sent again after the later
+ * ones of its batch, so ordering only holds while the broker confirms.
+ * <p>
+ * For status storms the relay can cut the broker message count. With {@code relay.coalesce} only the
+ * latest pending event of each aggregate in a batch is sent and the ones it supersedes are marked
+ * published with it, so the coalescing window is what piles up between two runs. With
+ * {@code relay.pack-size} above one, events with the same destination and content type are packed
+ * into one message in Spring AMQP's batch format, which the listener container unpacks again; a
+ * packed message carries the outbox id of its first event.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "orderservice.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final String RELAYED_LOG_DEBUG = "Relayed {} outbox events";
+    private static final String DEFERRED_LOG_DEBUG = "Deferred events of {} aggregates held by another relay";
+    private static final String NACK_LOG_WARN = "Broker did not confirm outbox event {}: {}";
+    private static final String CONFIRM_TIMEOUT_LOG_WARN = "Timed out waiting for broker confirms, {} outbox events stay pending";
+    private static final String CONFIRM_FAILED_LOG_WARN = "Failed waiting for confirm of outbox event {}";
+    private static final String RELAY_FAILED_LOG_WARN = "Outbox relay failed, events stay pending: {}";
+    private static final String PURGED_LOG_INFO = "Purged {} published outbox events";
+    private static final String RELAY_BATCH_TIMER = "orderservice.outbox.relay";
+    private static final String LAG_TIMER = "orderservice.outbox.lag";
+    private static final String PUBLISHED_COUNTER = "orderservice.outbox.published";
+    private static final String UNCONFIRMED_COUNTER = "orderservice.outbox.unconfirmed";
+    private static final String MESSAGES_COUNTER = "orderservice.outbox.messages";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orderservice.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${orderservice.outbox.confirm-timeout:5000}")
+    private long confirmTimeout;
+
+    @Value("${orderservice.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${orderservice.outbox.relay.coalesce:false}")
+    private boolean coalesce;
+
+    @Value("${orderservice.outbox.relay.pack-size:1}")
+    private int packSize;
+
+    @Scheduled(fixedDelayString = "${orderservice.outbox.relay.interval:200}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed == batchSize);
+        } catch (AmqpException e) {
+            log.warn(RELAY_FAILED_LOG_WARN, e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${orderservice.outbox.purge-cron:0 0 * * * *}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        Integer purged = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(before));
+        log.info(PURGED_LOG_INFO, purged);
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> events = withoutEventsHeldElsewhere(outboxEventRepository.lockPending(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        List<Pack> packs = pack(coalesce(events));
+        List<Sent> sent = new ArrayList<>(packs.size());
+        for (Pack pack : packs) {
+            CorrelationData correlation = new CorrelationData(pack.message().getMessageProperties().getMessageId());
+            rabbitTemplate.send(pack.exchange(), pack.routingKey(), pack.message(), correlation);
+            sent.add(new Sent(correlation, pack.ids()));
+        }
+
+        List<Long> confirmed = awaitConfirms(sent);
+        LocalDateTime publishedAt = LocalDateTime.now();
+        if (!confirmed.isEmpty()) {
+            outboxEventRepository.markPublished(confirmed, publishedAt);
+        }
+        sample.stop(meterRegistry.timer(RELAY_BATCH_TIMER));
+        meterRegistry.counter(MESSAGES_COUNTER).increment(packs.size());
+        recordPublished(events, confirmed, publishedAt);
+        log.debug(RELAYED_LOG_DEBUG, confirmed.size());
+        return confirmed.size();
+    }
+
+    private void recordPublished(List<OutboxEvent> events, List<Long> confirmed, LocalDateTime publishedAt) {
+        Timer lag = meterRegistry.timer(LAG_TIMER);
+        Set<Long> confirmedIds = new HashSet<>(confirmed);
+        for (OutboxEvent event : events) {
+            if (confirmedIds.contains(event.getId()) && event.getCreatedAt() != null) {
+                lag.record(Duration.between(event.getCreatedAt(), publishedAt));
+            }
+        }
+        meterRegistry.counter(PUBLISHED_COUNTER).increment(confirmed.size());
+        meterRegistry.counter(UNCONFIRMED_COUNTER).increment(events.size() - confirmed.size());
+    }
+
+    /**
+     * Leaves out the aggregates with an older pending event outside the batch. They stay pending and are
+     * sent by a later run, after the relay holding the older event has sent it.
+     */
+    private List<OutboxEvent> withoutEventsHeldElsewhere(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return events;
+        }
+
+        Set<UUID> aggregateIds = events.stream().map(OutboxEvent::getAggregateId).collect(Collectors.toSet());
+        List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+        long before = ids.stream().mapToLong(Long::longValue).max().orElseThrow();
+        Set<UUID> heldElsewhere = new HashSet<>(
+                outboxEventRepository.findAggregatesPendingElsewhere(aggregateIds, before, ids));
+        if (heldElsewhere.isEmpty()) {
+            return events;
+        }
+
+        log.debug(DEFERRED_LOG_DEBUG, heldElsewhere.size());
+        return events.stream().filter(event -> !heldElsewhere.contains(event.getAggregateId())).toList();
+    }
+
+    /**
+     * Keeps only the latest event of each aggregate and destination when coalescing; every kept event
+     * carries the ids of the events it supersedes. The latest event is the one with the highest id, which
+     * only holds because outbox ids are drawn from the database per insert, after the order row lock.
+     */
+    private List<Pending> coalesce(List<OutboxEvent> events) {
+        if (!coalesce) {
+            return events.stream().map(event -> new Pending(event, List.of(event.getId()))).toList();
+        }
+
+        Map<List<Object>, Pending> latest = new HashMap<>();
+        List<Pending> pending = new ArrayList<>();
+        for (OutboxEvent event : events.reversed()) {
+            List<Object> key = List.of(event.getExchange(), event.getRoutingKey(), event.getAggregateId());
+            Pending kept = latest.get(key);
+            if (kept == null) {
+                kept = new Pending(event, new ArrayList<>());
+                latest.put(key, kept);
+                pending.add(kept);
+            }
+            kept.ids().add(event.getId());
+        }
+        return pending.reversed();
+    }
+
+    /**
+     * Packs up to {@code packSize} events per message. Unpacked events inherit the properties of the
+     * packed message, so only events with the same destination, content type and type id share one.
+     */
+    private List<Pack> pack(List<Pending> pending) {
+        if (packSize <= 1) {
+            return pending.stream()
+                          .map(p -> new Pack(p.event().getExchange(), p.event().getRoutingKey(), toMessage(p.event()),
+                                             p.ids()))
+                          .toList();
+        }
+
+        Map<List<String>, List<Pending>> groups = pending.stream().collect(Collectors.groupingBy(
+                p -> Arrays.asList(p.event().getExchange(), p.event().getRoutingKey(), p.event().getContentType(),
+                                   p.event().getTypeId()),
+                LinkedHashMap::new, Collectors.toList()));
+
+        List<Pack> packs = new ArrayList<>();
+        for (List<Pending> group : groups.values()) {
+            for (int from = 0; from < group.size(); from += packSize) {
+                packs.add(assemble(group.subList(from, Math.min(from + packSize, group.size()))));
+            }
+        }
+        return packs;
+    }
+
+    private Pack assemble(List<Pending> chunk) {
+        String exchange = chunk.getFirst().event().getExchange();
+        String routingKey = chunk.getFirst().event().getRoutingKey();
+        // sized to the chunk, so the strategy releases the batch on the last add
+        SimpleBatchingStrategy strategy = new SimpleBatchingStrategy(chunk.size(), Integer.MAX_VALUE, Long.MAX_VALUE);
+        List<Long> ids = new ArrayList<>();
+        MessageBatch batch = null;
+        for (Pending p : chunk) {
+            batch = strategy.addToBatch(exchange, routingKey, toMessage(p.event()));
+            ids.addAll(p.ids());
+        }
+        return new Pack(exchange, routingKey, batch.getMessage(), ids);
+    }
+
+    private List<Long> awaitConfirms(List<Sent> sent) {
+        List<Long> confirmed = new ArrayList<>(sent.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeout);
+        for (Sent message : sent) {
+            CorrelationData correlation = message.correlation();
+            try {
+                CorrelationData.Confirm confirm = correlation.getFuture()
+                                                             .get(Math.max(0, deadline - System.nanoTime()),
+                                                                  TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    confirmed.addAll(message.ids());
+                } else {
+                    log.warn(NACK_LOG_WARN, correlation.getId(), confirm.getReason());
+                }
+            } catch (TimeoutException e) {
+                log.warn(CONFIRM_TIMEOUT_LOG_WARN,
+                         sent.stream().mapToInt(m -> m.ids().size()).sum() - confirmed.size());
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.warn(CONFIRM_FAILED_LOG_WARN, correlation.getId(), e.getCause());
+            }
+        }
+        return confirmed;
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId(String.valueOf(event.getId()));
+        properties.setContentType(event.getContentType());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        if (event.getTypeId() != null) {
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getTypeId());
+        }
+        return new Message(event.getPayload(), properties);
+    }
+
+    private record Pending(OutboxEvent event, List<Long> ids) {
+    }
+
+    private record Pack(String exchange, String routingKey, Message message, List<Long> ids) {
+    }
+
+    private record Sent(CorrelationData correlation, List<Long> ids) {
+    }
+
+}
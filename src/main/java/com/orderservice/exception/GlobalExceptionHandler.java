@@ -45,6 +45,29 @@ public class GlobalExceptionHandler {
         return buildResponseEntity(BAD_REQUEST, ex.getMessage(), request);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiError> handleInvalidCursorException(InvalidCursorException ex, HttpServletRequest request) {
+        return buildResponseEntity(BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    public ResponseEntity<ApiError> handleInvalidStatusTransitionException(InvalidStatusTransitionException ex,
+                                                                           HttpServletRequest request) {
+        return buildResponseEntity(CONFLICT, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ApiError> handleInvalidIdempotencyKeyException(InvalidIdempotencyKeyException ex,
+                                                                         HttpServletRequest request) {
+        return buildResponseEntity(BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ApiError> handleIdempotencyKeyReuseException(IdempotencyKeyReuseException ex,
+                                                                       HttpServletRequest request) {
+        return buildResponseEntity(UNPROCESSABLE_ENTITY, ex.getMessage(), request);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidationException(MethodArgumentNotValidException ex, HttpServletRequest request) {
         List<ApiError.FieldError> fieldErrors = ex.getBindingResult().getFieldErrors().stream()
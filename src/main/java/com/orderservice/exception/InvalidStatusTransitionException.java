@@ -0,0 +1,9 @@
+package com.orderservice.exception;
+
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    public InvalidStatusTransitionException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.orderservice.repository;
+
+import com.orderservice.entity.CreditMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CreditMovementRepository extends JpaRepository<CreditMovement, UUID> {
+
+    List<CreditMovement> findByPartnerId(UUID partnerId);
+
+    boolean existsByOrderIdAndType(UUID orderId, CreditMovement.MovementType type);
+
+    @Modifying
+    @Query(value = "INSERT INTO tb_credit_movement (id, partner_id, order_id, type, amount, created_at) " +
+                   "VALUES (gen_random_uuid(), :partnerId, :orderId, :type, :amount, now()) " +
+                   "ON CONFLICT (order_id, type) DO NOTHING", nativeQuery = true)
+    int append(UUID partnerId, UUID orderId, String type, BigDecimal amount);
+
+    /**
+     * Appends a debit for every given order that has none yet and takes their sum off each partner in the
+     * same statement. The caller checks the credit against the partners it locked.
+     *
+     * @return the number of partners whose credit changed
+     */
+    @Modifying
+    @Query(value = "WITH moved AS (" +
+                   "    INSERT INTO tb_credit_movement (id, partner_id, order_id, type, amount, created_at) " +
+                   "    SELECT gen_random_uuid(), o.partner_id, o.id, 'DEBIT', o.total_amount, now() " +
+                   "    FROM tb_order o WHERE o.id IN (:orderIds) " +
+                   "    ON CONFLICT (order_id, type) DO NOTHING " +
+                   "    RETURNING partner_id, amount" +
+                   "), totals AS (" +
+                   "    SELECT partner_id, sum(amount) AS amount FROM moved GROUP BY partner_id" +
+                   ") " +
+                   "UPDATE tb_partner p SET credit_limit = p.credit_limit - t.amount, updated_at = now() " +
+                   "FROM totals t WHERE p.id = t.partner_id", nativeQuery = true)
+    int reserveAll(Collection<UUID> orderIds);
+
+    /**
+     * Appends a credit for every given order that was debited and not yet credited, and gives their sum
+     * back to each partner in the same statement.
+     *
+     * @return the number of partners whose credit changed
+     */
+    @Modifying
+    @Query(value = "WITH moved AS (" +
+                   "    INSERT INTO tb_credit_movement (id, partner_id, order_id, type, amount, created_at) " +
+                   "    SELECT gen_random_uuid(), d.partner_id, d.order_id, 'CREDIT', d.amount, now() " +
+                   "    FROM tb_credit_movement d WHERE d.order_id IN (:orderIds) AND d.type = 'DEBIT' " +
+                   "    ON CONFLICT (order_id, type) DO NOTHING " +
+                   "    RETURNING partner_id, amount" +
+                   "), totals AS (" +
+                   "    SELECT partner_id, sum(amount) AS amount FROM moved GROUP BY partner_id" +
+                   ") " +
+                   "UPDATE tb_partner p SET credit_limit = p.credit_limit + t.amount, updated_at = now() " +
+                   "FROM totals t WHERE p.id = t.partner_id", nativeQuery = true)
+    int releaseAll(Collection<UUID> orderIds);
+
+}
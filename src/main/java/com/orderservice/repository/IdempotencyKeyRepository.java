@@ -0,0 +1,36 @@
+package com.orderservice.repository;
+
+import com.orderservice.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Claims the key for the current transaction. While another transaction holds an uncommitted claim this
+     * waits for it; it then returns 0 if that transaction committed and 1 if it rolled back.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_idempotency_key (idempotency_key, request_hash, created_at) " +
+                   "VALUES (:key, :requestHash, now()) ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int claim(String key, String requestHash);
+
+    @Modifying
+    @Query("update IdempotencyKey k set k.orderId = :orderId where k.key = :key")
+    int complete(String key, UUID orderId);
+
+    @Query("select k from IdempotencyKey k where k.key = :key and k.orderId is not null")
+    Optional<IdempotencyKey> findCompletedByKey(String key);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+
+}
@@ -0,0 +1,123 @@
+package com.orderservice.repository;
+
+import com.orderservice.dto.OrderCursor;
+import com.orderservice.dto.OrderHeaderDTO;
+import com.orderservice.dto.OrderRowDTO;
+import com.orderservice.entity.ArchivedOrder;
+import com.orderservice.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Reads of the archive mirror the listings of {@link OrderRepository}, with the same {@code (created_at, id)}
+ * order, so the service can merge both tiers.
+ */
+@Repository
+@Transactional(readOnly = true)
+public interface OrderArchiveRepository extends JpaRepository<ArchivedOrder, UUID> {
+
+    String ORDER_ROW = "select new com.orderservice.dto.OrderRowDTO(o.id, o.partnerId, o.totalAmount, o.status, " +
+                       "o.createdAt, o.updatedAt, i.id, i.productId, i.quantity, i.unitPrice) " +
+                       "from ArchivedOrder o left join o.items i ";
+    String ORDER_HEADER = "select new com.orderservice.dto.OrderHeaderDTO(o.id, o.partnerId, o.totalAmount, " +
+                          "o.status, o.createdAt, o.updatedAt) from ArchivedOrder o ";
+    String ORDER_KEY = "select new com.orderservice.dto.OrderCursor(o.createdAt, o.id) from ArchivedOrder o ";
+    String KEY_ORDER = "order by o.createdAt, o.id";
+
+    @Query(ORDER_ROW + "where o.id = :id")
+    List<OrderRowDTO> findRowsById(UUID id);
+
+    @Query(ORDER_HEADER + "where o.id = :id")
+    Optional<OrderHeaderDTO> findHeaderById(UUID id);
+
+    @Query(ORDER_HEADER + "where o.id in :ids")
+    List<OrderHeaderDTO> findHeadersByIdIn(Collection<UUID> ids);
+
+    @Query(ORDER_ROW + "where o.id in :ids " + KEY_ORDER)
+    List<OrderRowDTO> findRowsByIdIn(Collection<UUID> ids);
+
+    @Query(ORDER_ROW + "where o.status = :status " + KEY_ORDER)
+    List<OrderRowDTO> findRowsByStatus(Order.OrderStatus status);
+
+    @Query(ORDER_ROW + "where o.createdAt between :start and :end " + KEY_ORDER)
+    List<OrderRowDTO> findRowsByPeriod(LocalDateTime start, LocalDateTime end);
+
+    @Query(ORDER_KEY + "where o.status = :status " + KEY_ORDER)
+    List<OrderCursor> findKeysByStatus(Order.OrderStatus status, Limit limit);
+
+    @Query(ORDER_KEY + "where o.status = :status and (o.createdAt, o.id) > (:createdAt, :id) " + KEY_ORDER)
+    List<OrderCursor> findKeysByStatusAfter(Order.OrderStatus status, LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query(ORDER_KEY + "where o.createdAt between :start and :end " + KEY_ORDER)
+    List<OrderCursor> findKeysByPeriod(LocalDateTime start, LocalDateTime end, Limit limit);
+
+    @Query(ORDER_KEY + "where o.createdAt between :start and :end and (o.createdAt, o.id) > (:createdAt, :id) " +
+           KEY_ORDER)
+    List<OrderCursor> findKeysByPeriodAfter(LocalDateTime start, LocalDateTime end, LocalDateTime createdAt, UUID id,
+                                            Limit limit);
+
+    @Query(ORDER_HEADER + "where o.partnerId = :partnerId " + KEY_ORDER)
+    List<OrderHeaderDTO> findHeadersByPartnerId(UUID partnerId, Limit limit);
+
+    @Query(ORDER_HEADER + "where o.partnerId = :partnerId and (o.createdAt, o.id) > (:createdAt, :id) " + KEY_ORDER)
+    List<OrderHeaderDTO> findHeadersByPartnerIdAfter(UUID partnerId, LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query(ORDER_HEADER + "where o.partnerId = :partnerId and o.status = :status " + KEY_ORDER)
+    List<OrderHeaderDTO> findHeadersByPartnerIdAndStatus(UUID partnerId, Order.OrderStatus status, Limit limit);
+
+    @Query(ORDER_HEADER + "where o.partnerId = :partnerId and o.status = :status " +
+           "and (o.createdAt, o.id) > (:createdAt, :id) " + KEY_ORDER)
+    List<OrderHeaderDTO> findHeadersByPartnerIdAndStatusAfter(UUID partnerId, Order.OrderStatus status,
+                                                              LocalDateTime createdAt, UUID id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = OrderRepository.STREAM_FETCH_SIZE))
+    @Query(ORDER_KEY + "where o.status = :status " + KEY_ORDER)
+    Stream<OrderCursor> streamKeysByStatus(Order.OrderStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = OrderRepository.STREAM_FETCH_SIZE))
+    @Query(ORDER_KEY + "where o.createdAt between :start and :end " + KEY_ORDER)
+    Stream<OrderCursor> streamKeysByPeriod(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Moves up to {@code batchSize} delivered or canceled orders created before {@code before}, with their
+     * items, into the archive in one statement. Rows locked by a running transition are skipped and picked up
+     * by a later batch.
+     *
+     * @return the number of archived orders
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "WITH batch AS (" +
+                   "    SELECT id, created_at FROM tb_order " +
+                   "    WHERE status IN ('ENTREGUE', 'CANCELADO') AND created_at < :before " +
+                   "    LIMIT :batchSize FOR UPDATE SKIP LOCKED" +
+                   "), archived_items AS (" +
+                   "    INSERT INTO tb_order_item_archive (id, order_id, product_id, quantity, unit_price, " +
+                   "                                       created_at, updated_at) " +
+                   "    SELECT i.id, i.order_id, i.product_id, i.quantity, i.unit_price, i.created_at, i.updated_at " +
+                   "    FROM tb_order_item i JOIN batch b ON i.order_id = b.id AND i.order_created_at = b.created_at" +
+                   "), archived AS (" +
+                   "    INSERT INTO tb_order_archive (id, partner_id, total_amount, status, created_at, updated_at, " +
+                   "                                  archived_at) " +
+                   "    SELECT o.id, o.partner_id, o.total_amount, o.status, o.created_at, o.updated_at, now() " +
+                   "    FROM tb_order o JOIN batch b ON o.id = b.id AND o.created_at = b.created_at" +
+                   ") " +
+                   "DELETE FROM tb_order o USING batch b WHERE o.id = b.id AND o.created_at = b.created_at",
+           nativeQuery = true)
+    int archive(LocalDateTime before, int batchSize);
+
+}
@@ -1,20 +1,160 @@
 package com.orderservice.repository;
 
+import com.orderservice.dto.OrderCursor;
+import com.orderservice.dto.OrderHeaderDTO;
+import com.orderservice.dto.OrderRowDTO;
 import com.orderservice.entity.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Declared queries run in read-only transactions, so Hibernate skips flushing and the connection is
+ * flagged read-only. Read endpoints use the {@link OrderRowDTO} projections, which never hydrate entities.
+ * Queries by id also match the creation time looked up in {@link com.orderservice.entity.OrderKey}, so
+ * PostgreSQL prunes them to the partitions of those orders instead of probing every month.
+ */
 @Repository
+@Transactional(readOnly = true)
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
-    List<Order> findByPartnerId(UUID partnerId);
+    String STREAM_FETCH_SIZE = "500";
+    String ORDER_ROW_SELECT = "select new com.orderservice.dto.OrderRowDTO(o.id, o.partnerId, o.totalAmount, " +
+                              "o.status, o.createdAt, o.updatedAt, i.id, i.productId, i.quantity, i.unitPrice) ";
+    // items are partitioned on the creation time of their order, joining on it lets each lookup hit one partition
+    String ORDER_ROW = ORDER_ROW_SELECT + "from Order o left join o.items i on i.orderCreatedAt = o.createdAt ";
+    // the lookup runs once, before the scan, so the partition of the order is picked at execution time
+    String BY_ID = "o.id = :id and o.createdAt = (select k.createdAt from OrderKey k where k.id = :id)";
+    String BY_IDS = "(o.id, o.createdAt) in (select k.id, k.createdAt from OrderKey k where k.id in :ids)";
 
-    List<Order> findByStatus(Order.OrderStatus status);
+    @Query("select new com.orderservice.dto.OrderHeaderDTO(o.id, o.partnerId, o.totalAmount, o.status, " +
+           "o.createdAt, o.updatedAt) from Order o where " + BY_ID)
+    Optional<OrderHeaderDTO> findHeaderById(UUID id);
 
-    List<Order> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+    /**
+     * Moves the order to {@code to} only if it is still in {@code from}.
+     *
+     * @return 1 if the status changed, 0 if the order was changed concurrently
+     */
+    @Transactional
+    @Modifying
+    @Query("update Order o set o.status = :to, o.updatedAt = :updatedAt where " + BY_ID + " and o.status = :from")
+    int transition(UUID id, Order.OrderStatus from, Order.OrderStatus to, LocalDateTime updatedAt);
+
+    /**
+     * Locks the given orders in id order, so bulk transitions over overlapping ids queue up instead of
+     * deadlocking, and returns their headers.
+     */
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.orderservice.dto.OrderHeaderDTO(o.id, o.partnerId, o.totalAmount, o.status, " +
+           "o.createdAt, o.updatedAt) from Order o where " + BY_IDS + " order by o.id")
+    List<OrderHeaderDTO> lockHeadersByIdIn(Collection<UUID> ids);
+
+    /**
+     * Moves every given order that is still in one of {@code from} to {@code to}.
+     *
+     * @return the number of orders that changed
+     */
+    @Transactional
+    @Modifying
+    @Query("update Order o set o.status = :to, o.updatedAt = :updatedAt " +
+           "where " + BY_IDS + " and o.status in :from")
+    int transitionAll(Collection<UUID> ids, Collection<Order.OrderStatus> from, Order.OrderStatus to,
+                      LocalDateTime updatedAt);
+
+    @Query(ORDER_ROW + "where " + BY_ID)
+    List<OrderRowDTO> findRowsById(UUID id);
+
+    @Query(ORDER_ROW + "where o.status = :status order by o.createdAt, o.id")
+    List<OrderRowDTO> findRowsByStatus(Order.OrderStatus status);
+
+    // the range is repeated on the items so both tables are pruned to the partitions of the period
+    @Query(ORDER_ROW_SELECT + "from Order o left join o.items i on i.orderCreatedAt = o.createdAt " +
+           "and i.orderCreatedAt between :start and :end " +
+           "where o.createdAt between :start and :end order by o.createdAt, o.id")
+    List<OrderRowDTO> findRowsByPeriod(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Reads the orders of a page of keys; {@code start} and {@code end} are the creation times of its first
+     * and last key, so both tables are pruned to the months the page spans.
+     */
+    @Query(ORDER_ROW_SELECT + "from Order o left join o.items i on i.orderCreatedAt = o.createdAt " +
+           "and i.orderCreatedAt between :start and :end " +
+           "where o.id in :ids and o.createdAt between :start and :end order by o.createdAt, o.id")
+    List<OrderRowDTO> findRowsByIdIn(Collection<UUID> ids, LocalDateTime start, LocalDateTime end);
+
+    @Query("select new com.orderservice.dto.OrderCursor(o.createdAt, o.id) from Order o " +
+           "where o.status = :status " +
+           "order by o.createdAt, o.id")
+    List<OrderCursor> findKeysByStatus(Order.OrderStatus status, Limit limit);
+
+    @Query("select new com.orderservice.dto.OrderCursor(o.createdAt, o.id) from Order o " +
+           "where o.status = :status and (o.createdAt, o.id) > (:createdAt, :id) " +
+           "order by o.createdAt, o.id")
+    List<OrderCursor> findKeysByStatusAfter(Order.OrderStatus status, LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("select new com.orderservice.dto.OrderCursor(o.createdAt, o.id) from Order o " +
+           "where o.createdAt between :start and :end " +
+           "order by o.createdAt, o.id")
+    List<OrderCursor> findKeysByPeriod(LocalDateTime start, LocalDateTime end, Limit limit);
+
+    @Query("select new com.orderservice.dto.OrderCursor(o.createdAt, o.id) from Order o " +
+           "where o.createdAt between :start and :end and (o.createdAt, o.id) > (:createdAt, :id) " +
+           "order by o.createdAt, o.id")
+    List<OrderCursor> findKeysByPeriodAfter(LocalDateTime start, LocalDateTime end, LocalDateTime createdAt, UUID id,
+                                            Limit limit);
+
+    @Query("select new com.orderservice.dto.OrderHeaderDTO(o.id, o.partnerId, o.totalAmount, o.status, " +
+           "o.createdAt, o.updatedAt) from Order o " +
+           "where o.partnerId = :partnerId " +
+           "order by o.createdAt, o.id")
+    List<OrderHeaderDTO> findHeadersByPartnerId(UUID partnerId, Limit limit);
+
+    @Query("select new com.orderservice.dto.OrderHeaderDTO(o.id, o.partnerId, o.totalAmount, o.status, " +
+           "o.createdAt, o.updatedAt) from Order o " +
+           "where o.partnerId = :partnerId and (o.createdAt, o.id) > (:createdAt, :id) " +
+           "order by o.createdAt, o.id")
+    List<OrderHeaderDTO> findHeadersByPartnerIdAfter(UUID partnerId, LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("select new com.orderservice.dto.OrderHeaderDTO(o.id, o.partnerId, o.totalAmount, o.status, " +
+           "o.createdAt, o.updatedAt) from Order o " +
+           "where o.partnerId = :partnerId and o.status = :status " +
+           "order by o.createdAt, o.id")
+    List<OrderHeaderDTO> findHeadersByPartnerIdAndStatus(UUID partnerId, Order.OrderStatus status, Limit limit);
+
+    @Query("select new com.orderservice.dto.OrderHeaderDTO(o.id, o.partnerId, o.totalAmount, o.status, " +
+           "o.createdAt, o.updatedAt) from Order o " +
+           "where o.partnerId = :partnerId and o.status = :status and (o.createdAt, o.id) > (:createdAt, :id) " +
+           "order by o.createdAt, o.id")
+    List<OrderHeaderDTO> findHeadersByPartnerIdAndStatusAfter(UUID partnerId, Order.OrderStatus status,
+                                                              LocalDateTime createdAt, UUID id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select new com.orderservice.dto.OrderCursor(o.createdAt, o.id) from Order o " +
+           "where o.status = :status " +
+           "order by o.createdAt, o.id")
+    Stream<OrderCursor> streamKeysByStatus(Order.OrderStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select new com.orderservice.dto.OrderCursor(o.createdAt, o.id) from Order o " +
+           "where o.createdAt between :start and :end " +
+           "order by o.createdAt, o.id")
+    Stream<OrderCursor> streamKeysByPeriod(LocalDateTime start, LocalDateTime end);
 
 }
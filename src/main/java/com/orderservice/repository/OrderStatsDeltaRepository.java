@@ -0,0 +1,41 @@
+package com.orderservice.repository;
+
+import com.orderservice.dto.OrderStatusStatsDTO;
+import com.orderservice.entity.OrderStatsDelta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderStatsDeltaRepository extends JpaRepository<OrderStatsDelta, Long> {
+
+    @Query("select new com.orderservice.dto.OrderStatusStatsDTO(d.status, sum(d.orderCount), sum(d.totalAmount)) " +
+           "from OrderStatsDelta d where d.partnerId = :partnerId group by d.status")
+    List<OrderStatusStatsDTO> sumByPartnerId(UUID partnerId);
+
+    @Query("select new com.orderservice.dto.OrderStatusStatsDTO(d.status, sum(d.orderCount), sum(d.totalAmount)) " +
+           "from OrderStatsDelta d group by d.status")
+    List<OrderStatusStatsDTO> sumByStatus();
+
+    @Modifying
+    @Query(value = "INSERT INTO tb_order_stats_delta (partner_id, status, order_count, total_amount) " +
+                   "VALUES (:partnerId, :status, :count, :amount)", nativeQuery = true)
+    int add(UUID partnerId, String status, long count, BigDecimal amount);
+
+    /**
+     * Moves {@code count} orders worth {@code amount} in total between two statuses with one insert of a
+     * negative and a positive row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_order_stats_delta (partner_id, status, order_count, total_amount) " +
+                   "SELECT :partnerId, s.status, s.delta * :count, s.delta * :amount " +
+                   "FROM (VALUES (CAST(:fromStatus AS VARCHAR), -1), (CAST(:toStatus AS VARCHAR), 1)) AS s(status, delta)",
+           nativeQuery = true)
+    int move(UUID partnerId, String fromStatus, String toStatus, long count, BigDecimal amount);
+
+}
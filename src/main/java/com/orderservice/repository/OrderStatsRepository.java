@@ -0,0 +1,43 @@
+package com.orderservice.repository;
+
+import com.orderservice.dto.OrderStatusStatsDTO;
+import com.orderservice.entity.OrderStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderStatsRepository extends JpaRepository<OrderStats, OrderStats.OrderStatsId> {
+
+    @Query("select new com.orderservice.dto.OrderStatusStatsDTO(s.status, s.orderCount, s.totalAmount) " +
+           "from OrderStats s where s.partnerId = :partnerId order by s.status")
+    List<OrderStatusStatsDTO> findByPartnerId(UUID partnerId);
+
+    @Query("select new com.orderservice.dto.OrderStatusStatsDTO(s.status, sum(s.orderCount), sum(s.totalAmount)) " +
+           "from OrderStats s group by s.status order by s.status")
+    List<OrderStatusStatsDTO> sumByStatus();
+
+    /**
+     * Folds up to {@code limit} of the oldest delta rows into the counters and deletes them, in one statement
+     * so readers see them either as deltas or as counters. Rows being folded by another instance are
+     * skipped. Returns the number of delta rows folded.
+     */
+    @Query(value = "WITH folded AS (" +
+                   "DELETE FROM tb_order_stats_delta WHERE id IN (" +
+                   "SELECT id FROM tb_order_stats_delta ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING partner_id, status, order_count, total_amount), " +
+                   "counters AS (" +
+                   "INSERT INTO tb_order_stats (partner_id, status, order_count, total_amount, updated_at) " +
+                   "SELECT partner_id, status, sum(order_count), sum(total_amount), now() FROM folded " +
+                   "GROUP BY partner_id, status ORDER BY partner_id, status " +
+                   "ON CONFLICT (partner_id, status) DO UPDATE SET " +
+                   "order_count = tb_order_stats.order_count + EXCLUDED.order_count, " +
+                   "total_amount = tb_order_stats.total_amount + EXCLUDED.total_amount, " +
+                   "updated_at = EXCLUDED.updated_at) " +
+                   "SELECT count(*) FROM folded", nativeQuery = true)
+    long rollUp(int limit);
+
+}
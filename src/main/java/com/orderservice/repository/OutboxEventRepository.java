@@ -0,0 +1,43 @@
+package com.orderservice.repository;
+
+import com.orderservice.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest pending events; rows already locked by another relay instance are skipped
+     * instead of waited on, so several instances can drain the outbox concurrently.
+     */
+    @Query(value = "SELECT * FROM tb_outbox_event WHERE published_at IS NULL " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockPending(int limit);
+
+    /**
+     * Finds the aggregates of a locked batch that have an older pending event outside it, which another
+     * relay instance holds; their events must wait for it so they are not sent ahead of it.
+     */
+    @Query(value = "SELECT DISTINCT aggregate_id FROM tb_outbox_event WHERE published_at IS NULL " +
+                   "AND aggregate_id IN (:aggregateIds) AND id < :before AND id NOT IN (:ids)", nativeQuery = true)
+    List<UUID> findAggregatesPendingElsewhere(Collection<UUID> aggregateIds, long before, Collection<Long> ids);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(Collection<Long> ids, LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(LocalDateTime before);
+
+    long countByPublishedAtIsNull();
+
+}
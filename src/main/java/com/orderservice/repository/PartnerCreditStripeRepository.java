@@ -0,0 +1,70 @@
+package com.orderservice.repository;
+
+import com.orderservice.entity.PartnerCreditStripe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface PartnerCreditStripeRepository extends JpaRepository<PartnerCreditStripe, Long> {
+
+    @Modifying
+    @Query(value = "UPDATE tb_partner_credit_stripe SET balance = balance - :amount, updated_at = now() " +
+                   "WHERE partner_id = :partnerId AND stripe = :stripe AND balance >= :amount", nativeQuery = true)
+    int debit(UUID partnerId, int stripe, BigDecimal amount);
+
+    @Modifying
+    @Query(value = "INSERT INTO tb_partner_credit_stripe (partner_id, stripe, balance, updated_at) " +
+                   "VALUES (:partnerId, :stripe, :amount, now()) " +
+                   "ON CONFLICT (partner_id, stripe) DO UPDATE " +
+                   "SET balance = tb_partner_credit_stripe.balance + EXCLUDED.balance, updated_at = now()",
+           nativeQuery = true)
+    int credit(UUID partnerId, int stripe, BigDecimal amount);
+
+    /**
+     * Folds the stripes of the given partners back into their partner rows. The caller holds the partner locks.
+     *
+     * @return the number of partners whose stripes were folded
+     */
+    @Modifying
+    @Query(value = "WITH folded AS (" +
+                   "    DELETE FROM tb_partner_credit_stripe WHERE partner_id IN (:partnerIds) " +
+                   "    RETURNING partner_id, balance" +
+                   "), totals AS (" +
+                   "    SELECT partner_id, sum(balance) AS balance FROM folded GROUP BY partner_id" +
+                   ") " +
+                   "UPDATE tb_partner p SET credit_limit = p.credit_limit + t.balance, updated_at = now() " +
+                   "FROM totals t WHERE p.id = t.partner_id", nativeQuery = true)
+    int gather(Collection<UUID> partnerIds);
+
+    /**
+     * Moves an equal share of the credit on each given partner row into each of {@code stripes} stripes; the
+     * cents that do not divide evenly stay on the partner row. The caller holds the partner locks.
+     *
+     * @return the number of partners whose credit was spread
+     */
+    @Modifying
+    @Query(value = "WITH shares AS (" +
+                   "    SELECT id, trunc(credit_limit / :stripes, 2) AS share FROM tb_partner " +
+                   "    WHERE id IN (:partnerIds) AND credit_limit >= 0.01 * :stripes" +
+                   "), spread AS (" +
+                   "    INSERT INTO tb_partner_credit_stripe (partner_id, stripe, balance, updated_at) " +
+                   "    SELECT s.id, g.stripe, s.share, now() " +
+                   "    FROM shares s CROSS JOIN generate_series(0, :stripes - 1) AS g(stripe) " +
+                   "    ON CONFLICT (partner_id, stripe) DO UPDATE " +
+                   "    SET balance = tb_partner_credit_stripe.balance + EXCLUDED.balance, updated_at = now()" +
+                   ") " +
+                   "UPDATE tb_partner p SET credit_limit = p.credit_limit - s.share * :stripes, updated_at = now() " +
+                   "FROM shares s WHERE p.id = s.id", nativeQuery = true)
+    int spread(Collection<UUID> partnerIds, int stripes);
+
+    @Modifying
+    @Query(value = "DELETE FROM tb_partner_credit_stripe WHERE partner_id = :partnerId", nativeQuery = true)
+    int deleteByPartnerId(UUID partnerId);
+
+}
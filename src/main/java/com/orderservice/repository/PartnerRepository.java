@@ -1,15 +1,54 @@
 package com.orderservice.repository;
 
+import com.orderservice.dto.PartnerCreditDTO;
+import com.orderservice.dto.PartnerResponseDTO;
 import com.orderservice.entity.Partner;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PartnerRepository extends JpaRepository<Partner, UUID> {
 
+    /**
+     * The credit left to a partner: what is on its row plus what is spread over its credit stripes.
+     */
+    String AVAILABLE_CREDIT = "p.creditLimit + coalesce((select sum(s.balance) from PartnerCreditStripe s " +
+                              "where s.partnerId = p.id), 0)";
+
     Optional<Partner> findByName(String name);
 
+    @Query("select " + AVAILABLE_CREDIT + " from Partner p where p.id = :id")
+    Optional<BigDecimal> findAvailableCreditById(UUID id);
+
+    @Query("select new com.orderservice.dto.PartnerCreditDTO(p.id, " + AVAILABLE_CREDIT + ") " +
+           "from Partner p where p.id in :ids")
+    List<PartnerCreditDTO> findAvailableCreditByIdIn(Collection<UUID> ids);
+
+    @Query("select new com.orderservice.dto.PartnerResponseDTO(p.id, p.name, " + AVAILABLE_CREDIT + ") " +
+           "from Partner p where p.id = :id")
+    Optional<PartnerResponseDTO> findResponseById(UUID id);
+
+    /**
+     * Locks the given partners in id order, the same order in which bulk credit changes update them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Partner p where p.id in :ids order by p.id")
+    List<Partner> lockAllById(Collection<UUID> ids);
+
+    @Modifying
+    @Query("update Partner p set p.creditLimit = p.creditLimit - :amount, p.updatedAt = :updatedAt " +
+           "where p.id = :id and p.creditLimit >= :amount")
+    int decreaseCreditLimit(UUID id, BigDecimal amount, LocalDateTime updatedAt);
+
 }
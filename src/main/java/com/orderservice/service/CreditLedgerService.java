@@ -0,0 +1,147 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.PartnerCreditDTO;
+import com.orderservice.entity.CreditMovement;
+import com.orderservice.exception.InsufficientCreditException;
+import com.orderservice.exception.PartnerNotFoundException;
+import com.orderservice.repository.CreditMovementRepository;
+import com.orderservice.repository.PartnerCreditStripeRepository;
+import com.orderservice.repository.PartnerRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.orderservice.configuration.CacheConfiguration.PARTNERS_CACHE;
+
+/**
+ * Moves partner credit without read-modify-write. Every movement is appended to
+ * {@code tb_credit_movement} first (unique per order and type, so a retried approval or a double
+ * cancel is a no-op) and the balance is then changed with a single conditional UPDATE.
+ * <p>
+ * A partner's credit is split between its row and {@code orderservice.credit.stripes} stripes in
+ * {@code tb_partner_credit_stripe}. An order reserves from and releases to the stripe its id hashes
+ * to, so approvals for one partner only wait on each other when their orders share a stripe, not on
+ * the partner row. Only when that stripe is short does a reserve lock the partner, fold all its
+ * stripes back into the row, take the amount from there and spread the rest again; the credit can
+ * therefore never be overdrawn, and near the end of it approvals serialize as before. Movements join
+ * the caller's transaction, so the row taken is held until the caller commits; callers should keep
+ * the work after it short. The cached partner is evicted once the movement commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class CreditLedgerService {
+
+    private static final String PARTNER_NOT_FOUND = "Partner not found!";
+    private static final String PARTNER_INSUFICIENT_CREDIT = "Partner does not have sufficient credit!";
+    private static final int NONE = 0;
+
+    private final PartnerRepository partnerRepository;
+    private final PartnerCreditStripeRepository partnerCreditStripeRepository;
+    private final CreditMovementRepository creditMovementRepository;
+    private final CacheManager cacheManager;
+
+    @Value("${orderservice.credit.stripes:8}")
+    private int stripes;
+
+    @Transactional
+    public void reserve(UUID partnerId, UUID orderId, BigDecimal amount) {
+        if (append(partnerId, orderId, CreditMovement.MovementType.DEBIT, amount) == NONE) {
+            return;
+        }
+
+        if (partnerCreditStripeRepository.debit(partnerId, stripeOf(orderId), amount) == NONE) {
+            reserveFromPartner(partnerId, amount);
+        }
+        evictPartnerAfterCommit(partnerId);
+    }
+
+    @Transactional
+    public void release(UUID partnerId, UUID orderId, BigDecimal amount) {
+        if (!creditMovementRepository.existsByOrderIdAndType(orderId, CreditMovement.MovementType.DEBIT)) {
+            return;
+        }
+
+        if (append(partnerId, orderId, CreditMovement.MovementType.CREDIT, amount) == NONE) {
+            return;
+        }
+
+        partnerCreditStripeRepository.credit(partnerId, stripeOf(orderId), amount);
+        evictPartnerAfterCommit(partnerId);
+    }
+
+    /**
+     * Locks the given partners in id order and folds their stripes back into their rows, so the bulk
+     * movements below can check and change the whole credit on the rows.
+     *
+     * @return the credit of each partner found
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public Map<UUID, BigDecimal> lockCredit(Collection<UUID> partnerIds) {
+        partnerRepository.lockAllById(partnerIds);
+        partnerCreditStripeRepository.gather(partnerIds);
+        // read as a projection, the partners just locked are managed with their credit before the fold
+        return partnerRepository.findAvailableCreditByIdIn(partnerIds).stream()
+                .collect(Collectors.toMap(PartnerCreditDTO::partnerId, PartnerCreditDTO::availableCredit,
+                                          (a, b) -> a, HashMap::new));
+    }
+
+    /**
+     * Reserves the credit of many orders at once, one statement for all of them, and spreads what is left
+     * over the stripes again. Unlike {@link #reserve} the balance is not checked here, callers check it
+     * against the credit {@link #lockCredit} returned.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void reserveAll(Collection<UUID> orderIds, Collection<UUID> partnerIds) {
+        creditMovementRepository.reserveAll(orderIds);
+        partnerCreditStripeRepository.spread(partnerIds, stripes);
+        partnerIds.forEach(this::evictPartnerAfterCommit);
+    }
+
+    /**
+     * Releases the credit reserved by any of the given orders onto the partner rows the caller locked, one
+     * statement for all of them.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void releaseAll(Collection<UUID> orderIds, Collection<UUID> partnerIds) {
+        creditMovementRepository.releaseAll(orderIds);
+        partnerIds.forEach(this::evictPartnerAfterCommit);
+    }
+
+    // the order's stripe was short: take the amount from the whole credit, folded onto the locked partner row
+    private void reserveFromPartner(UUID partnerId, BigDecimal amount) {
+        List<UUID> partnerIds = List.of(partnerId);
+        if (partnerRepository.lockAllById(partnerIds).isEmpty()) {
+            throw new PartnerNotFoundException(PARTNER_NOT_FOUND);
+        }
+        partnerCreditStripeRepository.gather(partnerIds);
+        if (partnerRepository.decreaseCreditLimit(partnerId, amount, LocalDateTime.now()) == NONE) {
+            throw new InsufficientCreditException(PARTNER_INSUFICIENT_CREDIT);
+        }
+        partnerCreditStripeRepository.spread(partnerIds, stripes);
+    }
+
+    private int stripeOf(UUID orderId) {
+        return Math.floorMod(orderId.hashCode(), stripes);
+    }
+
+    private void evictPartnerAfterCommit(UUID partnerId) {
+        new TransactionAwareCacheDecorator(cacheManager.getCache(PARTNERS_CACHE)).evict(partnerId);
+    }
+
+    private int append(UUID partnerId, UUID orderId, CreditMovement.MovementType type, BigDecimal amount) {
+        return creditMovementRepository.append(partnerId, orderId, type.name(), amount);
+    }
+
+}
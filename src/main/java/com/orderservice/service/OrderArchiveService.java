@@ -0,0 +1,51 @@
+package com.orderservice.service;
+
+import com.orderservice.repository.OrderArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves delivered and canceled orders out of {@code tb_order} once they are older than the configured age,
+ * so the hot tables and their status indexes only hold orders that can still change. Each batch is archived
+ * by a single statement in its own transaction. Archived orders stay readable by id through
+ * {@link OrderService#getById}, stay in the listings and exports, and keep counting in the aggregates, since
+ * the service still serves them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveService {
+
+    private static final String ARCHIVED_LOG_INFO = "Archived {} orders created before {}";
+
+    private final OrderArchiveRepository orderArchiveRepository;
+
+    @Value("${orderservice.archive.age-days:90}")
+    private long ageDays;
+
+    @Value("${orderservice.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${orderservice.archive.cron:0 15 3 * * *}")
+    public void archive() {
+        archive(LocalDateTime.now().minusDays(ageDays));
+    }
+
+    public int archive(LocalDateTime before) {
+        int archived = 0;
+        int batch;
+        do {
+            batch = orderArchiveRepository.archive(before, batchSize);
+            archived += batch;
+        } while (batch == batchSize);
+
+        log.info(ARCHIVED_LOG_INFO, archived, before);
+        return archived;
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderBatchResponseDTO;
+import com.orderservice.dto.OrderBatchResultDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.PartnerCreditDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.OrderItem;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.PartnerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many orders in one call. Accepted orders are persisted in chunks, each chunk in its own
+ * transaction so that Hibernate can group the inserts into JDBC batches. Credit is checked per partner
+ * against the orders of committed chunks plus those of the open chunk, so a chunk that rolls back gives
+ * its credit back to the requests after it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBatchService {
+
+    private static final String PARTNER_NOT_FOUND = "Partner not found!";
+    private static final String PARTNER_INSUFICIENT_CREDIT = "Partner does not have sufficient credit!";
+    private static final String CHUNK_FAILED = "Order could not be persisted!";
+    private static final String CHUNK_FAILED_LOG_ERROR = "Batch chunk with {} orders failed";
+    private static final int CHUNK_SIZE = 500;
+    private static final int ZERO = 0;
+
+    private final OrderRepository orderRepository;
+    private final PartnerRepository partnerRepository;
+    private final OrderStatsService orderStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public OrderBatchResponseDTO createOrders(List<OrderRequestDTO> requests) {
+        OrderBatchResultDTO[] results = new OrderBatchResultDTO[requests.size()];
+        Map<UUID, BigDecimal> availableCredit = loadAvailableCredit(requests);
+        Map<UUID, BigDecimal> chunkCredit = new HashMap<>();
+
+        List<PendingOrder> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int index = 0; index < requests.size(); index++) {
+            OrderRequestDTO request = requests.get(index);
+            BigDecimal available = availableCredit.get(request.partnerId());
+            if (available == null) {
+                results[index] = rejected(index, PARTNER_NOT_FOUND);
+                continue;
+            }
+
+            BigDecimal totalAmount = OrderService.getTotalAmount(request.items());
+            BigDecimal inChunk = chunkCredit.getOrDefault(request.partnerId(), BigDecimal.ZERO);
+            if (available.subtract(inChunk).compareTo(totalAmount) < ZERO) {
+                results[index] = rejected(index, PARTNER_INSUFICIENT_CREDIT);
+                continue;
+            }
+
+            chunkCredit.put(request.partnerId(), inChunk.add(totalAmount));
+            chunk.add(new PendingOrder(index, toOrder(request, totalAmount)));
+            if (chunk.size() == CHUNK_SIZE) {
+                persistChunk(chunk, chunkCredit, availableCredit, results);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persistChunk(chunk, chunkCredit, availableCredit, results);
+        }
+
+        List<OrderBatchResultDTO> resultList = Arrays.asList(results);
+        int created = (int) resultList.stream()
+                .filter(result -> result.outcome() == OrderBatchResultDTO.Outcome.CREATED)
+                .count();
+        return new OrderBatchResponseDTO(created, results.length - created, resultList);
+    }
+
+    private Map<UUID, BigDecimal> loadAvailableCredit(List<OrderRequestDTO> requests) {
+        Set<UUID> partnerIds = requests.stream().map(OrderRequestDTO::partnerId).collect(Collectors.toSet());
+        return partnerRepository.findAvailableCreditByIdIn(partnerIds).stream()
+                .collect(Collectors.toMap(PartnerCreditDTO::partnerId, PartnerCreditDTO::availableCredit,
+                                          (a, b) -> a, HashMap::new));
+    }
+
+    /**
+     * Persists and clears the chunk; its credit leaves {@code availableCredit} only once the chunk committed.
+     */
+    private void persistChunk(List<PendingOrder> chunk, Map<UUID, BigDecimal> chunkCredit,
+                              Map<UUID, BigDecimal> availableCredit, OrderBatchResultDTO[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Order> orders = chunk.stream().map(PendingOrder::order).toList();
+                // flush through the repository so constraint violations surface as DataAccessException
+                orderRepository.saveAllAndFlush(orders);
+                entityManager.clear();
+                recordCreated(orders);
+            });
+            chunk.forEach(pending -> results[pending.index()] = new OrderBatchResultDTO(
+                    pending.index(), pending.order().getId(), OrderBatchResultDTO.Outcome.CREATED, null));
+            chunkCredit.forEach((partnerId, amount) -> availableCredit.merge(partnerId, amount,
+                                                                             BigDecimal::subtract));
+        } catch (DataAccessException | PersistenceException e) {
+            log.error(CHUNK_FAILED_LOG_ERROR, chunk.size(), e);
+            chunk.forEach(pending -> results[pending.index()] = rejected(pending.index(), CHUNK_FAILED));
+        }
+        chunk.clear();
+        chunkCredit.clear();
+    }
+
+    private void recordCreated(List<Order> orders) {
+        // one delta row per partner instead of one per order
+        Map<UUID, List<Order>> byPartner = orders.stream().collect(Collectors.groupingBy(Order::getPartnerId, TreeMap::new,
+                                                                                         Collectors.toList()));
+        byPartner.forEach((partnerId, partnerOrders) -> orderStatsService.recordCreated(
+                partnerId, partnerOrders.size(), partnerOrders.stream()
+                        .map(Order::getTotalAmount)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add)));
+    }
+
+    private Order toOrder(OrderRequestDTO request, BigDecimal totalAmount) {
+        Order order = Order.builder()
+                .partnerId(request.partnerId())
+                .status(Order.OrderStatus.PENDENTE)
+                .totalAmount(totalAmount)
+                .build();
+
+        order.setItems(request.items().stream().map(item ->
+                OrderItem.builder()
+                        .order(order)
+                        .productId(item.productId())
+                        .quantity(item.quantity())
+                        .unitPrice(item.unitPrice())
+                        .build()
+        ).collect(Collectors.toCollection(ArrayList::new)));
+
+        return order;
+    }
+
+    private OrderBatchResultDTO rejected(int index, String message) {
+        return new OrderBatchResultDTO(index, null, OrderBatchResultDTO.Outcome.REJECTED, message);
+    }
+
+    private record PendingOrder(int index, Order order) {
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.dto.OrderCursor;
+import com.orderservice.dto.OrderExportLineDTO;
+import com.orderservice.dto.OrderItemResponseDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.dto.OrderRowDTO;
+import com.orderservice.entity.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams the orders of a period, with their items, straight from a JDBC cursor to the response. PostgreSQL
+ * only honours the fetch size inside a transaction, so the export runs in a read-only one and holds at most
+ * one order in memory however long the period is. Archived orders are read in the same statement, so both
+ * tiers come from one snapshot. Orders come out in {@code (created_at, id)} order and every record carries the
+ * cursor that resumes the export right after it.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    private static final String ORDER_COLUMNS_SQL = "SELECT o.id, o.partner_id, o.total_amount, o.status, " +
+                                                    "o.created_at, o.updated_at, i.id AS item_id, i.product_id, " +
+                                                    "i.quantity, i.unit_price ";
+    private static final String HOT_SQL = ORDER_COLUMNS_SQL +
+                                          "FROM tb_order o LEFT JOIN tb_order_item i ON i.order_id = o.id " +
+                                          "AND i.order_created_at = o.created_at " +
+                                          "AND i.order_created_at BETWEEN ? AND ? " +
+                                          "WHERE o.created_at BETWEEN ? AND ? ";
+    private static final String ARCHIVE_SQL = ORDER_COLUMNS_SQL +
+                                              "FROM tb_order_archive o " +
+                                              "LEFT JOIN tb_order_item_archive i ON i.order_id = o.id " +
+                                              "WHERE o.created_at BETWEEN ? AND ? ";
+    private static final String AFTER_CURSOR_SQL = "AND (o.created_at, o.id) > (?, ?) ";
+    private static final String UNION_SQL = "UNION ALL ";
+    private static final String ORDER_BY_SQL = "ORDER BY created_at, id";
+    private static final String EXPORT_SQL = HOT_SQL + UNION_SQL + ARCHIVE_SQL + ORDER_BY_SQL;
+    private static final String EXPORT_AFTER_SQL = HOT_SQL + AFTER_CURSOR_SQL + UNION_SQL +
+                                                   ARCHIVE_SQL + AFTER_CURSOR_SQL + ORDER_BY_SQL;
+    private static final String CSV_HEADER = "cursor,order_id,partner_id,status,total_amount,created_at,updated_at," +
+                                             "item_id,product_id,quantity,unit_price";
+    private static final char CSV_SEPARATOR = ',';
+    private static final char NEW_LINE = '\n';
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${orderservice.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Transactional(readOnly = true)
+    public void export(LocalDateTime start, LocalDateTime end, OrderCursor after, Format format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ExportHandler handler = new ExportHandler(format, writer);
+        try {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write(NEW_LINE);
+            }
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(after == null ? EXPORT_SQL
+                                                                                        : EXPORT_AFTER_SQL);
+                statement.setFetchSize(fetchSize);
+                // the period bounds both hot tables so each is pruned to the partitions of the period
+                int parameter = 1;
+                statement.setObject(parameter++, start);
+                statement.setObject(parameter++, end);
+                parameter = bindPeriod(statement, parameter, start, end, after);
+                // then the same period and cursor again for the archive branch of the union
+                bindPeriod(statement, parameter, start, end, after);
+                return statement;
+            }, handler);
+            handler.finish();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int bindPeriod(PreparedStatement statement, int parameter, LocalDateTime start, LocalDateTime end,
+                                  OrderCursor after) throws SQLException {
+        statement.setObject(parameter++, start);
+        statement.setObject(parameter++, end);
+        if (after != null) {
+            statement.setObject(parameter++, after.createdAt());
+            statement.setObject(parameter++, after.id());
+        }
+        return parameter;
+    }
+
+    private static OrderRowDTO toRow(ResultSet rs) throws SQLException {
+        return new OrderRowDTO(
+                rs.getObject("id", UUID.class),
+                rs.getObject("partner_id", UUID.class),
+                rs.getBigDecimal("total_amount"),
+                Order.OrderStatus.valueOf(rs.getString("status")),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class),
+                rs.getObject("item_id", UUID.class),
+                rs.getObject("product_id", UUID.class),
+                rs.getObject("quantity", Integer.class),
+                rs.getBigDecimal("unit_price")
+        );
+    }
+
+    /**
+     * Folds the joined rows of one order, which arrive adjacent, and writes the order once its last row is read.
+     */
+    private final class ExportHandler implements RowCallbackHandler {
+
+        private final Format format;
+        private final Writer writer;
+        private OrderRowDTO current;
+        private List<OrderItemResponseDTO> items = new ArrayList<>();
+
+        private ExportHandler(Format format, Writer writer) {
+            this.format = format;
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            OrderRowDTO row = toRow(rs);
+            if (current != null && !current.id().equals(row.id())) {
+                finish();
+            }
+            current = row;
+            if (row.itemId() != null) {
+                items.add(new OrderItemResponseDTO(row.itemId(), row.productId(), row.quantity(), row.unitPrice()));
+            }
+        }
+
+        private void finish() {
+            if (current == null) {
+                return;
+            }
+            OrderResponseDTO order = new OrderResponseDTO(current.id(), current.partnerId(), items,
+                                                          current.totalAmount(), current.status(),
+                                                          current.createdAt(), current.updatedAt());
+            String cursor = new OrderCursor(current.createdAt(), current.id()).encode();
+            try {
+                if (format == Format.CSV) {
+                    writeCsv(cursor, order);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(new OrderExportLineDTO(cursor, order)));
+                    writer.write(NEW_LINE);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            current = null;
+            items = new ArrayList<>();
+        }
+
+        private void writeCsv(String cursor, OrderResponseDTO order) throws IOException {
+            if (order.items().isEmpty()) {
+                writeCsvLine(cursor, order, null);
+                return;
+            }
+            for (OrderItemResponseDTO item : order.items()) {
+                writeCsvLine(cursor, order, item);
+            }
+        }
+
+        private void writeCsvLine(String cursor, OrderResponseDTO order, OrderItemResponseDTO item) throws IOException {
+            writer.write(cursor);
+            writeCsvValue(order.id());
+            writeCsvValue(order.partnerId());
+            writeCsvValue(order.status());
+            writeCsvValue(plain(order.totalAmount()));
+            writeCsvValue(order.createdAt());
+            writeCsvValue(order.updatedAt());
+            writeCsvValue(item == null ? null : item.id());
+            writeCsvValue(item == null ? null : item.productId());
+            writeCsvValue(item == null ? null : item.quantity());
+            writeCsvValue(item == null ? null : plain(item.unitPrice()));
+            writer.write(NEW_LINE);
+        }
+
+        private void writeCsvValue(Object value) throws IOException {
+            writer.write(CSV_SEPARATOR);
+            if (value != null) {
+                writer.write(value.toString());
+            }
+        }
+
+        private static String plain(BigDecimal value) {
+            return value == null ? null : value.toPlainString();
+        }
+
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.entity.IdempotencyKey;
+import com.orderservice.exception.IdempotencyKeyReuseException;
+import com.orderservice.exception.InvalidIdempotencyKeyException;
+import com.orderservice.repository.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.orderservice.configuration.CacheConfiguration.IDEMPOTENCY_KEYS_CACHE;
+
+/**
+ * Makes order creation idempotent per {@code Idempotency-Key}. A replay is answered from the key cache or the
+ * {@code tb_idempotency_key} row, without touching orders or partners. Concurrent requests with the same key
+ * in this instance wait on the first one instead of running again, and across instances the key row is
+ * claimed in the same transaction as the order, so a second claim blocks until the first commits and then
+ * reads its order id. A key is bound to a hash of the request it was first used with; reusing it for a
+ * different request is rejected instead of answering with the other order.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderIdempotencyService {
+
+    private static final String INVALID_IDEMPOTENCY_KEY = "Idempotency-Key must have between 1 and 255 characters!";
+    private static final String IDEMPOTENCY_KEY_REUSED = "Idempotency-Key was already used with a different request!";
+    private static final String REQUEST_HASH_ALGORITHM = "SHA-256";
+    private static final String PURGED_LOG_INFO = "Purged {} idempotency keys";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final Map<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${orderservice.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    public record Outcome(UUID orderId, boolean replayed) {
+    }
+
+    private record Stored(UUID orderId, String requestHash) {
+    }
+
+    public Outcome createOrder(String key, OrderRequestDTO dto) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(INVALID_IDEMPOTENCY_KEY);
+        }
+
+        String requestHash = requestHash(dto);
+        Cache cache = cacheManager.getCache(IDEMPOTENCY_KEYS_CACHE);
+        Stored cached = cache.get(key, Stored.class);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        CompletableFuture<Stored> execution = new CompletableFuture<>();
+        CompletableFuture<Stored> running = inFlight.putIfAbsent(key, execution);
+        if (running != null) {
+            return replay(await(running), requestHash);
+        }
+
+        try {
+            Outcome outcome = transactionTemplate.execute(status -> claimAndCreate(key, requestHash, dto));
+            Stored stored = new Stored(outcome.orderId(), requestHash);
+            cache.put(key, stored);
+            execution.complete(stored);
+            return outcome;
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, execution);
+        }
+    }
+
+    @Scheduled(cron = "${orderservice.idempotency.purge-cron:0 30 * * * *}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        Integer purged = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteCreatedBefore(before));
+        log.info(PURGED_LOG_INFO, purged);
+    }
+
+    private Outcome claimAndCreate(String key, String requestHash, OrderRequestDTO dto) {
+        if (idempotencyKeyRepository.claim(key, requestHash) == 0) {
+            IdempotencyKey stored = idempotencyKeyRepository.findCompletedByKey(key).orElseThrow();
+            return replay(new Stored(stored.getOrderId(), stored.getRequestHash()), requestHash);
+        }
+        UUID orderId = orderService.createOrder(dto).id();
+        idempotencyKeyRepository.complete(key, orderId);
+        return new Outcome(orderId, false);
+    }
+
+    // keys stored before requests were hashed have no hash and are replayed unchecked
+    private static Outcome replay(Stored stored, String requestHash) {
+        if (stored.requestHash() != null && !stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(IDEMPOTENCY_KEY_REUSED);
+        }
+        return new Outcome(stored.orderId(), true);
+    }
+
+    /**
+     * Hashes what the request asks for rather than its JSON, so field order, whitespace and trailing zeros
+     * of prices do not make a retry look like a different request.
+     */
+    static String requestHash(OrderRequestDTO dto) {
+        StringBuilder canonical = new StringBuilder().append(dto.partnerId());
+        for (OrderItemRequestDTO item : dto.items()) {
+            canonical.append('|').append(item.productId())
+                     .append(',').append(item.quantity())
+                     .append(',').append(item.unitPrice().stripTrailingZeros().toPlainString());
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance(REQUEST_HASH_ALGORITHM);
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Stored await(CompletableFuture<Stored> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.orderservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.orderservice.configuration.CacheConfiguration.ORDERS_CACHE;
+
+/**
+ * Maintains the monthly partitions of {@code tb_order} and {@code tb_order_item}. Every run creates the
+ * partitions of the coming months, so inserts never land in the default partition, and when a retention is
+ * configured it detaches the months older than it. Detached partitions stay in the database as plain tables,
+ * ready to be dumped or dropped, and their orders are taken out of the aggregates and the id lookup in the same
+ * transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderPartitionService {
+
+    private static final String CREATE_PARTITIONS_SQL = "SELECT create_order_partitions(?, ?)";
+    private static final String ATTACHED_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+                                                          "JOIN pg_class c ON c.oid = i.inhrelid " +
+                                                          "WHERE i.inhparent = 'tb_order'::regclass";
+    private static final String DETACH_ITEM_PARTITION_SQL = "ALTER TABLE tb_order_item DETACH PARTITION %s";
+    private static final String DROP_ITEM_ORDER_FK_SQL = "ALTER TABLE %s DROP CONSTRAINT fk_order_item_order";
+    private static final String DETACH_ORDER_PARTITION_SQL = "ALTER TABLE tb_order DETACH PARTITION %s";
+    private static final String DROP_ORDER_PARTNER_FK_SQL = "ALTER TABLE %s DROP CONSTRAINT fk_order_partner";
+    private static final String DELETE_ORDER_KEYS_SQL = "DELETE FROM tb_order_key k USING %s o WHERE k.id = o.id";
+    private static final String SUBTRACT_STATS_SQL = "INSERT INTO tb_order_stats_delta (partner_id, status, order_count, " +
+                                                     "total_amount) " +
+                                                     "SELECT partner_id, status, -count(*), -sum(total_amount) " +
+                                                     "FROM %s GROUP BY partner_id, status";
+    private static final Pattern ORDER_PARTITION = Pattern.compile("tb_order_p(\\d{4}_\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String ORDER_PARTITION_PREFIX = "tb_order_p";
+    private static final String ITEM_PARTITION_PREFIX = "tb_order_item_p";
+    private static final String CREATED_LOG_INFO = "Created {} order partitions up to {}";
+    private static final String DETACHED_LOG_INFO = "Detached order partitions {}";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+
+    @Value("${orderservice.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${orderservice.partition.retention-months:0}")
+    private int retentionMonths;
+
+    @Scheduled(cron = "${orderservice.partition.maintenance-cron:0 0 2 * * *}")
+    public void maintain() {
+        createPartitions();
+        if (retentionMonths > 0) {
+            detachPartitions();
+        }
+    }
+
+    public int createPartitions() {
+        YearMonth current = YearMonth.now();
+        LocalDate until = current.plusMonths(monthsAhead).atDay(1);
+        Integer created = jdbcTemplate.queryForObject(CREATE_PARTITIONS_SQL, Integer.class, current.atDay(1), until);
+        log.info(CREATED_LOG_INFO, created, until);
+        return created;
+    }
+
+    /**
+     * Detaches the order and item partitions of every month before the retention window. Item partitions go
+     * first and lose their foreign key to the orders, since a partition cannot leave {@code tb_order} while
+     * rows elsewhere still reference it.
+     *
+     * @return the detached order partitions
+     */
+    public List<String> detachPartitions() {
+        YearMonth oldestRetained = YearMonth.now().minusMonths(retentionMonths);
+        List<String> expired = new ArrayList<>();
+        for (String partition : jdbcTemplate.queryForList(ATTACHED_PARTITIONS_SQL, String.class)) {
+            Matcher matcher = ORDER_PARTITION.matcher(partition);
+            if (matcher.matches() && YearMonth.parse(matcher.group(1), PARTITION_SUFFIX).isBefore(oldestRetained)) {
+                expired.add(matcher.group(1));
+            }
+        }
+        if (expired.isEmpty()) {
+            return expired;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String suffix : expired) {
+                String itemPartition = ITEM_PARTITION_PREFIX + suffix;
+                String orderPartition = ORDER_PARTITION_PREFIX + suffix;
+                jdbcTemplate.execute(String.format(DETACH_ITEM_PARTITION_SQL, itemPartition));
+                jdbcTemplate.execute(String.format(DROP_ITEM_ORDER_FK_SQL, itemPartition));
+                jdbcTemplate.execute(String.format(DETACH_ORDER_PARTITION_SQL, orderPartition));
+                jdbcTemplate.execute(String.format(DROP_ORDER_PARTNER_FK_SQL, orderPartition));
+                jdbcTemplate.update(String.format(DELETE_ORDER_KEYS_SQL, orderPartition));
+                jdbcTemplate.update(String.format(SUBTRACT_STATS_SQL, orderPartition));
+            }
+            new TransactionAwareCacheDecorator(cacheManager.getCache(ORDERS_CACHE)).clear();
+        });
+
+        List<String> detached = expired.stream().map(suffix -> ORDER_PARTITION_PREFIX + suffix).toList();
+        log.info(DETACHED_LOG_INFO, detached);
+        return detached;
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.dto.CachedOrderResponseDTO;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+import static com.orderservice.configuration.CacheConfiguration.ORDERS_CACHE;
+
+/**
+ * Keeps {@code GET /api/orders/{id}} responses already serialized, together with their ETag, so a
+ * cache hit costs neither a query nor a serialization. The instance that changes a status evicts the entry
+ * once the change commits; every other instance evicts it when the status event reaches its
+ * {@link com.orderservice.event.OrderCacheEvictionListener}, so it may serve the old body until then.
+ */
+@Component
+public class OrderResponseCache {
+
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final Cache cache;
+
+    public OrderResponseCache(OrderService orderService, ObjectMapper objectMapper, CacheManager cacheManager) {
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.cache = cacheManager.getCache(ORDERS_CACHE);
+    }
+
+    public CachedOrderResponseDTO get(UUID id) {
+        try {
+            return cache.get(id, () -> load(id));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void evict(UUID id) {
+        cache.evict(id);
+    }
+
+    private CachedOrderResponseDTO load(UUID id) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(orderService.getById(id));
+            return new CachedOrderResponseDTO(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
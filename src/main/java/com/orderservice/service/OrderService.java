@@ -3,47 +3,66 @@ package com.orderservice.service;
 import com.orderservice.dto.*;
 import com.orderservice.entity.Order;
 import com.orderservice.entity.OrderItem;
-import com.orderservice.entity.Partner;
+import com.orderservice.event.OrderStatusEvent;
 import com.orderservice.event.OrderStatusEventPublisher;
 import com.orderservice.exception.InsufficientCreditException;
+import com.orderservice.exception.InvalidStatusTransitionException;
 import com.orderservice.exception.OrderNotFoundException;
 import com.orderservice.exception.PartnerNotFoundException;
+import com.orderservice.repository.OrderArchiveRepository;
 import com.orderservice.repository.OrderItemRepository;
 import com.orderservice.repository.OrderRepository;
 import com.orderservice.repository.PartnerRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.orderservice.configuration.CacheConfiguration.ORDERS_CACHE;
 
 @Service
 @RequiredArgsConstructor
+@Timed("orderservice.orders")
 public class OrderService {
 
     private static final String PARTNER_NOT_FOUND = "Partner not found!";
     private static final String PARTNER_INSUFICIENT_CREDIT = "Partner does not have sufficient credit!";
     private static final String ORDER_NOT_FOUND = "Order not found!";
-    private static final String ADD = "add";
-    private static final String SUB = "sub";
+    private static final String INVALID_STATUS_TRANSITION = "Order status cannot change from %s to %s!";
     private static final int ZERO = 0;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK_SIZE = 500;
 
     private final OrderRepository orderRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
     private final OrderItemRepository orderItemRepository;
     private final PartnerRepository partnerRepository;
     private final OrderStatusEventPublisher eventPublisher;
+    private final CreditLedgerService creditLedgerService;
+    private final OrderStatsService orderStatsService;
+    private final CacheManager cacheManager;
 
     @Transactional
     public OrderResponseDTO createOrder(OrderRequestDTO dto) {
-        Partner partner = partnerRepository.findById(dto.partnerId())
+        // read straight from the database, cached partners may lag behind approvals and cancellations
+        BigDecimal creditLimit = partnerRepository.findAvailableCreditById(dto.partnerId())
                 .orElseThrow(() -> new PartnerNotFoundException(PARTNER_NOT_FOUND));
 
         BigDecimal totalAmount = getTotalAmount(dto.items());
 
-        if (partner.getCreditLimit().compareTo(totalAmount) < ZERO) {
+        if (creditLimit.compareTo(totalAmount) < ZERO) {
             throw new InsufficientCreditException(PARTNER_INSUFICIENT_CREDIT);
         }
 
@@ -66,86 +85,277 @@ public class OrderService {
 
         orderItemRepository.saveAll(items);
         order.setItems(items);
+        orderStatsService.recordCreated(order.getPartnerId(), totalAmount);
 
         return toResponseDTO(order);
     }
 
+    public OrderStatsResponseDTO getStats(UUID partnerId) {
+        return orderStatsService.getStats(partnerId);
+    }
+
     public OrderResponseDTO getById(UUID id) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(ORDER_NOT_FOUND));
-        return toResponseDTO(order);
+        List<OrderRowDTO> rows = orderRepository.findRowsById(id);
+        if (rows.isEmpty()) {
+            rows = orderArchiveRepository.findRowsById(id);
+        }
+        List<OrderResponseDTO> orders = toResponseDTOs(rows);
+        if (orders.isEmpty()) {
+            throw new OrderNotFoundException(ORDER_NOT_FOUND);
+        }
+        return orders.get(ZERO);
     }
 
+    // listings read both tiers, so archived orders stay listed as long as the aggregates count them
     public List<OrderResponseDTO> getByStatus(Order.OrderStatus status) {
-        return orderRepository.findByStatus(status).stream()
-                .map(this::toResponseDTO)
-                .toList();
+        List<OrderRowDTO> hot = orderRepository.findRowsByStatus(status);
+        return toResponseDTOs(OrderTiers.merge(hot, orderArchiveRepository.findRowsByStatus(status),
+                                               OrderRowDTO::cursor));
     }
 
     public List<OrderResponseDTO> getByPeriod(LocalDateTime start, LocalDateTime end) {
-        return orderRepository.findByCreatedAtBetween(start, end).stream()
-                .map(this::toResponseDTO)
-                .toList();
+        List<OrderRowDTO> hot = orderRepository.findRowsByPeriod(start, end);
+        return toResponseDTOs(OrderTiers.merge(hot, orderArchiveRepository.findRowsByPeriod(start, end),
+                                               OrderRowDTO::cursor));
     }
 
-    @Transactional
-    public OrderResponseDTO updateStatus(UUID id, OrderStatusUpdateRequestDTO dto) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(ORDER_NOT_FOUND));
+    public OrderPageResponseDTO getPageByStatus(Order.OrderStatus status, String cursor, int size) {
+        int pageSize = pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderCursor> hot;
+        List<OrderCursor> archived;
+        if (cursor == null) {
+            hot = orderRepository.findKeysByStatus(status, limit);
+            archived = orderArchiveRepository.findKeysByStatus(status, limit);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            hot = orderRepository.findKeysByStatusAfter(status, after.createdAt(), after.id(), limit);
+            archived = orderArchiveRepository.findKeysByStatusAfter(status, after.createdAt(), after.id(), limit);
+        }
+        return toPage(OrderTiers.merge(hot, archived, key -> key, limit.max()), pageSize);
+    }
 
-        Order.OrderStatus previousStatus = order.getStatus();
-        order.setStatus(dto.status());
-        order = orderRepository.save(order);
+    public OrderPageResponseDTO getPageByPeriod(LocalDateTime start, LocalDateTime end, String cursor, int size) {
+        int pageSize = pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderCursor> hot;
+        List<OrderCursor> archived;
+        if (cursor == null) {
+            hot = orderRepository.findKeysByPeriod(start, end, limit);
+            archived = orderArchiveRepository.findKeysByPeriod(start, end, limit);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            hot = orderRepository.findKeysByPeriodAfter(start, end, after.createdAt(), after.id(), limit);
+            archived = orderArchiveRepository.findKeysByPeriodAfter(start, end, after.createdAt(), after.id(), limit);
+        }
+        return toPage(OrderTiers.merge(hot, archived, key -> key, limit.max()), pageSize);
+    }
 
-        //TODO create a logical flow for order status doesn't return
-        if (previousStatus == Order.OrderStatus.PENDENTE &&
-                dto.status() == Order.OrderStatus.APROVADO) {
-            creditChange(order, SUB);
+    /**
+     * Pages through one partner's orders on the {@code (partner_id, [status,] created_at, id)} index of each
+     * tier. Pages carry only the order headers unless {@code includeItems} is set, in which case the items of
+     * the page are fetched in one extra query per tier.
+     */
+    public OrderPageResponseDTO getPageByPartner(UUID partnerId, Order.OrderStatus status, String cursor, int size,
+                                                 boolean includeItems) {
+        if (!partnerRepository.existsById(partnerId)) {
+            throw new PartnerNotFoundException(PARTNER_NOT_FOUND);
         }
+        int pageSize = pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        OrderCursor after = cursor == null ? null : OrderCursor.decode(cursor);
+
+        List<OrderHeaderDTO> hot;
+        List<OrderHeaderDTO> archived;
+        if (status == null) {
+            hot = after == null ? orderRepository.findHeadersByPartnerId(partnerId, limit)
+                                : orderRepository.findHeadersByPartnerIdAfter(partnerId, after.createdAt(),
+                                                                              after.id(), limit);
+            archived = after == null ? orderArchiveRepository.findHeadersByPartnerId(partnerId, limit)
+                                     : orderArchiveRepository.findHeadersByPartnerIdAfter(partnerId,
+                                                                                          after.createdAt(),
+                                                                                          after.id(), limit);
+        } else {
+            hot = after == null ? orderRepository.findHeadersByPartnerIdAndStatus(partnerId, status, limit)
+                                : orderRepository.findHeadersByPartnerIdAndStatusAfter(partnerId, status,
+                                                                                       after.createdAt(),
+                                                                                       after.id(), limit);
+            archived = after == null ? orderArchiveRepository.findHeadersByPartnerIdAndStatus(partnerId, status,
+                                                                                              limit)
+                                     : orderArchiveRepository.findHeadersByPartnerIdAndStatusAfter(partnerId, status,
+                                                                                                   after.createdAt(),
+                                                                                                   after.id(), limit);
+        }
+        List<OrderHeaderDTO> headers = OrderTiers.merge(hot, archived, OrderHeaderDTO::cursor, limit.max());
 
-        eventPublisher.publishStatusChange(order);
+        if (includeItems) {
+            return toPage(headers.stream().map(OrderHeaderDTO::cursor).toList(), pageSize);
+        }
+        boolean hasNext = headers.size() > pageSize;
+        List<OrderHeaderDTO> pageHeaders = hasNext ? headers.subList(ZERO, pageSize) : headers;
+        String nextCursor = hasNext ? pageHeaders.get(pageHeaders.size() - 1).cursor().encode() : null;
+        return new OrderPageResponseDTO(pageHeaders.stream().map(OrderService::toResponseDTO).toList(), nextCursor);
+    }
 
-        return toResponseDTO(order);
+    @Transactional
+    public void streamByStatus(Order.OrderStatus status, Consumer<OrderResponseDTO> consumer) {
+        try (Stream<OrderCursor> hot = orderRepository.streamKeysByStatus(status);
+             Stream<OrderCursor> archived = orderArchiveRepository.streamKeysByStatus(status)) {
+            streamInChunks(OrderTiers.merge(hot.iterator(), archived.iterator(), key -> key), consumer);
+        }
+    }
+
+    @Transactional
+    public void streamByPeriod(LocalDateTime start, LocalDateTime end, Consumer<OrderResponseDTO> consumer) {
+        try (Stream<OrderCursor> hot = orderRepository.streamKeysByPeriod(start, end);
+             Stream<OrderCursor> archived = orderArchiveRepository.streamKeysByPeriod(start, end)) {
+            streamInChunks(OrderTiers.merge(hot.iterator(), archived.iterator(), key -> key), consumer);
+        }
+    }
+
+    @Transactional
+    public OrderResponseDTO updateStatus(UUID id, OrderStatusUpdateRequestDTO dto) {
+        transition(id, dto.status());
+        return getById(id);
     }
 
     @Transactional
     public void orderCancel(UUID id) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(ORDER_NOT_FOUND));
+        transition(id, Order.OrderStatus.CANCELADO);
+    }
 
-        //TODO verify if order already canceled before change status
-        order.setStatus(Order.OrderStatus.CANCELADO);
-        orderRepository.save(order);
+    /**
+     * Applies a status transition with a conditional update on the status that was validated. If the order
+     * changed in between, the update misses and the transition is validated again against the new status;
+     * as the status flow has no cycles this settles after a few attempts. Only the order header is read, so
+     * illegal transitions are rejected without loading items.
+     */
+    private void transition(UUID id, Order.OrderStatus target) {
+        OrderHeaderDTO order;
+        do {
+            // archived orders are terminal, finding them turns the request into an invalid transition
+            order = orderRepository.findHeaderById(id)
+                    .or(() -> orderArchiveRepository.findHeaderById(id))
+                    .orElseThrow(() -> new OrderNotFoundException(ORDER_NOT_FOUND));
+            if (!order.status().canTransitionTo(target)) {
+                throw new InvalidStatusTransitionException(String.format(INVALID_STATUS_TRANSITION, order.status(),
+                                                                         target));
+            }
+        } while (orderRepository.transition(id, order.status(), target, LocalDateTime.now()) == ZERO);
+
+        if (order.status() == Order.OrderStatus.PENDENTE && target == Order.OrderStatus.APROVADO) {
+            creditLedgerService.reserve(order.partnerId(), id, order.totalAmount());
+        }
+        if (target == Order.OrderStatus.CANCELADO) {
+            creditLedgerService.release(order.partnerId(), id, order.totalAmount());
+        }
 
-        creditChange(order, ADD);
+        orderStatsService.recordStatusChange(order.partnerId(), order.status(), target, order.totalAmount());
+        eventPublisher.publishStatusChange(new OrderStatusEvent(id, order.partnerId(), order.totalAmount(), target,
+                                                                LocalDateTime.now()));
+        evictOrderAfterCommit(id);
+    }
 
-        eventPublisher.publishStatusChange(order);
+    private void evictOrderAfterCommit(UUID id) {
+        new TransactionAwareCacheDecorator(cacheManager.getCache(ORDERS_CACHE)).evict(id);
     }
 
-    private void creditChange(Order order, String operation) {
-        Partner partner = partnerRepository.findById(order.getPartnerId())
-                .orElseThrow(() -> new PartnerNotFoundException(PARTNER_NOT_FOUND));
+    private int pageSize(int size) {
+        return Math.clamp(size, 1, MAX_PAGE_SIZE);
+    }
 
-        if (SUB.equals(operation) && partner.getCreditLimit().compareTo(order.getTotalAmount()) < ZERO) {
-            throw new InsufficientCreditException(PARTNER_INSUFICIENT_CREDIT);
-        }
+    private OrderPageResponseDTO toPage(List<OrderCursor> keys, int pageSize) {
+        boolean hasNext = keys.size() > pageSize;
+        List<OrderCursor> pageKeys = hasNext ? keys.subList(ZERO, pageSize) : keys;
+        List<OrderResponseDTO> content = pageKeys.isEmpty() ? List.of() : findByKeys(pageKeys);
 
-        if(SUB.equals(operation)) {
-            partner.setCreditLimit(partner.getCreditLimit().subtract(order.getTotalAmount()));
-        } else {
-            partner.setCreditLimit(partner.getCreditLimit().add(order.getTotalAmount()));
+        String nextCursor = hasNext ? pageKeys.get(pageKeys.size() - 1).encode() : null;
+        return new OrderPageResponseDTO(content, nextCursor);
+    }
+
+    private void streamInChunks(Iterator<OrderCursor> keys, Consumer<OrderResponseDTO> consumer) {
+        List<OrderCursor> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        keys.forEachRemaining(key -> {
+            chunk.add(key);
+            if (chunk.size() == STREAM_CHUNK_SIZE) {
+                emitChunk(chunk, consumer);
+            }
+        });
+        if (!chunk.isEmpty()) {
+            emitChunk(chunk, consumer);
         }
+    }
+
+    private void emitChunk(List<OrderCursor> keys, Consumer<OrderResponseDTO> consumer) {
+        findByKeys(keys).forEach(consumer);
+        keys.clear();
+    }
 
-        partnerRepository.save(partner);
+    // keys come sorted by creation time, so the first and last bound the partitions to read
+    private List<OrderResponseDTO> findByKeys(List<OrderCursor> keys) {
+        List<UUID> ids = keys.stream().map(OrderCursor::id).toList();
+        List<OrderRowDTO> hot = orderRepository.findRowsByIdIn(ids, keys.getFirst().createdAt(),
+                                                               keys.getLast().createdAt());
+        return toResponseDTOs(OrderTiers.merge(hot, orderArchiveRepository.findRowsByIdIn(ids),
+                                               OrderRowDTO::cursor));
     }
 
-    private BigDecimal getTotalAmount(List<OrderItemRequestDTO> items) {
+    static BigDecimal getTotalAmount(List<OrderItemRequestDTO> items) {
         return items.stream()
                 .map(item -> item.unitPrice().multiply(BigDecimal.valueOf(item.quantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
-    private OrderResponseDTO toResponseDTO(Order order) {
+    /**
+     * Folds order rows, sorted so each order's rows are adjacent, into one response per order.
+     */
+    static List<OrderResponseDTO> toResponseDTOs(List<OrderRowDTO> rows) {
+        List<OrderResponseDTO> orders = new ArrayList<>();
+        OrderRowDTO current = null;
+        List<OrderItemResponseDTO> items = null;
+        for (OrderRowDTO row : rows) {
+            if (current == null || !current.id().equals(row.id())) {
+                if (current != null) {
+                    orders.add(toResponseDTO(current, items));
+                }
+                current = row;
+                items = new ArrayList<>();
+            }
+            if (row.itemId() != null) {
+                items.add(new OrderItemResponseDTO(row.itemId(), row.productId(), row.quantity(), row.unitPrice()));
+            }
+        }
+        if (current != null) {
+            orders.add(toResponseDTO(current, items));
+        }
+        return orders;
+    }
+
+    private static OrderResponseDTO toResponseDTO(OrderRowDTO row, List<OrderItemResponseDTO> items) {
+        return new OrderResponseDTO(
+                row.id(),
+                row.partnerId(),
+                items,
+                row.totalAmount(),
+                row.status(),
+                row.createdAt(),
+                row.updatedAt()
+        );
+    }
+
+    static OrderResponseDTO toResponseDTO(OrderHeaderDTO header) {
+        return new OrderResponseDTO(
+                header.id(),
+                header.partnerId(),
+                null,
+                header.totalAmount(),
+                header.status(),
+                header.createdAt(),
+                header.updatedAt()
+        );
+    }
+
+    static OrderResponseDTO toResponseDTO(Order order) {
         List<OrderItemResponseDTO> items = order.getItems().stream().map(item ->
                 new OrderItemResponseDTO(
                         item.getId(),
@@ -0,0 +1,104 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderStatsResponseDTO;
+import com.orderservice.dto.OrderStatusStatsDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.repository.OrderStatsDeltaRepository;
+import com.orderservice.repository.OrderStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Keeps running order counts and totals per partner and status. Order changes only append delta rows to
+ * {@code tb_order_stats_delta} in their own transaction, so concurrent changes for one partner never queue
+ * on a shared counter row; a scheduled rollup folds the deltas into {@code tb_order_stats}. Reads add the
+ * deltas not yet folded to the counters in one snapshot, so they are exact and cost the same however many
+ * orders there are.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatsService {
+
+    private static final long ONE = 1;
+    private static final String ROLLED_UP_LOG_DEBUG = "Rolled up {} order stats deltas";
+
+    private final OrderStatsRepository orderStatsRepository;
+    private final OrderStatsDeltaRepository orderStatsDeltaRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orderservice.stats.rollup-batch-size:5000}")
+    private int rollupBatchSize;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(UUID partnerId, BigDecimal amount) {
+        recordCreated(partnerId, ONE, amount);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(UUID partnerId, long count, BigDecimal amount) {
+        orderStatsDeltaRepository.add(partnerId, Order.OrderStatus.PENDENTE.name(), count, amount);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(UUID partnerId, Order.OrderStatus from, Order.OrderStatus to, BigDecimal amount) {
+        recordStatusChange(partnerId, from, to, ONE, amount);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(UUID partnerId, Order.OrderStatus from, Order.OrderStatus to, long count,
+                                   BigDecimal amount) {
+        if (from == to) {
+            return;
+        }
+        orderStatsDeltaRepository.move(partnerId, from.name(), to.name(), count, amount);
+    }
+
+    @Scheduled(fixedDelayString = "${orderservice.stats.rollup-interval:1000}")
+    public void rollUp() {
+        long rolledUp;
+        do {
+            rolledUp = transactionTemplate.execute(status -> orderStatsRepository.rollUp(rollupBatchSize));
+            log.debug(ROLLED_UP_LOG_DEBUG, rolledUp);
+        } while (rolledUp == rollupBatchSize);
+    }
+
+    // repeatable read, so a rollup committing between the two reads is seen either entirely or not at all
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public OrderStatsResponseDTO getStats(UUID partnerId) {
+        List<OrderStatusStatsDTO> statuses = partnerId == null
+                ? merge(orderStatsRepository.sumByStatus(), orderStatsDeltaRepository.sumByStatus())
+                : merge(orderStatsRepository.findByPartnerId(partnerId),
+                        orderStatsDeltaRepository.sumByPartnerId(partnerId));
+        long orderCount = statuses.stream().mapToLong(OrderStatusStatsDTO::orderCount).sum();
+        BigDecimal totalAmount = statuses.stream()
+                .map(OrderStatusStatsDTO::totalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new OrderStatsResponseDTO(partnerId, orderCount, totalAmount, statuses);
+    }
+
+    private static List<OrderStatusStatsDTO> merge(List<OrderStatusStatsDTO> counters,
+                                                   List<OrderStatusStatsDTO> deltas) {
+        // ordered by status name, as the counters are stored
+        Map<String, OrderStatusStatsDTO> merged = new TreeMap<>();
+        Stream.concat(counters.stream(), deltas.stream()).forEach(stats -> merged.merge(
+                stats.status().name(), stats, (a, b) -> new OrderStatusStatsDTO(
+                        a.status(), a.orderCount() + b.orderCount(), a.totalAmount().add(b.totalAmount()))));
+        return List.copyOf(merged.values());
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderHeaderDTO;
+import com.orderservice.dto.OrderStatusBatchResponseDTO;
+import com.orderservice.dto.OrderStatusBatchResultDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.event.OrderStatusEvent;
+import com.orderservice.event.OrderStatusEventPublisher;
+import com.orderservice.repository.OrderArchiveRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.PartnerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.orderservice.configuration.CacheConfiguration.ORDERS_CACHE;
+
+/**
+ * Moves many orders to one status in one call, with the rules of a single transition. Orders are handled
+ * in chunks, each in its own transaction: the chunk's orders are locked in id order and validated, approvals
+ * are checked in request order against the running credit of the locked partners, and the accepted orders
+ * then change with one conditional UPDATE. Credit moves in one statement for the chunk, counters in one
+ * upsert per partner and status, and the events are written to the outbox as one batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatusBatchService {
+
+    private static final String ORDER_NOT_FOUND = "Order not found!";
+    private static final String PARTNER_NOT_FOUND = "Partner not found!";
+    private static final String PARTNER_INSUFICIENT_CREDIT = "Partner does not have sufficient credit!";
+    private static final String INVALID_STATUS_TRANSITION = "Order status cannot change from %s to %s!";
+    private static final String CHUNK_FAILED = "Order status could not be updated!";
+    private static final String CHUNK_FAILED_LOG_ERROR = "Status batch chunk with {} orders failed";
+    private static final int CHUNK_SIZE = 500;
+    private static final int ZERO = 0;
+
+    private final OrderRepository orderRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final PartnerRepository partnerRepository;
+    private final CreditLedgerService creditLedgerService;
+    private final OrderStatsService orderStatsService;
+    private final OrderStatusEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+
+    public OrderStatusBatchResponseDTO updateStatus(List<UUID> ids, Order.OrderStatus target) {
+        List<UUID> orderIds = ids.stream().distinct().toList();
+        Map<UUID, OrderStatusBatchResultDTO> results = new HashMap<>();
+        for (int start = 0; start < orderIds.size(); start += CHUNK_SIZE) {
+            updateChunk(orderIds.subList(start, Math.min(start + CHUNK_SIZE, orderIds.size())), target, results);
+        }
+
+        List<OrderStatusBatchResultDTO> resultList = orderIds.stream().map(results::get).toList();
+        int updated = (int) resultList.stream()
+                .filter(result -> result.outcome() == OrderStatusBatchResultDTO.Outcome.UPDATED)
+                .count();
+        return new OrderStatusBatchResponseDTO(updated, resultList.size() - updated, resultList);
+    }
+
+    private void updateChunk(List<UUID> ids, Order.OrderStatus target, Map<UUID, OrderStatusBatchResultDTO> results) {
+        try {
+            results.putAll(transactionTemplate.execute(status -> transitionChunk(ids, target)));
+        } catch (DataAccessException e) {
+            log.error(CHUNK_FAILED_LOG_ERROR, ids.size(), e);
+            ids.forEach(id -> results.put(id, rejected(id, CHUNK_FAILED)));
+        }
+    }
+
+    private Map<UUID, OrderStatusBatchResultDTO> transitionChunk(List<UUID> ids, Order.OrderStatus target) {
+        Map<UUID, OrderStatusBatchResultDTO> results = new HashMap<>();
+        Map<UUID, OrderHeaderDTO> orders = orderRepository.lockHeadersByIdIn(ids).stream()
+                .collect(Collectors.toMap(OrderHeaderDTO::id, Function.identity()));
+        rejectMissing(ids, orders.keySet(), target, results);
+
+        List<OrderHeaderDTO> legal = new ArrayList<>(orders.size());
+        for (UUID id : ids) {
+            OrderHeaderDTO order = orders.get(id);
+            if (order == null) {
+                continue;
+            }
+            if (!order.status().canTransitionTo(target)) {
+                results.put(id, invalidTransition(id, order.status(), target));
+                continue;
+            }
+            legal.add(order);
+        }
+
+        List<OrderHeaderDTO> accepted = reserveCredit(legal, target, results);
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        LocalDateTime updatedAt = LocalDateTime.now();
+        List<UUID> acceptedIds = accepted.stream().map(OrderHeaderDTO::id).toList();
+        // the orders are locked, so the update cannot miss any of them
+        orderRepository.transitionAll(acceptedIds, sourceStatuses(target), target, updatedAt);
+        moveCredit(accepted, target);
+        recordStatusChanges(accepted, target);
+        eventPublisher.publishStatusChanges(accepted.stream()
+                .map(order -> new OrderStatusEvent(order.id(), order.partnerId(), order.totalAmount(), target,
+                                                   updatedAt))
+                .toList());
+
+        TransactionAwareCacheDecorator ordersCache = new TransactionAwareCacheDecorator(
+                cacheManager.getCache(ORDERS_CACHE));
+        acceptedIds.forEach(id -> {
+            ordersCache.evict(id);
+            results.put(id, new OrderStatusBatchResultDTO(id, OrderStatusBatchResultDTO.Outcome.UPDATED, null));
+        });
+        return results;
+    }
+
+    // archived orders are terminal, finding them turns the order into an invalid transition
+    private void rejectMissing(List<UUID> ids, Set<UUID> found, Order.OrderStatus target,
+                               Map<UUID, OrderStatusBatchResultDTO> results) {
+        List<UUID> missing = ids.stream().filter(id -> !found.contains(id)).toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        orderArchiveRepository.findHeadersByIdIn(missing).forEach(
+                order -> results.put(order.id(), invalidTransition(order.id(), order.status(), target)));
+        missing.forEach(id -> results.putIfAbsent(id, rejected(id, ORDER_NOT_FOUND)));
+    }
+
+    /**
+     * Locks the partners whose credit may move, in id order, and keeps the approvals that fit in their
+     * credit in request order.
+     */
+    private List<OrderHeaderDTO> reserveCredit(List<OrderHeaderDTO> legal, Order.OrderStatus target,
+                                               Map<UUID, OrderStatusBatchResultDTO> results) {
+        if (legal.isEmpty() || (target != Order.OrderStatus.APROVADO && target != Order.OrderStatus.CANCELADO)) {
+            return legal;
+        }
+
+        if (target == Order.OrderStatus.CANCELADO) {
+            partnerRepository.lockAllById(partnerIds(legal));
+            return legal;
+        }
+
+        Map<UUID, BigDecimal> availableCredit = creditLedgerService.lockCredit(partnerIds(legal));
+
+        // only pending orders can be approved, so every legal order reserves its amount
+        List<OrderHeaderDTO> accepted = new ArrayList<>(legal.size());
+        for (OrderHeaderDTO order : legal) {
+            BigDecimal available = availableCredit.get(order.partnerId());
+            if (available == null) {
+                results.put(order.id(), rejected(order.id(), PARTNER_NOT_FOUND));
+                continue;
+            }
+            if (available.compareTo(order.totalAmount()) < ZERO) {
+                results.put(order.id(), rejected(order.id(), PARTNER_INSUFICIENT_CREDIT));
+                continue;
+            }
+            availableCredit.put(order.partnerId(), available.subtract(order.totalAmount()));
+            accepted.add(order);
+        }
+        return accepted;
+    }
+
+    private void moveCredit(List<OrderHeaderDTO> accepted, Order.OrderStatus target) {
+        List<UUID> orderIds = accepted.stream().map(OrderHeaderDTO::id).toList();
+        if (target == Order.OrderStatus.APROVADO) {
+            creditLedgerService.reserveAll(orderIds, partnerIds(accepted));
+        } else if (target == Order.OrderStatus.CANCELADO) {
+            creditLedgerService.releaseAll(orderIds, partnerIds(accepted));
+        }
+    }
+
+    private void recordStatusChanges(List<OrderHeaderDTO> accepted, Order.OrderStatus target) {
+        // one move per partner and source status instead of one per order
+        Map<UUID, Map<Order.OrderStatus, List<OrderHeaderDTO>>> byPartner = accepted.stream().collect(
+                Collectors.groupingBy(OrderHeaderDTO::partnerId, TreeMap::new,
+                                      Collectors.groupingBy(OrderHeaderDTO::status, TreeMap::new,
+                                                            Collectors.toList())));
+        byPartner.forEach((partnerId, byStatus) -> byStatus.forEach((from, orders) ->
+                orderStatsService.recordStatusChange(partnerId, from, target, orders.size(), orders.stream()
+                        .map(OrderHeaderDTO::totalAmount)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add))));
+    }
+
+    private static Set<UUID> partnerIds(List<OrderHeaderDTO> orders) {
+        return orders.stream().map(OrderHeaderDTO::partnerId).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static List<Order.OrderStatus> sourceStatuses(Order.OrderStatus target) {
+        return Arrays.stream(Order.OrderStatus.values()).filter(status -> status.canTransitionTo(target)).toList();
+    }
+
+    private static OrderStatusBatchResultDTO invalidTransition(UUID id, Order.OrderStatus from, Order.OrderStatus to) {
+        return rejected(id, String.format(INVALID_STATUS_TRANSITION, from, to));
+    }
+
+    private static OrderStatusBatchResultDTO rejected(UUID id, String message) {
+        return new OrderStatusBatchResultDTO(id, OrderStatusBatchResultDTO.Outcome.REJECTED, message);
+    }
+
+}
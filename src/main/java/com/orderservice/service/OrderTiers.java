@@ -0,0 +1,83 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderCursor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Merges reads of the hot tables and the archive, each sorted on {@code (created_at, id)}, into one sequence in
+ * the same order, so listings span both tiers the way the aggregates do. The hot tier has to be read first: an
+ * order archived between the two reads then shows up in both, and its archived copy is dropped, whereas reading
+ * the archive first would miss it entirely.
+ */
+final class OrderTiers {
+
+    private OrderTiers() {
+    }
+
+    static <T> List<T> merge(List<T> hot, List<T> archived, Function<T, OrderCursor> key, int limit) {
+        List<T> merged = new ArrayList<>(Math.min(limit, hot.size() + archived.size()));
+        Iterator<T> iterator = merge(hot.iterator(), archived.iterator(), key);
+        while (merged.size() < limit && iterator.hasNext()) {
+            merged.add(iterator.next());
+        }
+        return merged;
+    }
+
+    static <T> List<T> merge(List<T> hot, List<T> archived, Function<T, OrderCursor> key) {
+        return merge(hot, archived, key, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Elements sharing a key stay adjacent, so the rows of one order still fold into a single response.
+     */
+    static <T> Iterator<T> merge(Iterator<T> hot, Iterator<T> archived, Function<T, OrderCursor> key) {
+        return new Iterator<>() {
+
+            private T nextHot = advance(hot);
+            private T nextArchived = advance(archived);
+            private OrderCursor lastHot;
+
+            @Override
+            public boolean hasNext() {
+                skipArchivedCopies();
+                return nextHot != null || nextArchived != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T next;
+                if (nextArchived == null
+                        || nextHot != null && OrderCursor.ORDER.compare(key.apply(nextHot),
+                                                                        key.apply(nextArchived)) <= 0) {
+                    next = nextHot;
+                    lastHot = key.apply(next);
+                    nextHot = advance(hot);
+                } else {
+                    next = nextArchived;
+                    nextArchived = advance(archived);
+                }
+                return next;
+            }
+
+            private void skipArchivedCopies() {
+                while (nextArchived != null && key.apply(nextArchived).equals(lastHot)) {
+                    nextArchived = advance(archived);
+                }
+            }
+
+        };
+    }
+
+    private static <T> T advance(Iterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+}
@@ -5,13 +5,20 @@ import com.orderservice.dto.PartnerResponseDTO;
 import com.orderservice.entity.Partner;
 import com.orderservice.exception.AlreadyExistsException;
 import com.orderservice.exception.PartnerNotFoundException;
+import com.orderservice.repository.PartnerCreditStripeRepository;
 import com.orderservice.repository.PartnerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static com.orderservice.configuration.CacheConfiguration.PARTNERS_CACHE;
+
 @Service
 @RequiredArgsConstructor
 public class PartnerService {
@@ -20,6 +27,7 @@ public class PartnerService {
     private static final String PARTNER_ALREADY_EXISTS = "Partner already exists!";
 
     private final PartnerRepository partnerRepository;
+    private final PartnerCreditStripeRepository partnerCreditStripeRepository;
 
     public PartnerResponseDTO create(PartnerRequestDTO dto) {
 
@@ -38,15 +46,23 @@ public class PartnerService {
         return toResponseDTO(partner);
     }
 
+    @Cacheable(cacheNames = PARTNERS_CACHE, key = "#id")
     public PartnerResponseDTO getById(UUID id) {
-        Partner partner = partnerRepository.findById(id)
+        return partnerRepository.findResponseById(id)
                 .orElseThrow(() -> new PartnerNotFoundException(PARTNER_NOT_FOUND));
-        return toResponseDTO(partner);
     }
 
+    /**
+     * Sets the credit left to the partner. The partner is locked first, as reserves do before folding its
+     * credit stripes, and the stripes are dropped so the new credit sits on the partner row alone.
+     */
+    @Transactional
+    @CachePut(cacheNames = PARTNERS_CACHE, key = "#id")
     public PartnerResponseDTO update(UUID id, PartnerRequestDTO dto) {
-        Partner searchedPartner = partnerRepository.findById(id)
+        Partner searchedPartner = partnerRepository.lockAllById(List.of(id)).stream()
+                                           .findFirst()
                                            .orElseThrow(() -> new PartnerNotFoundException(PARTNER_NOT_FOUND));
+        partnerCreditStripeRepository.deleteByPartnerId(id);
         Partner partner = Partner.builder()
                 .id(searchedPartner.getId())
                 .name(dto.name())
@@ -0,0 +1,6 @@
+-- Outbox ids are taken from the sequence on every insert, after the order row lock of the status change,
+-- so the events of one order get ids in commit order whichever instance wrote them. Pooled blocks handed
+-- out per instance could give a later transition a lower id. Skipping one block of headroom keeps new ids
+-- above every id already handed out.
+ALTER SEQUENCE seq_outbox_event INCREMENT BY 1;
+SELECT setval('seq_outbox_event', (SELECT last_value + 50 FROM seq_outbox_event));
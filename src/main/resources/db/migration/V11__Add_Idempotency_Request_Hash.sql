@@ -0,0 +1,2 @@
+-- SHA-256 of the request a key was first used with; keys stored before this column are not checked
+ALTER TABLE tb_idempotency_key ADD COLUMN request_hash VARCHAR(64);
@@ -0,0 +1,11 @@
+-- Order changes append their counter changes here instead of updating tb_order_stats, so changes for one partner
+-- never wait on each other's counter rows. A scheduled rollup folds the rows into tb_order_stats.
+CREATE TABLE tb_order_stats_delta (
+    id BIGSERIAL PRIMARY KEY,
+    partner_id UUID NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    order_count BIGINT NOT NULL,
+    total_amount NUMERIC(18, 2) NOT NULL
+);
+
+CREATE INDEX idx_order_stats_delta_partner_id ON tb_order_stats_delta(partner_id);
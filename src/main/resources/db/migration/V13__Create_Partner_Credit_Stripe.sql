@@ -0,0 +1,11 @@
+-- A partner's credit is split between tb_partner.credit_limit and these stripes. Reserves take their amount
+-- off one stripe, so approvals for one partner only wait on each other when they pick the same stripe.
+CREATE TABLE tb_partner_credit_stripe (
+    id BIGSERIAL PRIMARY KEY,
+    partner_id UUID NOT NULL,
+    stripe INTEGER NOT NULL,
+    balance NUMERIC(18, 2) NOT NULL CHECK (balance >= 0),
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX uk_partner_credit_stripe_partner_stripe ON tb_partner_credit_stripe(partner_id, stripe);
@@ -0,0 +1,5 @@
+DROP INDEX IF EXISTS idx_order_status;
+DROP INDEX IF EXISTS idx_order_created_at;
+
+CREATE INDEX idx_order_status_created_at_id ON tb_order(status, created_at, id);
+CREATE INDEX idx_order_created_at_id ON tb_order(created_at, id);
@@ -0,0 +1,11 @@
+CREATE TABLE tb_credit_movement (
+    id UUID NOT NULL PRIMARY KEY,
+    partner_id UUID NOT NULL,
+    order_id UUID NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    amount NUMERIC(18, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX uk_credit_movement_order_type ON tb_credit_movement(order_id, type);
+CREATE INDEX idx_credit_movement_partner_id ON tb_credit_movement(partner_id);
@@ -0,0 +1,16 @@
+CREATE SEQUENCE seq_outbox_event INCREMENT BY 50;
+
+CREATE TABLE tb_outbox_event (
+    id BIGINT NOT NULL PRIMARY KEY,
+    aggregate_id UUID NOT NULL,
+    exchange VARCHAR(255) NOT NULL,
+    routing_key VARCHAR(255) NOT NULL,
+    type_id VARCHAR(255),
+    content_type VARCHAR(100),
+    payload BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP
+);
+
+CREATE INDEX idx_outbox_event_unpublished ON tb_outbox_event(id) WHERE published_at IS NULL;
+CREATE INDEX idx_outbox_event_published_at ON tb_outbox_event(published_at) WHERE published_at IS NOT NULL;
@@ -0,0 +1,13 @@
+CREATE TABLE tb_order_stats (
+    partner_id UUID NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    order_count BIGINT NOT NULL,
+    total_amount NUMERIC(18, 2) NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (partner_id, status)
+);
+
+INSERT INTO tb_order_stats (partner_id, status, order_count, total_amount, updated_at)
+SELECT partner_id, status, count(*), sum(total_amount), now()
+FROM tb_order
+GROUP BY partner_id, status;
@@ -0,0 +1,4 @@
+DROP INDEX IF EXISTS idx_order_partner_id;
+
+CREATE INDEX idx_order_partner_created_at_id ON tb_order(partner_id, created_at, id);
+CREATE INDEX idx_order_partner_status_created_at_id ON tb_order(partner_id, status, created_at, id);
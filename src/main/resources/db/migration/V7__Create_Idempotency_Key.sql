@@ -0,0 +1,7 @@
+CREATE TABLE tb_idempotency_key (
+    idempotency_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    order_id UUID,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_key_created_at ON tb_idempotency_key(created_at);
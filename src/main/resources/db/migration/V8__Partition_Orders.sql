@@ -0,0 +1,232 @@
+-- Orders and items are range partitioned by month on the order creation time. Items carry the
+-- creation time of their order so both tables share the same bounds, and the partition key is
+-- part of every primary and foreign key as PostgreSQL requires. tb_order_key maps each order id
+-- to its creation time, so lookups by id can be pruned to one partition and ids stay unique.
+--
+-- The tables are rebuilt online, in three stages, and this script runs outside a transaction
+-- (see V8__Partition_Orders.sql.conf) so each stage commits on its own:
+--   1. the partitioned tables are created next to the live ones, and triggers on the live tables
+--      mirror every write made meanwhile, by this or the previous version of the service;
+--   2. existing orders are copied in batches of 10000 in id order, each batch in its own
+--      transaction, with its rows share-locked so a concurrent update cannot be copied stale;
+--   3. the tables are swapped in one short transaction, the only step that blocks writers.
+-- Every step up to the swap can be re-run, so a failed run is resumed with flyway repair and
+-- migrate. Once the swap committed, instances of the previous version can no longer insert items
+-- (they do not write order_created_at), so they should be drained before the new version starts.
+
+CREATE OR REPLACE FUNCTION create_order_partitions(from_month DATE, to_month DATE,
+                                                   order_table TEXT DEFAULT 'tb_order',
+                                                   item_table TEXT DEFAULT 'tb_order_item') RETURNS INTEGER AS $$
+DECLARE
+    month DATE := date_trunc('month', from_month);
+    next_month DATE;
+    created INTEGER := 0;
+BEGIN
+    -- serializes instances running the maintenance at the same time
+    PERFORM pg_advisory_xact_lock(hashtext('create_order_partitions'));
+    WHILE month <= to_month LOOP
+        next_month := month + INTERVAL '1 month';
+        IF to_regclass('tb_order_p' || to_char(month, 'YYYY_MM')) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           'tb_order_p' || to_char(month, 'YYYY_MM'), order_table, month, next_month);
+            created := created + 1;
+        END IF;
+        IF to_regclass('tb_order_item_p' || to_char(month, 'YYYY_MM')) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           'tb_order_item_p' || to_char(month, 'YYYY_MM'), item_table, month, next_month);
+        END IF;
+        month := next_month;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Stage 1: partitioned tables, the id lookup and the triggers mirroring the live tables
+
+CREATE TABLE IF NOT EXISTS tb_order_partitioned (
+    id UUID NOT NULL,
+    partner_id UUID NOT NULL,
+    total_amount NUMERIC(18, 2) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    CONSTRAINT tb_order_partitioned_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_order_partner FOREIGN KEY (partner_id) REFERENCES tb_partner(id)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS tb_order_item_partitioned (
+    id UUID NOT NULL,
+    order_id UUID NOT NULL,
+    order_created_at TIMESTAMP NOT NULL,
+    product_id UUID NOT NULL,
+    quantity INTEGER NOT NULL,
+    unit_price NUMERIC(18, 2) NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    CONSTRAINT tb_order_item_partitioned_pkey PRIMARY KEY (id, order_created_at),
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id, order_created_at)
+        REFERENCES tb_order_partitioned(id, created_at) ON DELETE CASCADE
+) PARTITION BY RANGE (order_created_at);
+
+-- catches rows outside the managed months, it stays empty as long as partitions are created ahead
+CREATE TABLE IF NOT EXISTS tb_order_default PARTITION OF tb_order_partitioned DEFAULT;
+CREATE TABLE IF NOT EXISTS tb_order_item_default PARTITION OF tb_order_item_partitioned DEFAULT;
+
+SELECT create_order_partitions(
+    LEAST(current_date, (SELECT min(COALESCE(created_at, updated_at))::date FROM tb_order)),
+    (current_date + INTERVAL '3 months')::date,
+    'tb_order_partitioned', 'tb_order_item_partitioned');
+
+-- index names must be unique in the schema, so they get their final names at the swap
+CREATE INDEX IF NOT EXISTS idx_order_partitioned_status_created_at_id
+    ON tb_order_partitioned(status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_partitioned_created_at_id ON tb_order_partitioned(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_partitioned_partner_created_at_id
+    ON tb_order_partitioned(partner_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_partitioned_partner_status_created_at_id
+    ON tb_order_partitioned(partner_id, status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_item_partitioned_order_id
+    ON tb_order_item_partitioned(order_id, order_created_at);
+
+CREATE TABLE IF NOT EXISTS tb_order_key (
+    id UUID NOT NULL PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION sync_order_key() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO tb_order_key (id, created_at) VALUES (NEW.id, NEW.created_at);
+    ELSE
+        DELETE FROM tb_order_key WHERE id = OLD.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_order_key ON tb_order_partitioned;
+CREATE TRIGGER trg_order_key AFTER INSERT OR DELETE ON tb_order_partitioned
+    FOR EACH ROW EXECUTE FUNCTION sync_order_key();
+
+CREATE OR REPLACE FUNCTION mirror_order() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO tb_order_partitioned (id, partner_id, total_amount, status, created_at, updated_at)
+        VALUES (NEW.id, NEW.partner_id, NEW.total_amount, NEW.status,
+                COALESCE(NEW.created_at, NEW.updated_at, now()), NEW.updated_at)
+        ON CONFLICT DO NOTHING;
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE tb_order_partitioned
+        SET partner_id = NEW.partner_id, total_amount = NEW.total_amount, status = NEW.status,
+            updated_at = NEW.updated_at
+        WHERE id = NEW.id AND created_at = (SELECT created_at FROM tb_order_key WHERE id = NEW.id);
+    ELSE
+        DELETE FROM tb_order_partitioned
+        WHERE id = OLD.id AND created_at = (SELECT created_at FROM tb_order_key WHERE id = OLD.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- orders not copied yet have no key, their items are copied with them by the backfill
+CREATE OR REPLACE FUNCTION mirror_order_item() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO tb_order_item_partitioned (id, order_id, order_created_at, product_id, quantity, unit_price,
+                                               created_at, updated_at)
+        SELECT NEW.id, NEW.order_id, k.created_at, NEW.product_id, NEW.quantity, NEW.unit_price,
+               NEW.created_at, NEW.updated_at
+        FROM tb_order_key k
+        WHERE k.id = NEW.order_id
+        ON CONFLICT DO NOTHING;
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE tb_order_item_partitioned
+        SET product_id = NEW.product_id, quantity = NEW.quantity, unit_price = NEW.unit_price,
+            updated_at = NEW.updated_at
+        WHERE id = NEW.id
+          AND order_created_at = (SELECT created_at FROM tb_order_key WHERE id = NEW.order_id);
+    ELSE
+        DELETE FROM tb_order_item_partitioned
+        WHERE id = OLD.id
+          AND order_created_at = (SELECT created_at FROM tb_order_key WHERE id = OLD.order_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_mirror_order ON tb_order;
+CREATE TRIGGER trg_mirror_order AFTER INSERT OR UPDATE OR DELETE ON tb_order
+    FOR EACH ROW EXECUTE FUNCTION mirror_order();
+
+DROP TRIGGER IF EXISTS trg_mirror_order_item ON tb_order_item;
+CREATE TRIGGER trg_mirror_order_item AFTER INSERT OR UPDATE OR DELETE ON tb_order_item
+    FOR EACH ROW EXECUTE FUNCTION mirror_order_item();
+
+-- Stage 2: copy the existing rows in batches, committing after each one
+
+CREATE OR REPLACE PROCEDURE backfill_order_partitions(batch_size INTEGER) AS $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    batch UUID[];
+BEGIN
+    LOOP
+        SELECT array_agg(id ORDER BY id) INTO batch
+        FROM (SELECT id FROM tb_order WHERE id > last_id ORDER BY id LIMIT batch_size FOR SHARE) b;
+        EXIT WHEN batch IS NULL;
+        PERFORM 1 FROM tb_order_item WHERE order_id = ANY(batch) FOR SHARE;
+
+        INSERT INTO tb_order_partitioned (id, partner_id, total_amount, status, created_at, updated_at)
+        SELECT id, partner_id, total_amount, status, COALESCE(created_at, updated_at, now()), updated_at
+        FROM tb_order
+        WHERE id = ANY(batch)
+        ON CONFLICT DO NOTHING;
+
+        INSERT INTO tb_order_item_partitioned (id, order_id, order_created_at, product_id, quantity, unit_price,
+                                               created_at, updated_at)
+        SELECT i.id, i.order_id, k.created_at, i.product_id, i.quantity, i.unit_price, i.created_at, i.updated_at
+        FROM tb_order_item i
+        JOIN tb_order_key k ON k.id = i.order_id
+        WHERE i.order_id = ANY(batch)
+        ON CONFLICT DO NOTHING;
+
+        last_id := batch[array_length(batch, 1)];
+        COMMIT;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+CALL backfill_order_partitions(10000);
+
+ANALYZE tb_order_partitioned;
+ANALYZE tb_order_item_partitioned;
+ANALYZE tb_order_key;
+
+-- Stage 3: swap the tables. Rows written since the last batch were mirrored by the triggers, so
+-- the exclusive lock only covers the catalog changes below.
+
+DO $$
+BEGIN
+    IF to_regclass('tb_order_partitioned') IS NULL THEN
+        RETURN;
+    END IF;
+
+    LOCK TABLE tb_order, tb_order_item IN ACCESS EXCLUSIVE MODE;
+    DROP TABLE tb_order_item;
+    DROP TABLE tb_order;
+
+    ALTER TABLE tb_order_partitioned RENAME TO tb_order;
+    ALTER TABLE tb_order RENAME CONSTRAINT tb_order_partitioned_pkey TO tb_order_pkey;
+    ALTER TABLE tb_order_item_partitioned RENAME TO tb_order_item;
+    ALTER TABLE tb_order_item RENAME CONSTRAINT tb_order_item_partitioned_pkey TO tb_order_item_pkey;
+
+    ALTER INDEX idx_order_partitioned_status_created_at_id RENAME TO idx_order_status_created_at_id;
+    ALTER INDEX idx_order_partitioned_created_at_id RENAME TO idx_order_created_at_id;
+    ALTER INDEX idx_order_partitioned_partner_created_at_id RENAME TO idx_order_partner_created_at_id;
+    ALTER INDEX idx_order_partitioned_partner_status_created_at_id RENAME TO idx_order_partner_status_created_at_id;
+    ALTER INDEX idx_order_item_partitioned_order_id RENAME TO idx_order_item_order_id;
+END;
+$$;
+
+DROP FUNCTION IF EXISTS mirror_order_item();
+DROP FUNCTION IF EXISTS mirror_order();
+DROP PROCEDURE IF EXISTS backfill_order_partitions(INTEGER);
@@ -0,0 +1,28 @@
+-- Terminal orders are moved here once they are old enough. Rows are written once; listings merge them with
+-- the hot tables, so the archive carries the same keyset indexes as tb_order.
+CREATE TABLE tb_order_archive (
+    id UUID NOT NULL PRIMARY KEY,
+    partner_id UUID NOT NULL,
+    total_amount NUMERIC(18, 2) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE tb_order_item_archive (
+    id UUID NOT NULL PRIMARY KEY,
+    order_id UUID NOT NULL,
+    product_id UUID NOT NULL,
+    quantity INTEGER NOT NULL,
+    unit_price NUMERIC(18, 2) NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+CREATE INDEX idx_order_archive_created_at_id ON tb_order_archive(created_at, id);
+CREATE INDEX idx_order_archive_status_created_at_id ON tb_order_archive(status, created_at, id);
+CREATE INDEX idx_order_archive_partner_created_at_id ON tb_order_archive(partner_id, created_at, id);
+CREATE INDEX idx_order_archive_partner_status_created_at_id ON tb_order_archive(partner_id, status, created_at, id);
+
+CREATE INDEX idx_order_item_archive_order_id ON tb_order_item_archive(order_id);
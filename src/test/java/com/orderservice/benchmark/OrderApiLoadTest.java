@@ -0,0 +1,337 @@
+package com.orderservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.OrderStatusUpdateRequestDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.Partner;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.PartnerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the order and partner endpoints over HTTP with a fixed number of requests in flight and
+ * records throughput and p50/p99/p999 latency per scenario into a JSON report that can be diffed
+ * across versions ({@code target/load-report.json}, or {@code -Dloadtest.report=<path>}).
+ * Scenarios run in order against one application started on Testcontainers Postgres and RabbitMQ:
+ * create-heavy, poll-heavy (cached order reads with and without {@code If-None-Match} plus partner
+ * reads) and an approve/cancel storm against a single partner. Each one runs an unmeasured
+ * warm-up first. The load is closed-loop, so latencies are those seen by the client at the given
+ * concurrency, not under a fixed arrival rate.
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=OrderApiLoadTest}.
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "logging.level.com.orderservice.controller=WARN")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class OrderApiLoadTest {
+
+    private static final int CONCURRENCY = 64;
+    private static final int WARM_UP_REQUESTS = 1000;
+    private static final int CREATE_REQUESTS = 10000;
+    private static final int POLL_REQUESTS = 50000;
+    private static final int STORM_ORDERS = 2000;
+    private static final int PARTNER_COUNT = 50;
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final int CONDITIONAL_POLL_EVERY = 4;
+    private static final int PARTNER_POLL_EVERY = 5;
+    private static final BigDecimal LARGE_CREDIT_LIMIT = new BigDecimal("1000000000.00");
+    private static final BigDecimal STORM_CREDIT_LIMIT = new BigDecimal("1000.00");
+    private static final BigDecimal STORM_ORDER_AMOUNT = new BigDecimal("1.00");
+    private static final BigDecimal UNIT_PRICE = new BigDecimal("9.90");
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final int SERVER_ERROR = 500;
+    private static final int IO_FAILURE = -1;
+    private static final String ORDERS_PATH = "/api/orders";
+    private static final String PARTNERS_PATH = "/api/partners";
+    private static final String REPORT_PATH = System.getProperty("loadtest.report", "target/load-report.json");
+    private static final String LOAD_PARTNER_NAME = "Load Partner ";
+    private static final String STORM_PARTNER_NAME = "Storm Partner";
+    private static final String REPORT_LOG_INFO = "Load report written to {}";
+    private static final String RESULT_LOG_INFO = "{}: {} requests in {} ms -> {} req/sec, p50 {} ms, p99 {} ms, " +
+                                                  "p999 {} ms, statuses {}";
+
+    private static final List<ScenarioResult> RESULTS = new CopyOnWriteArrayList<>();
+    private static final List<UUID> CREATED_ORDER_IDS = new CopyOnWriteArrayList<>();
+    private static final List<UUID> PARTNER_IDS = new ArrayList<>();
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    record ScenarioResult(String scenario, int requests, int concurrency, long durationMillis, long throughput,
+                          double p50Millis, double p99Millis, double p999Millis, double maxMillis,
+                          Map<Integer, Long> statuses) {
+    }
+
+    record LoadReport(Instant finishedAt, String javaVersion, int availableProcessors, List<ScenarioResult> scenarios) {
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void setUpPartners(@Autowired PartnerRepository partnerRepository) {
+        for (int i = 0; i < PARTNER_COUNT; i++) {
+            PARTNER_IDS.add(partnerRepository.save(Partner.builder()
+                                                          .name(LOAD_PARTNER_NAME + i)
+                                                          .creditLimit(LARGE_CREDIT_LIMIT)
+                                                          .build()).getId());
+        }
+    }
+
+    @AfterAll
+    static void writeReport(@Autowired ObjectMapper objectMapper) throws IOException {
+        Path report = Path.of(REPORT_PATH);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        LoadReport loadReport = new LoadReport(Instant.now(), Runtime.version().toString(),
+                                               Runtime.getRuntime().availableProcessors(), RESULTS);
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), loadReport);
+        log.info(REPORT_LOG_INFO, report.toAbsolutePath());
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(1)
+    void createHeavy() throws Exception {
+        ScenarioResult result = run("create-heavy", CREATE_REQUESTS, this::createOrderRequest, response -> {
+            if (response.statusCode() == 201) {
+                String location = response.headers().firstValue(HttpHeaders.LOCATION).orElseThrow();
+                CREATED_ORDER_IDS.add(UUID.fromString(location.substring(location.lastIndexOf('/') + 1)));
+            }
+        });
+
+        assertEquals((long) CREATE_REQUESTS, result.statuses().get(201));
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(2)
+    void pollHeavy() throws Exception {
+        assertFalse(CREATED_ORDER_IDS.isEmpty());
+        Map<UUID, String> eTags = new ConcurrentHashMap<>();
+        IntFunction<HttpRequest> requests = i -> {
+            if (i % PARTNER_POLL_EVERY == 0) {
+                return get(PARTNERS_PATH + "/" + PARTNER_IDS.get(i % PARTNER_IDS.size())).build();
+            }
+            UUID orderId = CREATED_ORDER_IDS.get(i % CREATED_ORDER_IDS.size());
+            HttpRequest.Builder builder = get(ORDERS_PATH + "/" + orderId);
+            String eTag = eTags.get(orderId);
+            if (eTag != null && i % CONDITIONAL_POLL_EVERY == 0) {
+                builder.header(HttpHeaders.IF_NONE_MATCH, eTag);
+            }
+            return builder.build();
+        };
+
+        ScenarioResult result = run("poll-heavy", POLL_REQUESTS, requests, response -> {
+            if (response.uri().getPath().startsWith(ORDERS_PATH)) {
+                response.headers().firstValue(HttpHeaders.ETAG).ifPresent(eTag ->
+                        eTags.put(UUID.fromString(lastPathSegment(response.uri())), eTag));
+            }
+        });
+
+        assertEquals(0, errors(result));
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(3)
+    void approveCancelStorm() throws Exception {
+        Partner partner = partnerRepository.save(Partner.builder()
+                                                        .name(STORM_PARTNER_NAME)
+                                                        .creditLimit(STORM_CREDIT_LIMIT)
+                                                        .build());
+        List<UUID> orderIds = pendingOrders(partner.getId(), STORM_ORDERS + WARM_UP_REQUESTS / 2);
+        byte[] approve = objectMapper.writeValueAsBytes(new OrderStatusUpdateRequestDTO(Order.OrderStatus.APROVADO));
+
+        // every order is approved and then cancelled, so approvals race both each other and the releases
+        IntFunction<HttpRequest> requests = i -> {
+            UUID orderId = orderIds.get(i / 2);
+            if (i % 2 == 0) {
+                return put(ORDERS_PATH + "/" + orderId + "/status", approve);
+            }
+            return put(ORDERS_PATH + "/" + orderId + "/cancel", new byte[0]);
+        };
+
+        ScenarioResult result = run("approve-cancel-storm", STORM_ORDERS * 2, requests, response -> {
+        });
+
+        assertEquals(0, errors(result));
+        assertTrue(partnerRepository.findAvailableCreditById(partner.getId()).orElseThrow().signum() >= 0);
+    }
+
+    private ScenarioResult run(String name, int requests, IntFunction<HttpRequest> requestFactory,
+                               Consumer<HttpResponse<byte[]>> onResponse) throws Exception {
+        // warm-up requests use the indexes after the measured ones, so they never repeat a measured request
+        execute(WARM_UP_REQUESTS, i -> requestFactory.apply(requests + i), response -> {
+        }, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS), new ConcurrentHashMap<>());
+
+        Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        execute(requests, requestFactory, onResponse, histogram, statuses);
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.get()));
+        ScenarioResult result = new ScenarioResult(name, requests, CONCURRENCY, elapsedMillis,
+                                                   requests * 1000L / elapsedMillis,
+                                                   millis(histogram.getValueAtPercentile(50)),
+                                                   millis(histogram.getValueAtPercentile(99)),
+                                                   millis(histogram.getValueAtPercentile(99.9)),
+                                                   millis(histogram.getMaxValue()), statusCounts);
+        RESULTS.add(result);
+        log.info(RESULT_LOG_INFO, name, requests, elapsedMillis, result.throughput(), result.p50Millis(),
+                 result.p99Millis(), result.p999Millis(), statusCounts);
+        return result;
+    }
+
+    private void execute(int requests, IntFunction<HttpRequest> requestFactory,
+                         Consumer<HttpResponse<byte[]>> onResponse, Histogram histogram,
+                         Map<Integer, AtomicLong> statuses) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                HttpRequest request = requestFactory.apply(i);
+                inFlight.acquire();
+                executor.submit(() -> {
+                    long sentAt = System.nanoTime();
+                    int status;
+                    try {
+                        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        status = response.statusCode();
+                        onResponse.accept(response);
+                    } catch (IOException | InterruptedException e) {
+                        status = IO_FAILURE;
+                    } finally {
+                        inFlight.release();
+                    }
+                    histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentAt));
+                    statuses.computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+                });
+            }
+        }
+    }
+
+    private HttpRequest createOrderRequest(int i) {
+        List<OrderItemRequestDTO> items = new ArrayList<>(ITEMS_PER_ORDER);
+        for (int item = 0; item < ITEMS_PER_ORDER; item++) {
+            items.add(new OrderItemRequestDTO(UUID.randomUUID(), item + 1, UNIT_PRICE));
+        }
+        OrderRequestDTO order = new OrderRequestDTO(PARTNER_IDS.get(i % PARTNER_IDS.size()), items);
+        try {
+            return HttpRequest.newBuilder(uri(ORDERS_PATH))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(order)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<UUID> pendingOrders(UUID partnerId, int count) {
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(Order.builder()
+                            .partnerId(partnerId)
+                            .status(Order.OrderStatus.PENDENTE)
+                            .totalAmount(STORM_ORDER_AMOUNT)
+                            .items(new ArrayList<>())
+                            .build());
+        }
+        return orderRepository.saveAll(orders).stream().map(Order::getId).toList();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+
+    private HttpRequest put(String path, byte[] body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String lastPathSegment(URI uri) {
+        String path = uri.getPath();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static long errors(ScenarioResult result) {
+        return result.statuses().entrySet().stream()
+                .filter(status -> status.getKey() == IO_FAILURE || status.getKey() >= SERVER_ERROR)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+}
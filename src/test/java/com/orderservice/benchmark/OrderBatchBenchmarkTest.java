@@ -0,0 +1,141 @@
+package com.orderservice.benchmark;
+
+import com.orderservice.dto.OrderBatchRequestDTO;
+import com.orderservice.dto.OrderBatchResponseDTO;
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.entity.Partner;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.PartnerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares rows/sec of {@code POST /api/orders/batch} against looping {@code POST /api/orders}.
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=OrderBatchBenchmarkTest}.
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class OrderBatchBenchmarkTest {
+
+    private static final String PARTNER_A_NAME = "Benchmark Partner";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000000000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("10.00");
+    private static final int ORDER_COUNT = 2000;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final String RESULT_LOG_INFO = "{}: {} orders / {} rows in {} ms -> {} rows/sec";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    private Partner partner;
+
+    @BeforeEach
+    void setup() {
+        partner = partnerRepository.save(Partner.builder()
+                                                .name(PARTNER_A_NAME)
+                                                .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    private List<OrderRequestDTO> buildOrders() {
+        List<OrderRequestDTO> orders = new ArrayList<>(ORDER_COUNT);
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            List<OrderItemRequestDTO> items = new ArrayList<>(ITEMS_PER_ORDER);
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                items.add(new OrderItemRequestDTO(UUID.randomUUID(), 1, ORDER_ITEM_UNIT_PRICE));
+            }
+            orders.add(new OrderRequestDTO(partner.getId(), items));
+        }
+        return orders;
+    }
+
+    private void report(String name, long elapsedNanos) {
+        long rows = (long) ORDER_COUNT * (ITEMS_PER_ORDER + 1);
+        long elapsedMillis = Math.max(1, elapsedNanos / 1_000_000);
+        log.info(RESULT_LOG_INFO, name, ORDER_COUNT, rows, elapsedMillis, rows * 1000 / elapsedMillis);
+    }
+
+    @Test
+    void singleOrderEndpointLoop() {
+        List<OrderRequestDTO> orders = buildOrders();
+
+        long start = System.nanoTime();
+        for (OrderRequestDTO order : orders) {
+            ResponseEntity<Void> response = restTemplate.postForEntity("/api/orders", order, Void.class);
+            assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        }
+        report("single", System.nanoTime() - start);
+    }
+
+    @Test
+    void batchEndpoint() {
+        OrderBatchRequestDTO batch = new OrderBatchRequestDTO(buildOrders());
+
+        long start = System.nanoTime();
+        ResponseEntity<OrderBatchResponseDTO> response = restTemplate.postForEntity("/api/orders/batch", batch,
+                                                                                    OrderBatchResponseDTO.class);
+        report("batch", System.nanoTime() - start);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ORDER_COUNT, response.getBody().created());
+    }
+
+}
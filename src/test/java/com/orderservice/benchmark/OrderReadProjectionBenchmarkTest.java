@@ -0,0 +1,181 @@
+package com.orderservice.benchmark;
+
+import com.orderservice.dto.OrderItemResponseDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.OrderItem;
+import com.orderservice.entity.Partner;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.PartnerRepository;
+import com.orderservice.service.OrderService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares reading orders with items through the DTO projection used by {@link OrderService} against
+ * hydrating {@link Order} entities with a fetch join and copying them into the same responses.
+ * Reports mean latency and bytes allocated per read on the calling thread.
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=OrderReadProjectionBenchmarkTest}.
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(properties = "orderservice.outbox.relay.enabled=false")
+public class OrderReadProjectionBenchmarkTest {
+
+    private static final String PARTNER_A_NAME = "Benchmark Partner";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000000000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("10.00");
+    private static final Order.OrderStatus ORDER_STATUS_PENDENTE = Order.OrderStatus.PENDENTE;
+    private static final int ORDER_COUNT = 500;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int WARM_UP_ITERATIONS = 30;
+    private static final int ITERATIONS = 50;
+    private static final String ENTITY_QUERY = "select distinct o from Order o left join fetch o.items " +
+                                               "where o.status = :status order by o.createdAt, o.id";
+    private static final String RESULT_LOG_INFO = "{}: {} orders x {} items -> {} us/read, {} KiB allocated/read";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @BeforeEach
+    void setup() {
+        Partner partner = partnerRepository.save(Partner.builder()
+                                                        .name(PARTNER_A_NAME)
+                                                        .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                        .build());
+        List<Order> orders = new ArrayList<>(ORDER_COUNT);
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Order order = Order.builder()
+                               .partnerId(partner.getId())
+                               .status(ORDER_STATUS_PENDENTE)
+                               .totalAmount(ORDER_ITEM_UNIT_PRICE.multiply(BigDecimal.valueOf(ITEMS_PER_ORDER)))
+                               .build();
+            List<OrderItem> items = new ArrayList<>(ITEMS_PER_ORDER);
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                items.add(OrderItem.builder()
+                                   .order(order)
+                                   .productId(UUID.randomUUID())
+                                   .quantity(1)
+                                   .unitPrice(ORDER_ITEM_UNIT_PRICE)
+                                   .build());
+            }
+            order.setItems(items);
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    private List<OrderResponseDTO> readEntities() {
+        return transactionTemplate.execute(status -> entityManager.createQuery(ENTITY_QUERY, Order.class)
+                .setParameter("status", ORDER_STATUS_PENDENTE)
+                .getResultList()
+                .stream()
+                .map(order -> new OrderResponseDTO(
+                        order.getId(),
+                        order.getPartnerId(),
+                        order.getItems().stream()
+                             .map(item -> new OrderItemResponseDTO(item.getId(), item.getProductId(),
+                                                                   item.getQuantity(), item.getUnitPrice()))
+                             .toList(),
+                        order.getTotalAmount(),
+                        order.getStatus(),
+                        order.getCreatedAt(),
+                        order.getUpdatedAt()))
+                .toList());
+    }
+
+    private void measure(String name, Supplier<List<OrderResponseDTO>> read) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            assertEquals(ORDER_COUNT, read.get().size());
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            read.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        log.info(RESULT_LOG_INFO, name, ORDER_COUNT, ITEMS_PER_ORDER, elapsedNanos / ITERATIONS / 1_000,
+                 allocated / ITERATIONS / 1_024);
+    }
+
+    @Test
+    void entityHydration() {
+        measure("entity", this::readEntities);
+    }
+
+    @Test
+    void dtoProjection() {
+        measure("projection", () -> orderService.getByStatus(ORDER_STATUS_PENDENTE));
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.orderservice.benchmark;
+
+import com.orderservice.dto.OrderBatchRequestDTO;
+import com.orderservice.dto.OrderBatchResponseDTO;
+import com.orderservice.dto.OrderBatchResultDTO;
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.dto.OrderStatusBatchRequestDTO;
+import com.orderservice.dto.OrderStatusBatchResponseDTO;
+import com.orderservice.dto.OrderStatusUpdateRequestDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.Partner;
+import com.orderservice.repository.CreditMovementRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OrderStatsDeltaRepository;
+import com.orderservice.repository.OrderStatsRepository;
+import com.orderservice.repository.OutboxEventRepository;
+import com.orderservice.repository.PartnerCreditStripeRepository;
+import com.orderservice.repository.PartnerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares orders/sec of {@code PUT /api/orders/status} against looping {@code PUT /api/orders/{id}/status},
+ * approving the same number of pending orders. Run with
+ * {@code ./mvnw test -Pbenchmark -Dtest=OrderStatusBatchBenchmarkTest}.
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "orderservice.outbox.relay.enabled=false")
+public class OrderStatusBatchBenchmarkTest {
+
+    private static final String PARTNER_A_NAME = "Benchmark Partner";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000000000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("10.00");
+    private static final int ORDER_COUNT = 10000;
+    private static final String RESULT_LOG_INFO = "{}: {} orders in {} ms -> {} orders/sec";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatsRepository orderStatsRepository;
+
+    @Autowired
+    private OrderStatsDeltaRepository orderStatsDeltaRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private CreditMovementRepository creditMovementRepository;
+
+    @Autowired
+    private PartnerCreditStripeRepository partnerCreditStripeRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private List<UUID> orderIds;
+
+    @BeforeEach
+    void setup() {
+        Partner partner = partnerRepository.save(Partner.builder()
+                                                        .name(PARTNER_A_NAME)
+                                                        .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                        .build());
+        List<OrderRequestDTO> orders = new ArrayList<>(ORDER_COUNT);
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders.add(new OrderRequestDTO(partner.getId(), List.of(
+                    new OrderItemRequestDTO(UUID.randomUUID(), 1, ORDER_ITEM_UNIT_PRICE))));
+        }
+        ResponseEntity<OrderBatchResponseDTO> response = restTemplate.postForEntity(
+                "/api/orders/batch", new OrderBatchRequestDTO(orders), OrderBatchResponseDTO.class);
+        assertEquals(ORDER_COUNT, response.getBody().created());
+        orderIds = response.getBody().results().stream().map(OrderBatchResultDTO::orderId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        creditMovementRepository.deleteAll();
+        partnerCreditStripeRepository.deleteAll();
+        orderRepository.deleteAll();
+        orderStatsRepository.deleteAll();
+        orderStatsDeltaRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    private void report(String name, long elapsedNanos) {
+        long elapsedMillis = Math.max(1, elapsedNanos / 1_000_000);
+        log.info(RESULT_LOG_INFO, name, ORDER_COUNT, elapsedMillis, ORDER_COUNT * 1000L / elapsedMillis);
+    }
+
+    @Test
+    void singleOrderEndpointLoop() {
+        HttpEntity<OrderStatusUpdateRequestDTO> request = new HttpEntity<>(
+                new OrderStatusUpdateRequestDTO(Order.OrderStatus.APROVADO));
+
+        long start = System.nanoTime();
+        for (UUID id : orderIds) {
+            ResponseEntity<OrderResponseDTO> response = restTemplate.exchange(
+                    "/api/orders/{id}/status", HttpMethod.PUT, request, OrderResponseDTO.class, id);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+        report("single", System.nanoTime() - start);
+    }
+
+    @Test
+    void batchEndpoint() {
+        HttpEntity<OrderStatusBatchRequestDTO> request = new HttpEntity<>(
+                new OrderStatusBatchRequestDTO(orderIds, Order.OrderStatus.APROVADO));
+
+        long start = System.nanoTime();
+        ResponseEntity<OrderStatusBatchResponseDTO> response = restTemplate.exchange(
+                "/api/orders/status", HttpMethod.PUT, request, OrderStatusBatchResponseDTO.class);
+        report("batch", System.nanoTime() - start);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ORDER_COUNT, response.getBody().updated());
+    }
+
+}
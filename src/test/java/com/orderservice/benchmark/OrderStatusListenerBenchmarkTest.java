@@ -0,0 +1,144 @@
+package com.orderservice.benchmark;
+
+import com.orderservice.entity.Order;
+import com.orderservice.event.OrderStatusEvent;
+import com.orderservice.event.OrderStatusEventProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.orderservice.configuration.RabbitMQConfig.ORDER_STATUS_LISTENER_ID;
+import static com.orderservice.configuration.RabbitMQConfig.ORDER_STATUS_QUEUE;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Publishes a burst of order status events and reports consumed messages/sec and p99 latency from
+ * publish to handled for several listener batch sizes.
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=OrderStatusListenerBenchmarkTest}.
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(properties = "orderservice.outbox.relay.enabled=false")
+public class OrderStatusListenerBenchmarkTest {
+
+    private static final int MESSAGE_COUNT = 20000;
+    private static final int MIN_PREFETCH = 250;
+    private static final UUID PARTNER_ID = UUID.randomUUID();
+    private static final BigDecimal TOTAL_AMOUNT = new BigDecimal("500.00");
+    private static final String RESULT_LOG_INFO = "batch size {}: {} messages in {} ms -> {} msgs/sec, p99 latency {} ms";
+
+    private static final Map<UUID, Long> SENT_AT = new ConcurrentHashMap<>();
+    private static final long[] LATENCIES = new long[MESSAGE_COUNT];
+    private static final AtomicInteger HANDLED = new AtomicInteger();
+    private static volatile CountDownLatch done = new CountDownLatch(0);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @TestConfiguration
+    static class RecordingProcessorConfiguration {
+
+        @Bean
+        @Primary
+        OrderStatusEventProcessor recordingOrderStatusEventProcessor(@Value("${orderservice.listener.workers:4}") int workers,
+                                                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                                                     RetryTemplate orderStatusRetryTemplate,
+                                                                     MeterRegistry meterRegistry) {
+            return new OrderStatusEventProcessor(workers, virtualThreads, orderStatusRetryTemplate, meterRegistry) {
+                @Override
+                protected void handle(OrderStatusEvent event) {
+                    LATENCIES[HANDLED.getAndIncrement()] = System.nanoTime() - SENT_AT.get(event.orderId());
+                    done.countDown();
+                }
+            };
+        }
+
+    }
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private RabbitListenerEndpointRegistry registry;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50, 250})
+    void consumeBurst(int batchSize) throws InterruptedException {
+        SimpleMessageListenerContainer container =
+                (SimpleMessageListenerContainer) registry.getListenerContainer(ORDER_STATUS_LISTENER_ID);
+        container.stop();
+        container.setBatchSize(batchSize);
+        container.setPrefetchCount(Math.max(MIN_PREFETCH, batchSize * 2));
+
+        SENT_AT.clear();
+        HANDLED.set(0);
+        done = new CountDownLatch(MESSAGE_COUNT);
+        container.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            UUID orderId = UUID.randomUUID();
+            SENT_AT.put(orderId, System.nanoTime());
+            rabbitTemplate.convertAndSend(ORDER_STATUS_QUEUE, new OrderStatusEvent(orderId, PARTNER_ID, TOTAL_AMOUNT,
+                                                                                    Order.OrderStatus.APROVADO,
+                                                                                    LocalDateTime.now()));
+        }
+        assertTrue(done.await(2, TimeUnit.MINUTES));
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        long[] latencies = LATENCIES.clone();
+        Arrays.sort(latencies);
+        long p99Millis = TimeUnit.NANOSECONDS.toMillis(latencies[(int) Math.ceil(MESSAGE_COUNT * 0.99) - 1]);
+        log.info(RESULT_LOG_INFO, batchSize, MESSAGE_COUNT, elapsedMillis, MESSAGE_COUNT * 1000L / elapsedMillis,
+                 p99Millis);
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.orderservice.benchmark;
+
+import com.orderservice.configuration.BulkheadDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the same burst of requests holding a connection for a blocking query on a Tomcat-sized
+ * platform pool and on one virtual thread per request behind the bulkhead, and reports
+ * requests/sec and p99 latency for both. Each scenario runs an unmeasured warm-up burst on its own
+ * executor first; a cold virtual thread scheduler otherwise halves the first result.
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=VirtualThreadBenchmarkTest}.
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers
+public class VirtualThreadBenchmarkTest {
+
+    private static final int REQUESTS = 5000;
+    private static final int POOL_SIZE = 10;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int WARM_UP_REQUESTS = 5000;
+    private static final String BLOCKING_QUERY = "select pg_sleep(0.005)";
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofMinutes(2);
+    private static final String RESULT_LOG_INFO = "{}: {} requests in {} ms -> {} req/sec, p99 latency {} ms";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    private static HikariDataSource hikariDataSource;
+
+    @BeforeAll
+    static void setUp() {
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setJdbcUrl(postgres.getJdbcUrl());
+        hikariConfig.setUsername(postgres.getUsername());
+        hikariConfig.setPassword(postgres.getPassword());
+        hikariConfig.setMaximumPoolSize(POOL_SIZE);
+        hikariConfig.setConnectionTimeout(ACQUIRE_TIMEOUT.toMillis());
+        hikariDataSource = new HikariDataSource(hikariConfig);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        hikariDataSource.close();
+    }
+
+    @Test
+    void platformThreads() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS)) {
+            run("platform threads", executor, hikariDataSource);
+        }
+    }
+
+    @Test
+    void virtualThreadsWithBulkhead() throws Exception {
+        DataSource bulkhead = new BulkheadDataSource(hikariDataSource, POOL_SIZE, ACQUIRE_TIMEOUT);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            run("virtual threads + bulkhead", executor, bulkhead);
+        }
+    }
+
+    private void run(String name, ExecutorService executor, DataSource dataSource) throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        burst(executor, jdbcTemplate, new long[WARM_UP_REQUESTS]);
+
+        long[] latencies = new long[REQUESTS];
+        long start = System.nanoTime();
+        burst(executor, jdbcTemplate, latencies);
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        Arrays.sort(latencies);
+        long p99Millis = TimeUnit.NANOSECONDS.toMillis(latencies[(int) Math.ceil(REQUESTS * 0.99) - 1]);
+        log.info(RESULT_LOG_INFO, name, REQUESTS, elapsedMillis, REQUESTS * 1000L / elapsedMillis, p99Millis);
+    }
+
+    private void burst(ExecutorService executor, JdbcTemplate jdbcTemplate, long[] latencies) throws Exception {
+        List<Future<?>> futures = new ArrayList<>(latencies.length);
+        for (int i = 0; i < latencies.length; i++) {
+            int request = i;
+            long submittedAt = System.nanoTime();
+            futures.add(executor.submit(() -> {
+                jdbcTemplate.execute(BLOCKING_QUERY);
+                latencies[request] = System.nanoTime() - submittedAt;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.orderservice.configuration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BulkheadDataSourceTest {
+
+    private static final int PERMITS = 2;
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofMillis(50);
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private BulkheadDataSource bulkheadDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(dataSource.getConnection()).thenReturn(connection);
+        bulkheadDataSource = new BulkheadDataSource(dataSource, PERMITS, ACQUIRE_TIMEOUT);
+    }
+
+    // a fresh thread each time, a pooled one could still count as holding the previous connection
+    private void takePermitOnAnotherThread() throws Exception {
+        CompletableFuture<Void> taken = new CompletableFuture<>();
+        Thread.ofPlatform().start(() -> {
+            try {
+                bulkheadDataSource.getConnection();
+                taken.complete(null);
+            } catch (SQLException e) {
+                taken.completeExceptionally(e);
+            }
+        });
+        taken.get();
+    }
+
+    @Test
+    void getConnection_whenAllPermitsTaken_shouldTimeOut() throws Exception {
+        takePermitOnAnotherThread();
+        takePermitOnAnotherThread();
+
+        assertThrows(SQLTransientConnectionException.class, () -> bulkheadDataSource.getConnection());
+        verify(dataSource, times(PERMITS)).getConnection();
+    }
+
+    @Test
+    void getConnection_nestedOnTheSameThread_shouldNotWaitForAPermit() throws Exception {
+        takePermitOnAnotherThread();
+        Connection outer = bulkheadDataSource.getConnection();
+
+        Connection nested = bulkheadDataSource.getConnection();
+        nested.close();
+
+        assertEquals(0, bulkheadDataSource.availablePermits());
+        outer.close();
+        assertEquals(1, bulkheadDataSource.availablePermits());
+    }
+
+    @Test
+    void close_shouldReleasePermitOnlyOnce() throws SQLException {
+        Connection first = bulkheadDataSource.getConnection();
+
+        first.close();
+        first.close();
+
+        assertEquals(PERMITS, bulkheadDataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_whenPoolFails_shouldReleasePermit() throws SQLException {
+        when(dataSource.getConnection()).thenThrow(new SQLException());
+
+        assertThrows(SQLException.class, () -> bulkheadDataSource.getConnection());
+        assertEquals(PERMITS, bulkheadDataSource.availablePermits());
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.orderservice.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseConfigurationTest {
+
+    private static final String URL = "spring.datasource.url=jdbc:postgresql://localhost:5432/orderdb";
+    private static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size=42";
+    private static final String CONNECTION_TIMEOUT = "spring.datasource.hikari.connection-timeout=1500";
+    private static final String PREPARE_THRESHOLD = "spring.datasource.hikari.data-source-properties.prepareThreshold=3";
+    private static final String VIRTUAL_THREADS = "spring.threads.virtual.enabled=true";
+    private static final String BULKHEAD_PERMITS = "orderservice.datasource.bulkhead.permits=100";
+
+    // SpringApplication registers the Boot conversion service, which binds durations such as "30s"
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                                               .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(DataSourcePropertiesConfiguration.class, DatabaseConfiguration.class)
+            .withPropertyValues(URL);
+
+    @Test
+    void dataSource_withoutPoolProperties_shouldUseDefaults() {
+        contextRunner.run(context -> {
+            HikariDataSource dataSource = context.getBean(HikariDataSource.class);
+
+            assertEquals(DatabaseConfiguration.defaultPoolSize(), dataSource.getMaximumPoolSize());
+            assertEquals(DatabaseConfiguration.defaultPoolSize(), dataSource.getMinimumIdle());
+            assertEquals(DatabaseConfiguration.CONNECTION_TIMEOUT_MILLIS, dataSource.getConnectionTimeout());
+            assertEquals(DatabaseConfiguration.POOL_NAME, dataSource.getPoolName());
+            assertNull(dataSource.getConnectionTestQuery());
+        });
+    }
+
+    @Test
+    void dataSource_withPoolProperties_shouldOverrideDefaults() {
+        contextRunner.withPropertyValues(MAXIMUM_POOL_SIZE, CONNECTION_TIMEOUT, PREPARE_THRESHOLD).run(context -> {
+            HikariDataSource dataSource = context.getBean(HikariDataSource.class);
+
+            assertEquals(42, dataSource.getMaximumPoolSize());
+            assertEquals(1500, dataSource.getConnectionTimeout());
+            assertEquals("3", dataSource.getDataSourceProperties().getProperty("prepareThreshold"));
+        });
+    }
+
+    @Test
+    void dataSource_onPlatformThreads_shouldNotAddBulkhead() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("bulkheadDataSource"));
+            assertInstanceOf(HikariDataSource.class, context.getBean(DataSource.class));
+        });
+    }
+
+    @Test
+    void dataSource_onVirtualThreads_shouldPutBulkheadInFrontOfTheUntouchedPool() {
+        contextRunner.withPropertyValues(VIRTUAL_THREADS, MAXIMUM_POOL_SIZE, BULKHEAD_PERMITS).run(context -> {
+            BulkheadDataSource primary = assertInstanceOf(BulkheadDataSource.class, context.getBean(DataSource.class));
+            HikariDataSource pool = context.getBean(HikariDataSource.class);
+
+            assertSame(pool, primary.getTargetDataSource());
+            assertEquals(42, primary.availablePermits());
+        });
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class DataSourcePropertiesConfiguration {
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.orderservice.configuration;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.orderservice.configuration.PayloadLogSampler.PAYLOAD;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PayloadLogSamplerTest {
+
+    private static final int EVERY = 10;
+    private static final String FORMAT = "payload: {}";
+
+    private Logger logger;
+    private PayloadLogSampler sampler;
+
+    @BeforeEach
+    void setUp() {
+        logger = new LoggerContext().getLogger(PayloadLogSamplerTest.class);
+        logger.setLevel(Level.DEBUG);
+        sampler = new PayloadLogSampler();
+        sampler.setEvery(EVERY);
+    }
+
+    @Test
+    void decide_withPayloadMarker_shouldLetOneInEveryThrough() {
+        int passed = 0;
+        for (int i = 0; i < EVERY * 3; i++) {
+            if (sampler.decide(PAYLOAD, logger, Level.DEBUG, FORMAT, null, null) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        assertEquals(3, passed);
+    }
+
+    @Test
+    void decide_withoutPayloadMarker_shouldNotSample() {
+        for (int i = 0; i < EVERY; i++) {
+            assertEquals(FilterReply.NEUTRAL, sampler.decide(null, logger, Level.INFO, FORMAT, null, null));
+        }
+    }
+
+    @Test
+    void decide_belowLoggerLevel_shouldLeaveItToTheLevelCheck() {
+        logger.setLevel(Level.INFO);
+
+        for (int i = 0; i < EVERY; i++) {
+            assertEquals(FilterReply.NEUTRAL, sampler.decide(PAYLOAD, logger, Level.DEBUG, FORMAT, null, null));
+        }
+    }
+
+}
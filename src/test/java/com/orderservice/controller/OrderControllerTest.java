@@ -5,26 +5,50 @@ import com.orderservice.dto.*;
 import com.orderservice.entity.Order;
 import com.orderservice.entity.Partner;
 import com.orderservice.exception.GlobalExceptionHandler;
+import com.orderservice.exception.IdempotencyKeyReuseException;
+import com.orderservice.exception.InvalidCursorException;
+import com.orderservice.exception.InvalidStatusTransitionException;
 import com.orderservice.exception.OrderNotFoundException;
+import com.orderservice.service.OrderBatchService;
+import com.orderservice.service.OrderExportService;
+import com.orderservice.service.OrderIdempotencyService;
+import com.orderservice.service.OrderResponseCache;
 import com.orderservice.service.OrderService;
+import com.orderservice.service.OrderStatusBatchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import static com.orderservice.configuration.CacheConfiguration.ORDERS_CACHE;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -50,6 +74,16 @@ public class OrderControllerTest {
     private static final Partner PARTNER = new Partner(PARTNER_ID, PARTNER_A_NAME, CREDIT_LIMIT_INITIAL, CREATED_AT,
                                                        UPDATED_AT);
     private static final String ORDER_NOT_FOUND = "Order not found!";
+    private static final String INVALID_STATUS_TRANSITION = "Order status cannot change from CANCELADO to CANCELADO!";
+    private static final String INVALID_CURSOR = "Invalid cursor!";
+    private static final String IDEMPOTENCY_KEY_REUSED = "Idempotency-Key was already used with a different request!";
+    private static final String NEXT_CURSOR = "next-cursor";
+    private static final int PAGE_SIZE = 50;
+    private static final String GZIP = "gzip";
+    private static final String IDEMPOTENCY_KEY = "retry-1";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String EXPORT_CONTENT = "cursor,order_id\n";
 
     @Autowired
     private MockMvc mockMvc;
@@ -57,16 +91,38 @@ public class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderBatchService orderBatchService;
+
+    @MockBean
+    private OrderStatusBatchService orderStatusBatchService;
+
+    @MockBean
+    private OrderExportService orderExportService;
+
+    @MockBean
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @MockBean
+    private OrderResponseCache orderResponseCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
         orderService = Mockito.mock(OrderService.class);
-        objectMapper = new ObjectMapper();
+        orderBatchService = Mockito.mock(OrderBatchService.class);
+        orderStatusBatchService = Mockito.mock(OrderStatusBatchService.class);
+        orderExportService = Mockito.mock(OrderExportService.class);
+        orderIdempotencyService = Mockito.mock(OrderIdempotencyService.class);
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        orderResponseCache = new OrderResponseCache(orderService, objectMapper, new CaffeineCacheManager(ORDERS_CACHE));
 
         mockMvc = MockMvcBuilders
-                .standaloneSetup(new OrderController(orderService))
+                .standaloneSetup(new OrderController(orderService, orderBatchService, orderStatusBatchService,
+                                                     orderExportService,
+                                                     orderIdempotencyService, orderResponseCache, objectMapper))
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
     }
@@ -110,6 +166,70 @@ public class OrderControllerTest {
                .andExpect(status().isCreated());
     }
 
+    @Test
+    void orderCreate_withReplayedIdempotencyKey_shouldReturnFirstOrder() throws Exception {
+        when(orderIdempotencyService.createOrder(eq(IDEMPOTENCY_KEY), any(OrderRequestDTO.class)))
+                .thenReturn(new OrderIdempotencyService.Outcome(ORDER_ID, true));
+
+        mockMvc.perform(post("/api/orders")
+                                .header(IDEMPOTENCY_KEY_HEADER, IDEMPOTENCY_KEY)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(buildOrderRequestDTO())))
+               .andExpect(status().isCreated())
+               .andExpect(header().string(HttpHeaders.LOCATION, endsWith(ORDER_ID.toString())))
+               .andExpect(header().string(IDEMPOTENT_REPLAYED_HEADER, "true"));
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    void orderCreate_withIdempotencyKeyReusedForAnotherRequest_shouldReturnUnprocessableEntity() throws Exception {
+        when(orderIdempotencyService.createOrder(eq(IDEMPOTENCY_KEY), any(OrderRequestDTO.class)))
+                .thenThrow(new IdempotencyKeyReuseException(IDEMPOTENCY_KEY_REUSED));
+
+        mockMvc.perform(post("/api/orders")
+                                .header(IDEMPOTENCY_KEY_HEADER, IDEMPOTENCY_KEY)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(buildOrderRequestDTO())))
+               .andExpect(status().isUnprocessableEntity())
+               .andExpect(jsonPath("$.message").value(IDEMPOTENCY_KEY_REUSED));
+    }
+
+    @Test
+    void createBatch_shouldReturnPerOrderResults() throws Exception {
+        OrderBatchRequestDTO orderBatchRequestDTO = new OrderBatchRequestDTO(List.of(buildOrderRequestDTO()));
+        OrderBatchResponseDTO orderBatchResponseDTO = new OrderBatchResponseDTO(1, 0, List.of(
+                new OrderBatchResultDTO(0, ORDER_ID, OrderBatchResultDTO.Outcome.CREATED, null)));
+
+        when(orderBatchService.createOrders(anyList())).thenReturn(orderBatchResponseDTO);
+
+        mockMvc.perform(post("/api/orders/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(orderBatchRequestDTO)))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.created").value(1))
+               .andExpect(jsonPath("$.results[0].orderId").value(ORDER_ID.toString()))
+               .andExpect(jsonPath("$.results[0].outcome").value("CREATED"));
+    }
+
+    @Test
+    void statusUpdateBatch_shouldReturnPerOrderResults() throws Exception {
+        OrderStatusBatchRequestDTO orderStatusBatchRequestDTO = new OrderStatusBatchRequestDTO(List.of(ORDER_ID),
+                                                                                               Order.OrderStatus.ENVIADO);
+        OrderStatusBatchResponseDTO orderStatusBatchResponseDTO = new OrderStatusBatchResponseDTO(1, 0, List.of(
+                new OrderStatusBatchResultDTO(ORDER_ID, OrderStatusBatchResultDTO.Outcome.UPDATED, null)));
+
+        when(orderStatusBatchService.updateStatus(List.of(ORDER_ID), Order.OrderStatus.ENVIADO))
+                .thenReturn(orderStatusBatchResponseDTO);
+
+        mockMvc.perform(put("/api/orders/status")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(orderStatusBatchRequestDTO)))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.updated").value(1))
+               .andExpect(jsonPath("$.results[0].orderId").value(ORDER_ID.toString()))
+               .andExpect(jsonPath("$.results[0].outcome").value("UPDATED"));
+    }
+
     @Test
     void getById_shouldReturnOrder() throws Exception {
         OrderResponseDTO orderResponseDTO = buildOrderResponseDTO();
@@ -122,6 +242,24 @@ public class OrderControllerTest {
                 .andExpect(jsonPath("$.status").value(ORDER_STATUS_PENDENTE.toString()));
     }
 
+    @Test
+    void getById_withMatchingETag_shouldReturnNotModifiedFromCache() throws Exception {
+        when(orderService.getById(ORDER_ID)).thenReturn(buildOrderResponseDTO());
+
+        MvcResult first = mockMvc.perform(get("/api/orders/{id}", ORDER_ID))
+                                 .andExpect(status().isOk())
+                                 .andExpect(header().exists(HttpHeaders.ETAG))
+                                 .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/orders/{id}", ORDER_ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+               .andExpect(status().isNotModified())
+               .andExpect(header().string(HttpHeaders.ETAG, eTag))
+               .andExpect(content().string(""));
+
+        verify(orderService, times(1)).getById(ORDER_ID);
+    }
+
     @Test
     void getById_withInvalidId_shouldReturnException() throws Exception {
         UUID anotherId = UUID.randomUUID();
@@ -227,4 +365,186 @@ public class OrderControllerTest {
                .andExpect(jsonPath("$.message").value(ORDER_NOT_FOUND));
     }
 
-}
\ No newline at end of file
+    @Test
+    void cancelOrder_alreadyCanceled_shouldReturnConflict() throws Exception {
+        doThrow(new InvalidStatusTransitionException(INVALID_STATUS_TRANSITION)).when(orderService).orderCancel(ORDER_ID);
+
+        mockMvc.perform(put("/api/orders/{id}/cancel", ORDER_ID))
+               .andExpect(status().isConflict())
+               .andExpect(jsonPath("$.status").value(409))
+               .andExpect(jsonPath("$.message").value(INVALID_STATUS_TRANSITION));
+    }
+
+    @Test
+    void getPageByStatus_shouldReturnOrderPage() throws Exception {
+        OrderPageResponseDTO page = new OrderPageResponseDTO(List.of(buildOrderResponseDTO()), NEXT_CURSOR);
+
+        when(orderService.getPageByStatus(ORDER_STATUS_PENDENTE, null, PAGE_SIZE)).thenReturn(page);
+
+        mockMvc.perform(get("/api/orders/status/{status}/page", ORDER_STATUS_PENDENTE))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.content", hasSize(1)))
+               .andExpect(jsonPath("$.nextCursor").value(NEXT_CURSOR));
+    }
+
+    @Test
+    void getPageByPeriod_shouldReturnOrderPage() throws Exception {
+        OrderPageResponseDTO page = new OrderPageResponseDTO(List.of(buildOrderResponseDTO()), null);
+
+        when(orderService.getPageByPeriod(START_DATE, END_DATE, NEXT_CURSOR, PAGE_SIZE)).thenReturn(page);
+
+        mockMvc.perform(get("/api/orders/period/page")
+                                .param("start", START_DATE.toString())
+                                .param("end", END_DATE.toString())
+                                .param("cursor", NEXT_CURSOR))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.content", hasSize(1)));
+    }
+
+    @Test
+    void getPageByStatus_withInvalidCursor_shouldReturnBadRequest() throws Exception {
+        when(orderService.getPageByStatus(ORDER_STATUS_PENDENTE, NEXT_CURSOR, PAGE_SIZE))
+                .thenThrow(new InvalidCursorException(INVALID_CURSOR));
+
+        mockMvc.perform(get("/api/orders/status/{status}/page", ORDER_STATUS_PENDENTE)
+                                .param("cursor", NEXT_CURSOR))
+               .andExpect(status().isBadRequest())
+               .andExpect(jsonPath("$.message").value(INVALID_CURSOR));
+    }
+
+    @Test
+    void getStats_withPartner_shouldReturnPartnerStats() throws Exception {
+        OrderStatsResponseDTO stats = new OrderStatsResponseDTO(PARTNER_ID, 1, ORDER_TOTAL_AMOUNT, List.of(
+                new OrderStatusStatsDTO(ORDER_STATUS_PENDENTE, 1, ORDER_TOTAL_AMOUNT)));
+
+        when(orderService.getStats(PARTNER_ID)).thenReturn(stats);
+
+        mockMvc.perform(get("/api/orders/stats").param("partnerId", PARTNER_ID.toString()))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.orderCount").value(1))
+               .andExpect(jsonPath("$.statuses", hasSize(1)))
+               .andExpect(jsonPath("$.statuses[0].status").value(ORDER_STATUS_PENDENTE.toString()));
+    }
+
+    @Test
+    void streamByStatus_shouldWriteOneJsonLinePerOrder() throws Exception {
+        OrderResponseDTO orderResponseDTO = buildOrderResponseDTO();
+
+        doAnswer(invocation -> {
+            Consumer<OrderResponseDTO> consumer = invocation.getArgument(1);
+            consumer.accept(orderResponseDTO);
+            consumer.accept(orderResponseDTO);
+            return null;
+        }).when(orderService).streamByStatus(eq(ORDER_STATUS_PENDENTE), any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/orders/status/{status}/stream", ORDER_STATUS_PENDENTE))
+                                     .andExpect(request().asyncStarted())
+                                     .andReturn();
+
+        String line = objectMapper.writeValueAsString(orderResponseDTO);
+        mockMvc.perform(asyncDispatch(mvcResult))
+               .andExpect(status().isOk())
+               .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+               .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    void export_withGzip_shouldStreamCompressedCsvFromCursor() throws Exception {
+        OrderCursor after = new OrderCursor(CREATED_AT, ORDER_ID);
+
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(4);
+            out.write(EXPORT_CONTENT.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(orderExportService).export(eq(START_DATE), eq(END_DATE), eq(after), eq(OrderExportService.Format.CSV),
+                                           any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/orders/export")
+                                                      .param("start", START_DATE.toString())
+                                                      .param("end", END_DATE.toString())
+                                                      .param("format", OrderExportService.Format.CSV.name())
+                                                      .param("cursor", after.encode())
+                                                      .header(HttpHeaders.ACCEPT_ENCODING, GZIP))
+                                     .andExpect(request().asyncStarted())
+                                     .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                             .andExpect(status().isOk())
+                             .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, GZIP))
+                             .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(EXPORT_CONTENT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void export_withGzipRefused_shouldStreamPlainBody() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(4);
+            out.write(EXPORT_CONTENT.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(orderExportService).export(eq(START_DATE), eq(END_DATE), eq(null), eq(OrderExportService.Format.CSV),
+                                           any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/orders/export")
+                                                      .param("start", START_DATE.toString())
+                                                      .param("end", END_DATE.toString())
+                                                      .param("format", OrderExportService.Format.CSV.name())
+                                                      .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                                     .andExpect(request().asyncStarted())
+                                     .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+               .andExpect(status().isOk())
+               .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+               .andExpect(content().string(EXPORT_CONTENT));
+    }
+
+    @Test
+    void export_whenExportFails_shouldStillFinishTheGzipStream() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(4);
+            out.write(EXPORT_CONTENT.getBytes(StandardCharsets.UTF_8));
+            throw new UncheckedIOException(new IOException("client went away"));
+        }).when(orderExportService).export(eq(START_DATE), eq(END_DATE), eq(null), eq(OrderExportService.Format.CSV),
+                                           any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/orders/export")
+                                                      .param("start", START_DATE.toString())
+                                                      .param("end", END_DATE.toString())
+                                                      .param("format", OrderExportService.Format.CSV.name())
+                                                      .header(HttpHeaders.ACCEPT_ENCODING, GZIP))
+                                     .andExpect(request().asyncStarted())
+                                     .andReturn();
+        mvcResult.getAsyncResult();
+
+        byte[] body = mvcResult.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(EXPORT_CONTENT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourQualityValues() {
+        assertTrue(OrderController.acceptsGzip("gzip, deflate"));
+        assertTrue(OrderController.acceptsGzip("deflate;q=1, gzip;q=0.5"));
+        assertTrue(OrderController.acceptsGzip("*"));
+        assertFalse(OrderController.acceptsGzip("gzip;q=0"));
+        assertFalse(OrderController.acceptsGzip("identity, gzip; q=0.000"));
+        assertFalse(OrderController.acceptsGzip("*, gzip;q=0"));
+        assertFalse(OrderController.acceptsGzip("deflate"));
+        assertFalse(OrderController.acceptsGzip(null));
+    }
+
+    @Test
+    void export_withInvalidCursor_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/orders/export")
+                                .param("start", START_DATE.toString())
+                                .param("end", END_DATE.toString())
+                                .param("cursor", NEXT_CURSOR))
+               .andExpect(status().isBadRequest())
+               .andExpect(jsonPath("$.message").value(INVALID_CURSOR));
+    }
+
+}
@@ -1,10 +1,14 @@
 package com.orderservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.dto.OrderPageResponseDTO;
+import com.orderservice.dto.OrderResponseDTO;
 import com.orderservice.dto.PartnerRequestDTO;
 import com.orderservice.dto.PartnerResponseDTO;
+import com.orderservice.entity.Order;
 import com.orderservice.exception.GlobalExceptionHandler;
 import com.orderservice.exception.PartnerNotFoundException;
+import com.orderservice.service.OrderService;
 import com.orderservice.service.PartnerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,8 +21,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -33,6 +42,12 @@ public class PartnerControllerTest {
     private static final BigDecimal CREDIT_LIMIT_UPDATED = new BigDecimal("2000.00");
     private static final String PARTNER_UPDATE_NAME = "Partner Update";
     private static final String PARTNER_NOT_FOUND = "Partner not found!";
+    private static final UUID ORDER_ID = UUID.randomUUID();
+    private static final BigDecimal ORDER_TOTAL_AMOUNT = new BigDecimal("500.00");
+    private static final Order.OrderStatus ORDER_STATUS_APROVADO = Order.OrderStatus.APROVADO;
+    private static final LocalDateTime CREATED_AT = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
+    private static final String NEXT_CURSOR = "next-cursor";
+    private static final int PAGE_SIZE = 50;
 
     @Autowired
     private MockMvc mockMvc;
@@ -40,16 +55,20 @@ public class PartnerControllerTest {
     @MockBean
     private PartnerService partnerService;
 
+    @MockBean
+    private OrderService orderService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
         partnerService = Mockito.mock(PartnerService.class);
+        orderService = Mockito.mock(OrderService.class);
         objectMapper = new ObjectMapper();
 
         mockMvc = MockMvcBuilders
-                .standaloneSetup(new PartnerController(partnerService))
+                .standaloneSetup(new PartnerController(partnerService, orderService))
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
     }
@@ -122,4 +141,29 @@ public class PartnerControllerTest {
                .andExpect(jsonPath("$.message").value(PARTNER_NOT_FOUND));
     }
 
-}
\ No newline at end of file
+    @Test
+    void getOrders_shouldReturnOrderHeadersPage() throws Exception {
+        OrderResponseDTO header = new OrderResponseDTO(ORDER_ID, PARTNER_ID, null, ORDER_TOTAL_AMOUNT,
+                                                       ORDER_STATUS_APROVADO, CREATED_AT, CREATED_AT);
+
+        when(orderService.getPageByPartner(PARTNER_ID, ORDER_STATUS_APROVADO, null, PAGE_SIZE, false))
+                .thenReturn(new OrderPageResponseDTO(List.of(header), NEXT_CURSOR));
+
+        mockMvc.perform(get("/api/partners/{id}/orders", PARTNER_ID).param("status", ORDER_STATUS_APROVADO.name()))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.content", hasSize(1)))
+               .andExpect(jsonPath("$.content[0].id").value(ORDER_ID.toString()))
+               .andExpect(jsonPath("$.nextCursor").value(NEXT_CURSOR));
+    }
+
+    @Test
+    void getOrders_withInvalidPartner_shouldReturnNotFound() throws Exception {
+        when(orderService.getPageByPartner(PARTNER_ID, null, null, PAGE_SIZE, true))
+                .thenThrow(new PartnerNotFoundException(PARTNER_NOT_FOUND));
+
+        mockMvc.perform(get("/api/partners/{id}/orders", PARTNER_ID).param("includeItems", "true"))
+               .andExpect(status().isNotFound())
+               .andExpect(jsonPath("$.message").value(PARTNER_NOT_FOUND));
+    }
+
+}
@@ -1,20 +1,26 @@
 package com.orderservice.event;
 
+import com.orderservice.configuration.RabbitMQConfig;
 import com.orderservice.entity.Order;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mockito;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class EventServiceTest {
@@ -24,15 +30,51 @@ public class EventServiceTest {
     private static final BigDecimal TOTAL_AMOUNT = new BigDecimal("500.00");
     private static final com.orderservice.entity.Order.OrderStatus STATUS_PENDENTE = Order.OrderStatus.PENDENTE;
     private static final LocalDateTime CREATED_AT = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
+    private static final long FIRST_DELIVERY_TAG = 1L;
+    private static final long SECOND_DELIVERY_TAG = 2L;
+
+    @Mock
+    private OrderStatusEventProcessor processor;
+
+    @Mock
+    private Channel channel;
+
+    private final MessageConverter messageConverter = new RabbitMQConfig().messageConverter();
 
-    @InjectMocks
     private OrderStatusEventListener orderStatusEventListener;
 
-    @Test
-    void shouldLogEvent() {
+    @BeforeEach
+    void setUp() {
+        orderStatusEventListener = new OrderStatusEventListener(processor, messageConverter);
+    }
+
+    private Message buildMessage(long deliveryTag) {
         OrderStatusEvent orderStatusEvent = new OrderStatusEvent(ORDER_ID, PARTNER_ID, TOTAL_AMOUNT, STATUS_PENDENTE, CREATED_AT);
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return messageConverter.toMessage(orderStatusEvent, properties);
+    }
+
+    @Test
+    void shouldAckWholeBatchWithLastDeliveryTag() throws Exception {
+        List<Message> messages = List.of(buildMessage(FIRST_DELIVERY_TAG), buildMessage(SECOND_DELIVERY_TAG));
+        when(processor.process(any())).thenReturn(Set.of());
+
+        orderStatusEventListener.receiveEvents(messages, channel);
+
+        verify(channel, times(1)).basicAck(SECOND_DELIVERY_TAG, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void shouldRejectOnlyFailedEvents() throws Exception {
+        List<Message> messages = List.of(buildMessage(FIRST_DELIVERY_TAG), buildMessage(SECOND_DELIVERY_TAG));
+        when(processor.process(any())).thenReturn(Set.of(FIRST_DELIVERY_TAG));
+
+        orderStatusEventListener.receiveEvents(messages, channel);
 
-        assertDoesNotThrow(() -> orderStatusEventListener.receiveEvent(orderStatusEvent));
+        verify(channel, times(1)).basicNack(FIRST_DELIVERY_TAG, false, false);
+        verify(channel, times(1)).basicAck(SECOND_DELIVERY_TAG, false);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,142 @@
+package com.orderservice.event;
+
+import com.orderservice.configuration.RabbitMQConfig;
+import com.orderservice.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderStatusEventBinaryConverterTest {
+
+    private static final UUID ORDER_ID = UUID.randomUUID();
+    private static final UUID PARTNER_ID = UUID.randomUUID();
+    private static final BigDecimal TOTAL_AMOUNT = new BigDecimal("12345.67");
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, Month.JUNE, 18, 10, 30, 15, 123456789);
+    private static final OrderStatusEvent EVENT = new OrderStatusEvent(ORDER_ID, PARTNER_ID, TOTAL_AMOUNT,
+                                                                       Order.OrderStatus.APROVADO, UPDATED_AT);
+
+    private static final int MAX_UNSCALED_LENGTH = 127;
+
+    private final OrderStatusEventBinaryConverter converter = new OrderStatusEventBinaryConverter();
+
+    @Test
+    void toMessage_shouldRoundTripTheEvent() {
+        Message message = converter.toMessage(EVENT, new MessageProperties());
+
+        assertEquals(OrderStatusEventBinaryConverter.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertEquals(EVENT, converter.fromMessage(message));
+    }
+
+    @Test
+    void toMessage_shouldKeepNegativeAndLargeAmounts() {
+        for (BigDecimal amount : List.of(new BigDecimal("-0.01"), BigDecimal.ZERO,
+                                         new BigDecimal("98765432109876543210.1234"))) {
+            OrderStatusEvent event = new OrderStatusEvent(ORDER_ID, PARTNER_ID, amount, Order.OrderStatus.ENTREGUE,
+                                                          UPDATED_AT);
+
+            assertEquals(event, converter.fromMessage(converter.toMessage(event, new MessageProperties())));
+        }
+    }
+
+    // an unscaled value of 8 * length - 2 bits needs exactly length bytes with its sign bit
+    private static BigInteger unscaledOfLength(int length) {
+        return BigInteger.ONE.shiftLeft(8 * length - 2);
+    }
+
+    private OrderStatusEvent buildEvent(BigDecimal amount) {
+        return new OrderStatusEvent(ORDER_ID, PARTNER_ID, amount, Order.OrderStatus.ENTREGUE, UPDATED_AT);
+    }
+
+    @Test
+    void toMessage_shouldRoundTripAmountsAtTheLayoutLimits() {
+        for (BigDecimal amount : List.of(new BigDecimal(BigInteger.ONE, Byte.MAX_VALUE),
+                                         new BigDecimal(BigInteger.ONE, Byte.MIN_VALUE),
+                                         new BigDecimal(unscaledOfLength(MAX_UNSCALED_LENGTH), 2),
+                                         new BigDecimal(unscaledOfLength(MAX_UNSCALED_LENGTH).negate(), 2))) {
+            OrderStatusEvent event = buildEvent(amount);
+
+            assertEquals(event, converter.fromMessage(converter.toMessage(event, new MessageProperties())));
+        }
+    }
+
+    @Test
+    void toMessage_shouldRejectAmountsBeyondTheLayoutLimits() {
+        for (BigDecimal amount : List.of(new BigDecimal(BigInteger.ONE, Byte.MAX_VALUE + 1),
+                                         new BigDecimal(BigInteger.ONE, Byte.MIN_VALUE - 1),
+                                         new BigDecimal(unscaledOfLength(MAX_UNSCALED_LENGTH + 1), 2))) {
+            OrderStatusEvent event = buildEvent(amount);
+
+            assertThrows(MessageConversionException.class, () -> converter.toMessage(event, new MessageProperties()));
+        }
+    }
+
+    @Test
+    void toMessage_shouldRejectOtherPayloads() {
+        assertThrows(MessageConversionException.class, () -> converter.toMessage("event", new MessageProperties()));
+    }
+
+    @Test
+    void fromMessage_shouldRejectUnknownVersion() {
+        Message message = converter.toMessage(EVENT, new MessageProperties());
+        message.getBody()[0] = 2;
+
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(message));
+    }
+
+    @Test
+    void fromMessage_shouldRejectTruncatedPayload() {
+        Message message = converter.toMessage(EVENT, new MessageProperties());
+        Message truncated = new Message(Arrays.copyOf(message.getBody(), 20), message.getMessageProperties());
+
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(truncated));
+    }
+
+    @Test
+    void fromMessage_shouldRejectUnknownStatus() {
+        Message message = converter.toMessage(EVENT, new MessageProperties());
+        message.getBody()[33] = 42;
+
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(message));
+    }
+
+    @Test
+    void messageConverter_shouldDecodeJsonAndBinaryByContentType() {
+        MessageConverter messageConverter = new RabbitMQConfig().messageConverter();
+
+        Message json = messageConverter.toMessage(EVENT, new MessageProperties());
+        MessageProperties binaryProperties = new MessageProperties();
+        binaryProperties.setContentType(OrderStatusEventBinaryConverter.CONTENT_TYPE);
+        Message binary = messageConverter.toMessage(EVENT, binaryProperties);
+
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, json.getMessageProperties().getContentType());
+        assertTrue(binary.getBody().length < json.getBody().length);
+        assertEquals(EVENT, messageConverter.fromMessage(json));
+        assertEquals(EVENT, messageConverter.fromMessage(binary));
+    }
+
+    // The wire format carries the status ordinal, so reordering or removing a status breaks queued events
+    @Test
+    void orderStatus_shouldKeepItsWireOrder() {
+        assertArrayEquals(new Order.OrderStatus[]{
+                Order.OrderStatus.PENDENTE,
+                Order.OrderStatus.APROVADO,
+                Order.OrderStatus.EM_PROCESSAMENTO,
+                Order.OrderStatus.ENVIADO,
+                Order.OrderStatus.ENTREGUE,
+                Order.OrderStatus.CANCELADO
+        }, Order.OrderStatus.values());
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.orderservice.event;
+
+import com.orderservice.configuration.RabbitMQConfig;
+import com.orderservice.entity.Order;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OrderStatusEventListenerTest {
+
+    private static final long PACKED_DELIVERY_TAG = 1L;
+    private static final long SINGLE_DELIVERY_TAG = 2L;
+    private static final long UNDECODABLE_DELIVERY_TAG = 3L;
+    private static final BigDecimal TOTAL_AMOUNT = new BigDecimal("500.00");
+    private static final byte[] MALFORMED_BINARY = {1, 2, 3};
+    private static final byte[] MALFORMED_JSON = "{\"orderId\":".getBytes();
+
+    @Mock
+    private OrderStatusEventProcessor processor;
+
+    @Mock
+    private Channel channel;
+
+    private final MessageConverter messageConverter = new RabbitMQConfig().messageConverter();
+
+    private OrderStatusEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        listener = new OrderStatusEventListener(processor, messageConverter);
+    }
+
+    private Message buildMessage(long deliveryTag) {
+        OrderStatusEvent event = new OrderStatusEvent(UUID.randomUUID(), UUID.randomUUID(), TOTAL_AMOUNT,
+                                                      Order.OrderStatus.APROVADO, LocalDateTime.now());
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return messageConverter.toMessage(event, properties);
+    }
+
+    private Message buildRawMessage(long deliveryTag, byte[] body, String contentType) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        properties.setContentType(contentType);
+        return new Message(body, properties);
+    }
+
+    @Test
+    void receiveEvents_shouldAckUpToTheLastDelivery() throws IOException {
+        List<Message> messages = List.of(buildMessage(PACKED_DELIVERY_TAG),
+                                         buildMessage(PACKED_DELIVERY_TAG),
+                                         buildMessage(SINGLE_DELIVERY_TAG));
+        when(processor.process(any())).thenReturn(Set.of());
+
+        listener.receiveEvents(messages, channel);
+
+        verify(channel, times(1)).basicAck(SINGLE_DELIVERY_TAG, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void receiveEvents_withFailedPackedEvent_shouldSettleEachDeliveryOnce() throws IOException {
+        List<Message> messages = List.of(buildMessage(PACKED_DELIVERY_TAG),
+                                         buildMessage(PACKED_DELIVERY_TAG),
+                                         buildMessage(SINGLE_DELIVERY_TAG));
+        when(processor.process(any())).thenReturn(Set.of(PACKED_DELIVERY_TAG));
+
+        listener.receiveEvents(messages, channel);
+
+        verify(channel, times(1)).basicNack(PACKED_DELIVERY_TAG, false, false);
+        verify(channel, times(1)).basicAck(SINGLE_DELIVERY_TAG, false);
+        verify(channel, never()).basicAck(eq(PACKED_DELIVERY_TAG), anyBoolean());
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void receiveEvents_withUndecodableMessage_shouldRejectOnlyThatDelivery() throws IOException {
+        List<Message> messages = List.of(buildMessage(SINGLE_DELIVERY_TAG),
+                                         buildRawMessage(UNDECODABLE_DELIVERY_TAG, MALFORMED_BINARY,
+                                                         OrderStatusEventBinaryConverter.CONTENT_TYPE));
+        when(processor.process(any())).thenReturn(Set.of());
+
+        listener.receiveEvents(messages, channel);
+
+        ArgumentCaptor<List<org.springframework.messaging.Message<OrderStatusEvent>>> events =
+                ArgumentCaptor.forClass(List.class);
+        verify(processor, times(1)).process(events.capture());
+        assertEquals(1, events.getValue().size());
+        verify(channel, times(1)).basicAck(SINGLE_DELIVERY_TAG, false);
+        verify(channel, times(1)).basicNack(UNDECODABLE_DELIVERY_TAG, false, false);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void receiveEvents_withOnlyUndecodableMessages_shouldRejectThemWithoutProcessing() throws IOException {
+        List<Message> messages = List.of(buildRawMessage(UNDECODABLE_DELIVERY_TAG, MALFORMED_JSON,
+                                                         MessageProperties.CONTENT_TYPE_JSON));
+
+        listener.receiveEvents(messages, channel);
+
+        verifyNoInteractions(processor);
+        verify(channel, times(1)).basicNack(UNDECODABLE_DELIVERY_TAG, false, false);
+        verifyNoMoreInteractions(channel);
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.orderservice.event;
+
+import com.orderservice.entity.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderStatusEventProcessorTest {
+
+    private static final int WORKERS = 4;
+    private static final int ORDERS = 50;
+    private static final UUID PARTNER_ID = UUID.randomUUID();
+    private static final BigDecimal TOTAL_AMOUNT = new BigDecimal("500.00");
+    private static final String CONSUME_TIMER = "orderservice.events.consume";
+    private static final String LAG_TIMER = "orderservice.events.lag";
+    private static final List<Order.OrderStatus> STATUS_FLOW = List.of(Order.OrderStatus.PENDENTE,
+                                                                       Order.OrderStatus.APROVADO,
+                                                                       Order.OrderStatus.ENVIADO,
+                                                                       Order.OrderStatus.ENTREGUE);
+
+    private final Map<UUID, List<Order.OrderStatus>> handled = Collections.synchronizedMap(new HashMap<>());
+    private final Map<UUID, Set<String>> handlingThreads = Collections.synchronizedMap(new HashMap<>());
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UUID failingOrderId;
+
+    private OrderStatusEventProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new OrderStatusEventProcessor(WORKERS, false, RetryTemplate.builder().maxAttempts(2).noBackoff().build(),
+                                                  meterRegistry) {
+            @Override
+            protected void handle(OrderStatusEvent event) {
+                if (event.orderId().equals(failingOrderId)) {
+                    throw new IllegalStateException();
+                }
+                handled.computeIfAbsent(event.orderId(), id -> Collections.synchronizedList(new ArrayList<>()))
+                       .add(event.status());
+                handlingThreads.computeIfAbsent(event.orderId(), id -> Collections.synchronizedSet(new HashSet<>()))
+                               .add(Thread.currentThread().getName());
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+
+    private List<Message<OrderStatusEvent>> buildInterleavedBatch(List<UUID> orderIds) {
+        List<Message<OrderStatusEvent>> messages = new ArrayList<>();
+        long deliveryTag = 1;
+        for (Order.OrderStatus status : STATUS_FLOW) {
+            for (UUID orderId : orderIds) {
+                OrderStatusEvent event = new OrderStatusEvent(orderId, PARTNER_ID, TOTAL_AMOUNT, status, LocalDateTime.now());
+                messages.add(MessageBuilder.withPayload(event).setHeader(AmqpHeaders.DELIVERY_TAG, deliveryTag++).build());
+            }
+        }
+        return messages;
+    }
+
+    private List<UUID> buildOrderIds() {
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(UUID.randomUUID());
+        }
+        return orderIds;
+    }
+
+    @Test
+    void process_shouldKeepPerOrderOrderingOnASingleWorker() {
+        List<UUID> orderIds = buildOrderIds();
+
+        Set<Long> failed = processor.process(buildInterleavedBatch(orderIds));
+
+        assertTrue(failed.isEmpty());
+        for (UUID orderId : orderIds) {
+            assertEquals(STATUS_FLOW, handled.get(orderId));
+            assertEquals(1, handlingThreads.get(orderId).size());
+        }
+        assertEquals(ORDERS * STATUS_FLOW.size(), meterRegistry.timer(LAG_TIMER).count());
+    }
+
+    @Test
+    void process_shouldReturnDeliveryTagsOfFailedEvents() {
+        List<UUID> orderIds = buildOrderIds();
+        failingOrderId = orderIds.getFirst();
+        List<Message<OrderStatusEvent>> messages = buildInterleavedBatch(orderIds);
+
+        Set<Long> failed = processor.process(messages);
+
+        Set<Long> expected = new HashSet<>();
+        messages.stream()
+                .filter(message -> message.getPayload().orderId().equals(failingOrderId))
+                .forEach(message -> expected.add(OrderStatusEventProcessor.deliveryTag(message)));
+        assertEquals(expected, failed);
+        assertEquals(ORDERS - 1, handled.size());
+        assertEquals(STATUS_FLOW.size(), meterRegistry.timer(CONSUME_TIMER, "outcome", "failure").count());
+    }
+
+    @Test
+    void partitionOf_shouldBeStableAndInRange() {
+        UUID orderId = UUID.randomUUID();
+        int partition = OrderStatusEventProcessor.partitionOf(orderId, WORKERS);
+
+        assertEquals(partition, OrderStatusEventProcessor.partitionOf(orderId, WORKERS));
+        assertTrue(partition >= 0 && partition < WORKERS);
+        assertEquals(0, OrderStatusEventProcessor.partitionOf(orderId, 1));
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.orderservice.event;
+
+import com.orderservice.configuration.RabbitMQConfig;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.OutboxEvent;
+import com.orderservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.UUID;
+
+import static com.orderservice.configuration.RabbitMQConfig.ORDER_STATUS_BROADCAST_EXCHANGE;
+import static com.orderservice.configuration.RabbitMQConfig.ORDER_STATUS_ROUTING_KEY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OrderStatusEventPublisherTest {
+
+    private static final UUID ORDER_ID = UUID.randomUUID();
+    private static final UUID PARTNER_ID = UUID.randomUUID();
+    private static final BigDecimal TOTAL_AMOUNT = new BigDecimal("500.00");
+    private static final LocalDateTime UPDATED_AT = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private OrderStatusEventPublisher orderStatusEventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        orderStatusEventPublisher = new OrderStatusEventPublisher(outboxEventRepository,
+                                                                  new RabbitMQConfig().messageConverter());
+        ReflectionTestUtils.setField(orderStatusEventPublisher, "contentType", MessageProperties.CONTENT_TYPE_JSON);
+    }
+
+    @Test
+    void publishStatusChange_shouldWriteEventToOutbox() {
+        OrderStatusEvent event = new OrderStatusEvent(ORDER_ID, PARTNER_ID, TOTAL_AMOUNT, Order.OrderStatus.APROVADO,
+                                                      UPDATED_AT);
+
+        orderStatusEventPublisher.publishStatusChange(event);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(captor.capture());
+        OutboxEvent outboxEvent = captor.getValue();
+        assertEquals(ORDER_ID, outboxEvent.getAggregateId());
+        assertEquals(ORDER_STATUS_BROADCAST_EXCHANGE, outboxEvent.getExchange());
+        assertEquals(ORDER_STATUS_ROUTING_KEY, outboxEvent.getRoutingKey());
+        assertEquals(OrderStatusEvent.class.getName(), outboxEvent.getTypeId());
+        assertTrue(new String(outboxEvent.getPayload()).contains(ORDER_ID.toString()));
+    }
+
+    @Test
+    void publishStatusChange_shouldWriteBinaryEventWhenConfigured() {
+        ReflectionTestUtils.setField(orderStatusEventPublisher, "contentType",
+                                     OrderStatusEventBinaryConverter.CONTENT_TYPE);
+        OrderStatusEvent event = new OrderStatusEvent(ORDER_ID, PARTNER_ID, TOTAL_AMOUNT, Order.OrderStatus.APROVADO,
+                                                      UPDATED_AT);
+
+        orderStatusEventPublisher.publishStatusChange(event);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(captor.capture());
+        OutboxEvent outboxEvent = captor.getValue();
+        assertEquals(OrderStatusEventBinaryConverter.CONTENT_TYPE, outboxEvent.getContentType());
+        assertNull(outboxEvent.getTypeId());
+        Message message = new Message(outboxEvent.getPayload(), new MessageProperties());
+        assertEquals(event, new OrderStatusEventBinaryConverter().fromMessage(message));
+    }
+
+}
@@ -0,0 +1,217 @@
+package com.orderservice.event;
+
+import com.orderservice.entity.OutboxEvent;
+import com.orderservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.orderservice.configuration.RabbitMQConfig.ORDER_STATUS_QUEUE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OutboxRelayTest {
+
+    private static final long FIRST_EVENT_ID = 1L;
+    private static final long SECOND_EVENT_ID = 2L;
+    private static final long THIRD_EVENT_ID = 3L;
+    private static final UUID AGGREGATE_ID = UUID.randomUUID();
+    private static final String TYPE_ID = OrderStatusEvent.class.getName();
+    private static final String CONTENT_TYPE = "application/json";
+    private static final byte[] PAYLOAD = "{}".getBytes();
+    private static final String NACK_REASON = "queue full";
+    private static final String PUBLISHED_COUNTER = "orderservice.outbox.published";
+    private static final String UNCONFIRMED_COUNTER = "orderservice.outbox.unconfirmed";
+    private static final String MESSAGES_COUNTER = "orderservice.outbox.messages";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxEventRepository, rabbitTemplate, new TransactionTemplate(transactionManager),
+                                      meterRegistry);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 500);
+        ReflectionTestUtils.setField(outboxRelay, "confirmTimeout", 1000L);
+    }
+
+    private OutboxEvent buildOutboxEvent(long id) {
+        return buildOutboxEvent(id, UUID.randomUUID());
+    }
+
+    private OutboxEvent buildOutboxEvent(long id, UUID aggregateId) {
+        return OutboxEvent.builder()
+                          .id(id)
+                          .aggregateId(aggregateId)
+                          .exchange("")
+                          .routingKey(ORDER_STATUS_QUEUE)
+                          .typeId(TYPE_ID)
+                          .contentType(CONTENT_TYPE)
+                          .payload(PAYLOAD)
+                          .build();
+    }
+
+    private void confirmWith(boolean ack) {
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : NACK_REASON));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void relay_shouldSendAndMarkConfirmedEventsPublished() {
+        when(outboxEventRepository.lockPending(500)).thenReturn(List.of(buildOutboxEvent(FIRST_EVENT_ID),
+                                                                       buildOutboxEvent(SECOND_EVENT_ID)));
+        confirmWith(true);
+
+        outboxRelay.relay();
+
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(2)).send(eq(""), eq(ORDER_STATUS_QUEUE), message.capture(), any(CorrelationData.class));
+        assertEquals(String.valueOf(FIRST_EVENT_ID), message.getAllValues().get(0).getMessageProperties().getMessageId());
+        assertEquals(TYPE_ID, message.getAllValues().get(0).getMessageProperties()
+                                     .getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME));
+        verify(outboxEventRepository, times(1)).markPublished(eq(List.of(FIRST_EVENT_ID, SECOND_EVENT_ID)), any());
+        assertEquals(2, meterRegistry.counter(PUBLISHED_COUNTER).count());
+    }
+
+    @Test
+    void relay_withCoalesce_shouldSendOnlyTheLatestEventOfAnAggregate() {
+        ReflectionTestUtils.setField(outboxRelay, "coalesce", true);
+        when(outboxEventRepository.lockPending(500)).thenReturn(List.of(buildOutboxEvent(FIRST_EVENT_ID, AGGREGATE_ID),
+                                                                       buildOutboxEvent(SECOND_EVENT_ID),
+                                                                       buildOutboxEvent(THIRD_EVENT_ID, AGGREGATE_ID)));
+        confirmWith(true);
+
+        outboxRelay.relay();
+
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(2)).send(eq(""), eq(ORDER_STATUS_QUEUE), message.capture(), any(CorrelationData.class));
+        assertEquals(List.of(String.valueOf(SECOND_EVENT_ID), String.valueOf(THIRD_EVENT_ID)),
+                     message.getAllValues().stream().map(m -> m.getMessageProperties().getMessageId()).toList());
+        ArgumentCaptor<Collection<Long>> published = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxEventRepository, times(1)).markPublished(published.capture(), any());
+        assertEquals(Set.of(FIRST_EVENT_ID, SECOND_EVENT_ID, THIRD_EVENT_ID), Set.copyOf(published.getValue()));
+        assertEquals(3, meterRegistry.counter(PUBLISHED_COUNTER).count());
+        assertEquals(2, meterRegistry.counter(MESSAGES_COUNTER).count());
+    }
+
+    @Test
+    void relay_withPackSize_shouldPackEventsIntoOneMessage() {
+        ReflectionTestUtils.setField(outboxRelay, "packSize", 2);
+        when(outboxEventRepository.lockPending(500)).thenReturn(List.of(buildOutboxEvent(FIRST_EVENT_ID),
+                                                                       buildOutboxEvent(SECOND_EVENT_ID),
+                                                                       buildOutboxEvent(THIRD_EVENT_ID)));
+        confirmWith(true);
+
+        outboxRelay.relay();
+
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(2)).send(eq(""), eq(ORDER_STATUS_QUEUE), message.capture(), any(CorrelationData.class));
+        Message packed = message.getAllValues().get(0);
+        SimpleBatchingStrategy strategy = new SimpleBatchingStrategy(0, 0, 0L);
+        assertTrue(strategy.canDebatch(packed.getMessageProperties()));
+        List<Message> unpacked = new ArrayList<>();
+        strategy.deBatch(packed, unpacked::add);
+        assertEquals(2, unpacked.size());
+        unpacked.forEach(m -> {
+            assertArrayEquals(PAYLOAD, m.getBody());
+            assertEquals(CONTENT_TYPE, m.getMessageProperties().getContentType());
+        });
+        assertFalse(strategy.canDebatch(message.getAllValues().get(1).getMessageProperties()));
+        verify(outboxEventRepository, times(1))
+                .markPublished(eq(List.of(FIRST_EVENT_ID, SECOND_EVENT_ID, THIRD_EVENT_ID)), any());
+        assertEquals(2, meterRegistry.counter(MESSAGES_COUNTER).count());
+    }
+
+    @Test
+    void relay_withPackSize_shouldNotPackDifferentContentTypes() {
+        ReflectionTestUtils.setField(outboxRelay, "packSize", 10);
+        OutboxEvent binary = buildOutboxEvent(SECOND_EVENT_ID);
+        binary.setContentType(OrderStatusEventBinaryConverter.CONTENT_TYPE);
+        binary.setTypeId(null);
+        when(outboxEventRepository.lockPending(500)).thenReturn(List.of(buildOutboxEvent(FIRST_EVENT_ID), binary));
+        confirmWith(true);
+
+        outboxRelay.relay();
+
+        verify(rabbitTemplate, times(2)).send(eq(""), eq(ORDER_STATUS_QUEUE), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void relay_whenAnOlderEventOfAnAggregateIsHeldElsewhere_shouldDeferTheAggregate() {
+        when(outboxEventRepository.lockPending(500)).thenReturn(List.of(buildOutboxEvent(FIRST_EVENT_ID),
+                                                                       buildOutboxEvent(SECOND_EVENT_ID, AGGREGATE_ID)));
+        when(outboxEventRepository.findAggregatesPendingElsewhere(anyCollection(), eq(SECOND_EVENT_ID),
+                                                                   eq(List.of(FIRST_EVENT_ID, SECOND_EVENT_ID))))
+                .thenReturn(List.of(AGGREGATE_ID));
+        confirmWith(true);
+
+        outboxRelay.relay();
+
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(1)).send(eq(""), eq(ORDER_STATUS_QUEUE), message.capture(), any(CorrelationData.class));
+        assertEquals(String.valueOf(FIRST_EVENT_ID), message.getValue().getMessageProperties().getMessageId());
+        verify(outboxEventRepository, times(1)).markPublished(eq(List.of(FIRST_EVENT_ID)), any());
+    }
+
+    @Test
+    void relay_withNack_shouldKeepEventPending() {
+        when(outboxEventRepository.lockPending(500)).thenReturn(List.of(buildOutboxEvent(FIRST_EVENT_ID)));
+        confirmWith(false);
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+        assertEquals(1, meterRegistry.counter(UNCONFIRMED_COUNTER).count());
+    }
+
+    @Test
+    void relay_withoutPendingEvents_shouldNotSend() {
+        when(outboxEventRepository.lockPending(500)).thenReturn(List.of());
+
+        outboxRelay.relay();
+
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void relay_whenBrokerUnavailable_shouldKeepEventsPending() {
+        when(outboxEventRepository.lockPending(500)).thenReturn(List.of(buildOutboxEvent(FIRST_EVENT_ID)));
+        doThrow(new AmqpConnectException(new ConnectException()))
+                .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        assertDoesNotThrow(() -> outboxRelay.relay());
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+
+}
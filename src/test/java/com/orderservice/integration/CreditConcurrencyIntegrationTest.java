@@ -0,0 +1,207 @@
+package com.orderservice.integration;
+
+import com.orderservice.dto.OrderStatusUpdateRequestDTO;
+import com.orderservice.entity.CreditMovement;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.Partner;
+import com.orderservice.event.OrderStatusEventPublisher;
+import com.orderservice.exception.InsufficientCreditException;
+import com.orderservice.repository.CreditMovementRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.PartnerCreditStripeRepository;
+import com.orderservice.repository.PartnerRepository;
+import com.orderservice.service.CreditLedgerService;
+import com.orderservice.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires thousands of parallel approvals against a single partner and checks that the credit never
+ * goes negative and that exactly as many approvals succeed as the credit allows, and that approvals
+ * for one partner do not wait on each other while its credit lasts.
+ */
+@Slf4j
+@Testcontainers
+@SpringBootTest
+public class CreditConcurrencyIntegrationTest {
+
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal ORDER_TOTAL_AMOUNT = new BigDecimal("1.00");
+    private static final int ORDER_COUNT = 2000;
+    private static final int THREADS = 32;
+    private static final int OTHER_APPROVALS = 16;
+    private static final String THROUGHPUT_LOG_INFO = "{} approvals ({} accepted) in {} ms -> {} approvals/sec";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @MockBean
+    private OrderStatusEventPublisher eventPublisher;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CreditLedgerService creditLedgerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private CreditMovementRepository creditMovementRepository;
+
+    @Autowired
+    private PartnerCreditStripeRepository partnerCreditStripeRepository;
+
+    private Partner partner;
+    private List<UUID> orderIds;
+
+    @BeforeEach
+    void setup() {
+        partner = partnerRepository.save(Partner.builder()
+                                                .name(PARTNER_A_NAME)
+                                                .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                .build());
+        List<Order> orders = new ArrayList<>(ORDER_COUNT);
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders.add(Order.builder()
+                            .partnerId(partner.getId())
+                            .status(Order.OrderStatus.PENDENTE)
+                            .totalAmount(ORDER_TOTAL_AMOUNT)
+                            .items(new ArrayList<>())
+                            .build());
+        }
+        orderIds = orderRepository.saveAll(orders).stream().map(Order::getId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        creditMovementRepository.deleteAll();
+        partnerCreditStripeRepository.deleteAll();
+        orderRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    @Test
+    void parallelApprovals_shouldNeverOverdraftPartnerCredit() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        OrderStatusUpdateRequestDTO approve = new OrderStatusUpdateRequestDTO(Order.OrderStatus.APROVADO);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(ORDER_COUNT);
+        for (UUID orderId : orderIds) {
+            futures.add(executor.submit(() -> {
+                try {
+                    orderService.updateStatus(orderId, approve);
+                    accepted.incrementAndGet();
+                } catch (InsufficientCreditException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        executor.shutdown();
+
+        log.info(THROUGHPUT_LOG_INFO, ORDER_COUNT, accepted.get(), elapsedMillis,
+                 ORDER_COUNT * 1000L / elapsedMillis);
+
+        int expectedAccepted = CREDIT_LIMIT_INITIAL.divide(ORDER_TOTAL_AMOUNT).intValue();
+        List<CreditMovement> movements = creditMovementRepository.findByPartnerId(partner.getId());
+
+        assertEquals(expectedAccepted, accepted.get());
+        assertEquals(ORDER_COUNT - expectedAccepted, rejected.get());
+        assertEquals(0, partnerRepository.findAvailableCreditById(partner.getId()).orElseThrow().signum());
+        assertEquals(expectedAccepted, movements.size());
+        assertEquals(expectedAccepted, orderService.getByStatus(Order.OrderStatus.APROVADO).size());
+    }
+
+    @Test
+    void approvalsOnOtherStripes_shouldNotWaitForAnUncommittedApproval() throws Exception {
+        // the first reserve finds no stripes yet and spreads the partner's credit over them
+        creditLedgerService.reserve(partner.getId(), orderIds.get(0), ORDER_TOTAL_AMOUNT);
+
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(OTHER_APPROVALS + 1);
+        Future<?> held = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            creditLedgerService.reserve(partner.getId(), orderIds.get(1), ORDER_TOTAL_AMOUNT);
+            reserved.countDown();
+            try {
+                commit.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(reserved.await(10, TimeUnit.SECONDS));
+
+        List<Future<?>> others = orderIds.subList(2, 2 + OTHER_APPROVALS).stream()
+                .<Future<?>>map(orderId -> executor.submit(
+                        () -> creditLedgerService.reserve(partner.getId(), orderId, ORDER_TOTAL_AMOUNT)))
+                .toList();
+
+        // with a single balance row every one of them would wait for the held approval to commit
+        await().atMost(Duration.ofSeconds(10)).until(() -> others.stream().anyMatch(Future::isDone));
+        assertFalse(held.isDone());
+
+        commit.countDown();
+        held.get();
+        for (Future<?> other : others) {
+            other.get();
+        }
+        executor.shutdown();
+
+        BigDecimal reservedAmount = ORDER_TOTAL_AMOUNT.multiply(BigDecimal.valueOf(OTHER_APPROVALS + 2));
+        assertEquals(0, CREDIT_LIMIT_INITIAL.subtract(reservedAmount).compareTo(
+                partnerRepository.findAvailableCreditById(partner.getId()).orElseThrow()));
+        assertEquals(OTHER_APPROVALS + 2, creditMovementRepository.findByPartnerId(partner.getId()).size());
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.orderservice.integration;
+
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.entity.Partner;
+import com.orderservice.repository.IdempotencyKeyRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.PartnerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.orderservice.configuration.CacheConfiguration.IDEMPOTENCY_KEYS_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "orderservice.outbox.relay.enabled=false")
+public class IdempotencyIntegrationTest {
+
+    private static final String ORDERS_PATH = "/api/orders";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final UUID PRODUCT_ID = UUID.randomUUID();
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("10.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE_OTHER = new BigDecimal("20.00");
+    private static final int CONCURRENT_RETRIES = 8;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Partner partner;
+
+    @BeforeEach
+    void setup() {
+        partner = partnerRepository.save(Partner.builder()
+                                                .name(PARTNER_A_NAME)
+                                                .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        idempotencyKeyRepository.deleteAll();
+        partnerRepository.deleteAll();
+        cacheManager.getCache(IDEMPOTENCY_KEYS_CACHE).clear();
+    }
+
+    private ResponseEntity<Void> create(String idempotencyKey) {
+        return create(idempotencyKey, ORDER_ITEM_UNIT_PRICE);
+    }
+
+    private ResponseEntity<Void> create(String idempotencyKey, BigDecimal unitPrice) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        OrderRequestDTO dto = new OrderRequestDTO(partner.getId(), List.of(
+                new OrderItemRequestDTO(PRODUCT_ID, 1, unitPrice)));
+        return restTemplate.postForEntity(ORDERS_PATH, new HttpEntity<>(dto, headers), Void.class);
+    }
+
+    @Test
+    void create_concurrentRetries_shouldCreateOneOrder() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        List<CompletableFuture<ResponseEntity<Void>>> retries = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_RETRIES)) {
+            for (int i = 0; i < CONCURRENT_RETRIES; i++) {
+                retries.add(CompletableFuture.supplyAsync(() -> create(idempotencyKey), executor));
+            }
+        }
+
+        Set<URI> locations = new HashSet<>();
+        for (CompletableFuture<ResponseEntity<Void>> retry : retries) {
+            ResponseEntity<Void> response = retry.get();
+            assertEquals(HttpStatus.CREATED, response.getStatusCode());
+            locations.add(response.getHeaders().getLocation());
+        }
+        assertEquals(1, locations.size());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void create_replayAfterCacheEviction_shouldAnswerFromStoredKey() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        ResponseEntity<Void> first = create(idempotencyKey);
+        cacheManager.getCache(IDEMPOTENCY_KEYS_CACHE).clear();
+
+        ResponseEntity<Void> replay = create(idempotencyKey);
+
+        assertEquals("false", first.getHeaders().getFirst(IDEMPOTENT_REPLAYED_HEADER));
+        assertEquals("true", replay.getHeaders().getFirst(IDEMPOTENT_REPLAYED_HEADER));
+        assertEquals(first.getHeaders().getLocation(), replay.getHeaders().getLocation());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void create_withKeyReusedForAnotherRequest_shouldAnswerUnprocessableEntity() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        create(idempotencyKey);
+        cacheManager.getCache(IDEMPOTENCY_KEYS_CACHE).clear();
+
+        ResponseEntity<Void> reuse = create(idempotencyKey, ORDER_ITEM_UNIT_PRICE_OTHER);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, reuse.getStatusCode());
+        assertEquals(1, orderRepository.count());
+    }
+
+}
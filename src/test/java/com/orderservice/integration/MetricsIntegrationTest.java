@@ -0,0 +1,74 @@
+package com.orderservice.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "orderservice.outbox.relay.enabled=false")
+public class MetricsIntegrationTest {
+
+    private static final String ORDERS_PATH = "/api/orders/";
+    private static final String PROMETHEUS_PATH = "/actuator/prometheus";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void prometheus_shouldExposeHotPathTimersWithHistograms() {
+        ResponseEntity<String> order = restTemplate.getForEntity(ORDERS_PATH + UUID.randomUUID(), String.class);
+        assertEquals(HttpStatus.NOT_FOUND, order.getStatusCode());
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity(PROMETHEUS_PATH, String.class);
+
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        assertThat(scrape.getBody())
+                .contains("orderservice_orders_seconds_bucket{")
+                .contains("method=\"getById\"")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("repository=\"OrderRepository\"")
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("hikaricp_connections_acquire_seconds_bucket{")
+                .contains("application=\"order-service\"");
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.orderservice.integration;
+
+import com.orderservice.dto.OrderCursor;
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderPageResponseDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.dto.OrderStatusUpdateRequestDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.Partner;
+import com.orderservice.exception.InvalidStatusTransitionException;
+import com.orderservice.repository.OrderArchiveRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OrderStatsDeltaRepository;
+import com.orderservice.repository.OrderStatsRepository;
+import com.orderservice.repository.PartnerRepository;
+import com.orderservice.service.OrderArchiveService;
+import com.orderservice.service.OrderExportService;
+import com.orderservice.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest(properties = {
+        "orderservice.outbox.relay.enabled=false",
+        "orderservice.archive.batch-size=2"
+})
+public class OrderArchiveIntegrationTest {
+
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("10.00");
+    private static final int ITEMS_PER_ORDER = 2;
+    private static final String ARCHIVED_ITEMS = "SELECT count(*) FROM tb_order_item_archive";
+    private static final String HOT_ITEMS = "SELECT count(*) FROM tb_order_item";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private OrderStatsRepository orderStatsRepository;
+
+    @Autowired
+    private OrderStatsDeltaRepository orderStatsDeltaRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Partner partner;
+
+    @BeforeEach
+    void setup() {
+        partner = partnerRepository.save(Partner.builder()
+                                                .name(PARTNER_A_NAME)
+                                                .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tb_order_item_archive");
+        jdbcTemplate.update("DELETE FROM tb_order_archive");
+        orderRepository.deleteAll();
+        orderStatsRepository.deleteAll();
+        orderStatsDeltaRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    private OrderResponseDTO createOrder() {
+        return orderService.createOrder(new OrderRequestDTO(partner.getId(), List.of(
+                new OrderItemRequestDTO(UUID.randomUUID(), 1, ORDER_ITEM_UNIT_PRICE),
+                new OrderItemRequestDTO(UUID.randomUUID(), 1, ORDER_ITEM_UNIT_PRICE))));
+    }
+
+    @Test
+    void archive_shouldMoveTerminalOrdersAndKeepThemReadable() {
+        OrderResponseDTO pending = createOrder();
+        OrderResponseDTO approved = createOrder();
+        orderService.updateStatus(approved.id(), new OrderStatusUpdateRequestDTO(Order.OrderStatus.APROVADO));
+        List<UUID> canceled = List.of(createOrder().id(), createOrder().id(), createOrder().id());
+        canceled.forEach(orderService::orderCancel);
+        long orderCount = orderService.getStats(partner.getId()).orderCount();
+
+        int archived = orderArchiveService.archive(LocalDateTime.now().plusMinutes(1));
+
+        assertEquals(canceled.size(), archived);
+        assertEquals(2, orderRepository.count());
+        assertEquals(canceled.size(), orderArchiveRepository.count());
+        assertEquals(2 * ITEMS_PER_ORDER, jdbcTemplate.queryForObject(HOT_ITEMS, Integer.class));
+        assertEquals(canceled.size() * ITEMS_PER_ORDER, jdbcTemplate.queryForObject(ARCHIVED_ITEMS, Integer.class));
+
+        OrderResponseDTO fromArchive = orderService.getById(canceled.get(0));
+        assertEquals(Order.OrderStatus.CANCELADO, fromArchive.status());
+        assertEquals(ITEMS_PER_ORDER, fromArchive.items().size());
+        assertEquals(pending.id(), orderService.getById(pending.id()).id());
+        assertThrows(InvalidStatusTransitionException.class, () -> orderService.orderCancel(canceled.get(1)));
+        assertEquals(orderCount, orderService.getStats(partner.getId()).orderCount());
+    }
+
+    private static List<UUID> ids(List<OrderResponseDTO> orders) {
+        return orders.stream().map(OrderResponseDTO::id).toList();
+    }
+
+    private long exportedLines(LocalDateTime start, LocalDateTime end, OrderCursor after) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.export(start, end, after, OrderExportService.Format.CSV, out);
+        // minus the CSV header
+        return out.toString(StandardCharsets.UTF_8).lines().count() - 1;
+    }
+
+    @Test
+    void listings_shouldIncludeArchivedOrders() {
+        OrderResponseDTO pending = createOrder();
+        UUID canceled = createOrder().id();
+        orderService.orderCancel(canceled);
+        UUID later = createOrder().id();
+        orderArchiveService.archive(LocalDateTime.now().plusMinutes(1));
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(1);
+        List<UUID> expected = List.of(pending.id(), canceled, later);
+
+        assertEquals(1, orderArchiveRepository.count());
+        assertEquals(expected, ids(orderService.getByPeriod(start, end)));
+        List<OrderResponseDTO> byStatus = orderService.getByStatus(Order.OrderStatus.CANCELADO);
+        assertEquals(List.of(canceled), ids(byStatus));
+        assertEquals(ITEMS_PER_ORDER, byStatus.get(0).items().size());
+
+        List<UUID> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderPageResponseDTO page = orderService.getPageByPeriod(start, end, cursor, 1);
+            paged.addAll(ids(page.content()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertEquals(expected, paged);
+
+        List<UUID> streamed = new ArrayList<>();
+        orderService.streamByPeriod(start, end, order -> streamed.add(order.id()));
+        assertEquals(expected, streamed);
+
+        assertEquals(expected, ids(orderService.getPageByPartner(partner.getId(), null, null, 10, false).content()));
+
+        assertEquals(expected.size() * ITEMS_PER_ORDER, exportedLines(start, end, null));
+        OrderCursor afterPending = new OrderCursor(orderService.getById(pending.id()).createdAt(), pending.id());
+        assertEquals(2 * ITEMS_PER_ORDER, exportedLines(start, end, afterPending));
+    }
+
+    @Test
+    void archive_shouldSkipOrdersYoungerThanTheAge() {
+        orderService.orderCancel(createOrder().id());
+
+        assertEquals(0, orderArchiveService.archive(LocalDateTime.now().minusDays(1)));
+        assertEquals(1, orderRepository.count());
+    }
+
+}
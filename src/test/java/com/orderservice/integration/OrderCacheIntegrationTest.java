@@ -0,0 +1,150 @@
+package com.orderservice.integration;
+
+import com.orderservice.OrderServiceApplication;
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.dto.OrderStatusUpdateRequestDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.Partner;
+import com.orderservice.repository.CreditMovementRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OutboxEventRepository;
+import com.orderservice.repository.PartnerCreditStripeRepository;
+import com.orderservice.repository.PartnerRepository;
+import com.orderservice.service.OrderResponseCache;
+import com.orderservice.service.OrderService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest(properties = "orderservice.outbox.relay.interval=50")
+public class OrderCacheIntegrationTest {
+
+    private static final UUID PRODUCT_ID = UUID.randomUUID();
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("500.00");
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    // a second instance of the service on the same database and broker
+    private static ConfigurableApplicationContext otherNode;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @BeforeAll
+    static void startOtherNode() {
+        otherNode = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .properties("server.port=0",
+                            "orderservice.outbox.relay.enabled=false",
+                            "spring.datasource.url=" + postgres.getJdbcUrl(),
+                            "spring.datasource.username=" + postgres.getUsername(),
+                            "spring.datasource.password=" + postgres.getPassword(),
+                            "spring.rabbitmq.host=" + rabbitMQ.getHost(),
+                            "spring.rabbitmq.port=" + rabbitMQ.getAmqpPort(),
+                            "spring.rabbitmq.username=guest",
+                            "spring.rabbitmq.password=guest")
+                .run();
+    }
+
+    @AfterAll
+    static void stopOtherNode() {
+        otherNode.close();
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private CreditMovementRepository creditMovementRepository;
+
+    @Autowired
+    private PartnerCreditStripeRepository partnerCreditStripeRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Partner partner;
+
+    @BeforeEach
+    void setup() {
+        partner = partnerRepository.save(Partner.builder()
+                                                .name(PARTNER_A_NAME)
+                                                .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        creditMovementRepository.deleteAll();
+        partnerCreditStripeRepository.deleteAll();
+        orderRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    private static String bodyOf(byte[] body) {
+        return new String(body);
+    }
+
+    @Test
+    void updateStatus_onOneNode_shouldEvictTheCachedOrderOnAnother() {
+        OrderResponseDTO order = orderService.createOrder(new OrderRequestDTO(partner.getId(), List.of(
+                new OrderItemRequestDTO(PRODUCT_ID, 1, ORDER_ITEM_UNIT_PRICE))));
+        OrderResponseCache otherNodeCache = otherNode.getBean(OrderResponseCache.class);
+        assertTrue(bodyOf(otherNodeCache.get(order.id()).body()).contains(Order.OrderStatus.PENDENTE.name()));
+
+        orderService.updateStatus(order.id(), new OrderStatusUpdateRequestDTO(Order.OrderStatus.APROVADO));
+
+        await().atMost(Duration.ofSeconds(10))
+               .until(() -> bodyOf(otherNodeCache.get(order.id()).body())
+                       .contains(Order.OrderStatus.APROVADO.name()));
+    }
+
+}
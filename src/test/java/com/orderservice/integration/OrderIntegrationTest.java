@@ -1,5 +1,6 @@
 package com.orderservice.integration;
 
+import com.orderservice.dto.OrderRowDTO;
 import com.orderservice.entity.Order;
 import com.orderservice.entity.OrderItem;
 import com.orderservice.entity.Partner;
@@ -165,32 +166,32 @@ public class OrderIntegrationTest {
 
     @Test
     void shouldGetOrderByStatus() {
-        List<Order> orderList = orderRepository.findByStatus(ORDER_STATUS_PENDENTE);
+        List<OrderRowDTO> orderRows = orderRepository.findRowsByStatus(ORDER_STATUS_PENDENTE);
 
-        assertFalse(orderList.isEmpty());
-        assertEquals(ORDER_STATUS_PENDENTE, orderList.get(0).getStatus());
+        assertFalse(orderRows.isEmpty());
+        assertEquals(ORDER_STATUS_PENDENTE, orderRows.get(0).status());
     }
 
     @Test
     void shouldReturnEmptyWhenOrderStatusInvalid() {
-        List<Order> orderList = orderRepository.findByStatus(ORDER_STATUS_ENVIADO);
+        List<OrderRowDTO> orderRows = orderRepository.findRowsByStatus(ORDER_STATUS_ENVIADO);
 
-        assertTrue(orderList.isEmpty());
+        assertTrue(orderRows.isEmpty());
     }
 
     @Test
     void shouldGetOrderByPeriod() {
-        List<Order> orderList = orderRepository.findByCreatedAtBetween(START_DATE, END_DATE);
+        List<OrderRowDTO> orderRows = orderRepository.findRowsByPeriod(START_DATE, END_DATE);
 
-        assertFalse(orderList.isEmpty());
-        assertTrue(orderList.stream().allMatch(o -> !o.getCreatedAt().isBefore(START_DATE) && !o.getCreatedAt().isAfter(END_DATE)));
+        assertFalse(orderRows.isEmpty());
+        assertTrue(orderRows.stream().allMatch(o -> !o.createdAt().isBefore(START_DATE) && !o.createdAt().isAfter(END_DATE)));
     }
 
     @Test
     void shouldReturnEmptyWhenOrderPeriodInvalid() {
-        List<Order> orderList = orderRepository.findByCreatedAtBetween(START_DATE.plusDays(10), END_DATE.plusDays(10));
+        List<OrderRowDTO> orderRows = orderRepository.findRowsByPeriod(START_DATE.plusDays(10), END_DATE.plusDays(10));
 
-        assertTrue(orderList.isEmpty());
+        assertTrue(orderRows.isEmpty());
     }
 
     @Test
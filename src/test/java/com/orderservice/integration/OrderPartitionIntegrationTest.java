@@ -0,0 +1,346 @@
+package com.orderservice.integration;
+
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.Partner;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OrderStatsDeltaRepository;
+import com.orderservice.repository.OrderStatsRepository;
+import com.orderservice.repository.PartnerRepository;
+import com.orderservice.service.OrderPartitionService;
+import com.orderservice.service.OrderService;
+import org.flywaydb.core.Flyway;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the partition maintenance and, through {@code EXPLAIN} on the SQL Hibernate actually generates,
+ * that period queries only scan the partitions of the period.
+ */
+@Testcontainers
+@SpringBootTest(properties = {
+        "orderservice.outbox.relay.enabled=false",
+        "orderservice.partition.months-ahead=6",
+        "orderservice.partition.retention-months=12",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.orderservice.integration.OrderPartitionIntegrationTest$CapturingStatementInspector"
+})
+public class OrderPartitionIntegrationTest {
+
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("10.00");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern SCANNED_PARTITION = Pattern.compile(" on (tb_order(?:_item)?_(?:p\\d{4}_\\d{2}|default))\\b");
+    private static final String PLAN = "EXPLAIN ";
+    private static final String EXECUTED_PLAN = "EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF) ";
+    private static final String SCAN = "Scan";
+    private static final String NEVER_EXECUTED = "(never executed)";
+    private static final String MIGRATION_SCHEMA = "partition_migration";
+    private static final String MIGRATION_LOCATION = "classpath:db/migration";
+    private static final String BEFORE_PARTITIONING = "7";
+    private static final String LATEST = "latest";
+    private static final String INSERT_LEGACY_PARTNER = "INSERT INTO partition_migration.tb_partner (id, name, " +
+                                                        "credit_limit, created_at, updated_at) " +
+                                                        "VALUES (?, ?, ?, now(), now())";
+    private static final String INSERT_LEGACY_ORDER = "INSERT INTO partition_migration.tb_order (id, partner_id, " +
+                                                      "total_amount, status, created_at, updated_at) " +
+                                                      "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LEGACY_ORDER_ITEM = "INSERT INTO partition_migration.tb_order_item (id, " +
+                                                           "order_id, product_id, quantity, unit_price) " +
+                                                           "VALUES (?, ?, ?, 1, ?)";
+    private static final String MIGRATED_ORDERS = "SELECT count(*) FROM partition_migration.tb_order o " +
+                                                  "JOIN partition_migration.tb_order_key k " +
+                                                  "ON k.id = o.id AND k.created_at = o.created_at";
+    private static final String MIGRATED_ITEMS = "SELECT count(*) FROM partition_migration.tb_order_item i " +
+                                                 "JOIN partition_migration.tb_order o " +
+                                                 "ON o.id = i.order_id AND o.created_at = i.order_created_at";
+    private static final String IS_PARTITIONED = "SELECT count(*) FROM pg_partitioned_table " +
+                                                 "WHERE partrelid = 'partition_migration.tb_order'::regclass";
+    private static final String LEFTOVER_TABLES = "SELECT count(*) FROM pg_tables WHERE schemaname = ? " +
+                                                  "AND tablename LIKE '%partitioned'";
+    private static final String DROP_MIGRATION_SCHEMA = "DROP SCHEMA IF EXISTS partition_migration CASCADE";
+    private static final String ORDER_KEY_COUNT = "SELECT count(*) FROM tb_order_key WHERE id = ?";
+    private static final String ATTACHED_PARTITIONS = "SELECT c.relname FROM pg_inherits i " +
+                                                      "JOIN pg_class c ON c.oid = i.inhrelid " +
+                                                      "WHERE i.inhparent = ?::regclass";
+    private static final String CREATE_PARTITIONS = "SELECT create_order_partitions(?, ?)";
+    private static final String INSERT_ORDER = "INSERT INTO tb_order (id, partner_id, total_amount, status, " +
+                                               "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_ITEM = "INSERT INTO tb_order_item (id, order_id, order_created_at, " +
+                                                    "product_id, quantity, unit_price, created_at, updated_at) " +
+                                                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_STATS = "INSERT INTO tb_order_stats (partner_id, status, order_count, " +
+                                                     "total_amount, updated_at) VALUES (?, ?, 1, ?, now())";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+    }
+
+    @Autowired
+    private OrderPartitionService orderPartitionService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatsRepository orderStatsRepository;
+
+    @Autowired
+    private OrderStatsDeltaRepository orderStatsDeltaRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    private Partner partner;
+
+    @BeforeEach
+    void setup() {
+        partner = partnerRepository.save(Partner.builder()
+                                                .name(PARTNER_A_NAME)
+                                                .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        orderStatsRepository.deleteAll();
+        orderStatsDeltaRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    private static String partition(String prefix, YearMonth month) {
+        return prefix + month.format(PARTITION_SUFFIX);
+    }
+
+    private List<String> attachedPartitions(String table) {
+        return jdbcTemplate.queryForList(ATTACHED_PARTITIONS, String.class, table);
+    }
+
+    private Set<String> scannedPartitions(Runnable query, Object... parameters) {
+        return scannedPartitions(PLAN, query, parameters);
+    }
+
+    // partitions picked from a looked up value are only pruned at execution time, so the plan is run
+    private Set<String> executedPartitions(Runnable query, Object... parameters) {
+        return scannedPartitions(EXECUTED_PLAN, query, parameters);
+    }
+
+    private Set<String> scannedPartitions(String explain, Runnable query, Object... parameters) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        query.run();
+        String sql = CapturingStatementInspector.STATEMENTS.get(CapturingStatementInspector.STATEMENTS.size() - 1);
+        Object[] arguments = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = parameters[i % parameters.length];
+        }
+
+        Set<String> scanned = new HashSet<>();
+        for (String line : jdbcTemplate.queryForList(explain + sql, String.class, arguments)) {
+            Matcher matcher = SCANNED_PARTITION.matcher(line);
+            while (matcher.find() && line.contains(SCAN) && !line.contains(NEVER_EXECUTED)) {
+                scanned.add(matcher.group(1));
+            }
+        }
+        return scanned;
+    }
+
+    @Test
+    void createPartitions_shouldCreateMonthsAhead() {
+        YearMonth last = YearMonth.now().plusMonths(6);
+
+        orderPartitionService.createPartitions();
+        assertEquals(0, orderPartitionService.createPartitions());
+
+        assertTrue(attachedPartitions("tb_order").contains(partition("tb_order_p", last)));
+        assertTrue(attachedPartitions("tb_order_item").contains(partition("tb_order_item_p", last)));
+    }
+
+    @Test
+    void periodQueries_shouldOnlyScanPartitionsOfThePeriod() {
+        orderPartitionService.createPartitions();
+        YearMonth month = YearMonth.now();
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.atEndOfMonth().atTime(23, 59, 59);
+
+        assertEquals(Set.of(partition("tb_order_p", month), partition("tb_order_item_p", month)),
+                     scannedPartitions(() -> orderRepository.findRowsByPeriod(start, end), start, end));
+    }
+
+    @Test
+    void detachPartitions_shouldDetachMonthsBeforeRetention() {
+        YearMonth expired = YearMonth.now().minusMonths(13);
+        LocalDateTime createdAt = expired.atDay(10).atStartOfDay();
+        jdbcTemplate.queryForObject(CREATE_PARTITIONS, Integer.class, expired.atDay(1), expired.atDay(1));
+
+        UUID expiredOrderId = UUID.randomUUID();
+        jdbcTemplate.update(INSERT_ORDER, expiredOrderId, partner.getId(), ORDER_ITEM_UNIT_PRICE,
+                            Order.OrderStatus.PENDENTE.name(), createdAt, createdAt);
+        jdbcTemplate.update(INSERT_ORDER_ITEM, UUID.randomUUID(), expiredOrderId, createdAt, UUID.randomUUID(), 1,
+                            ORDER_ITEM_UNIT_PRICE, createdAt, createdAt);
+        jdbcTemplate.update(INSERT_ORDER_STATS, partner.getId(), Order.OrderStatus.PENDENTE.name(), ORDER_ITEM_UNIT_PRICE);
+        OrderResponseDTO current = orderService.createOrder(new OrderRequestDTO(partner.getId(), List.of(
+                new OrderItemRequestDTO(UUID.randomUUID(), 1, ORDER_ITEM_UNIT_PRICE))));
+
+        List<String> detached = orderPartitionService.detachPartitions();
+
+        assertEquals(List.of(partition("tb_order_p", expired)), detached);
+        assertFalse(attachedPartitions("tb_order").contains(partition("tb_order_p", expired)));
+        assertFalse(attachedPartitions("tb_order_item").contains(partition("tb_order_item_p", expired)));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition("tb_order_item_p", expired),
+                                                    Integer.class));
+        assertTrue(orderRepository.findById(expiredOrderId).isEmpty());
+        assertEquals(current.id(), orderService.getById(current.id()).id());
+        assertEquals(1, orderService.getStats(partner.getId()).orderCount());
+        assertEquals(Collections.emptyList(), orderPartitionService.detachPartitions());
+    }
+
+
+    private UUID insertOrder(LocalDateTime createdAt) {
+        UUID orderId = UUID.randomUUID();
+        jdbcTemplate.update(INSERT_ORDER, orderId, partner.getId(), ORDER_ITEM_UNIT_PRICE,
+                            Order.OrderStatus.PENDENTE.name(), createdAt, createdAt);
+        jdbcTemplate.update(INSERT_ORDER_ITEM, UUID.randomUUID(), orderId, createdAt, UUID.randomUUID(), 1,
+                            ORDER_ITEM_UNIT_PRICE, createdAt, createdAt);
+        return orderId;
+    }
+
+    @Test
+    void idQueries_shouldOnlyScanThePartitionOfTheOrder() {
+        orderPartitionService.createPartitions();
+        YearMonth month = YearMonth.now();
+        YearMonth previous = month.minusMonths(1);
+        jdbcTemplate.queryForObject(CREATE_PARTITIONS, Integer.class, previous.atDay(1), previous.atDay(1));
+        UUID orderId = insertOrder(month.atDay(1).atStartOfDay());
+        UUID previousOrderId = insertOrder(previous.atDay(1).atStartOfDay());
+        Set<String> orderPartition = Set.of(partition("tb_order_p", month));
+
+        assertEquals(orderPartition, executedPartitions(() -> orderRepository.findHeaderById(orderId), orderId));
+        assertEquals(Set.of(partition("tb_order_p", month), partition("tb_order_item_p", month)),
+                     executedPartitions(() -> orderRepository.findRowsById(orderId), orderId));
+        assertEquals(orderPartition, executedPartitions(
+                () -> orderRepository.transition(orderId, Order.OrderStatus.PENDENTE, Order.OrderStatus.PENDENTE,
+                                                 LocalDateTime.now()),
+                Order.OrderStatus.PENDENTE.name(), LocalDateTime.now(), orderId, orderId,
+                Order.OrderStatus.PENDENTE.name()));
+        assertEquals(Set.of(partition("tb_order_p", month), partition("tb_order_p", previous)),
+                     executedPartitions(() -> orderRepository.lockHeadersByIdIn(List.of(orderId, previousOrderId)),
+                                        orderId, previousOrderId));
+    }
+
+    @Test
+    void orderKeys_shouldFollowInsertsAndDeletes() {
+        OrderResponseDTO order = orderService.createOrder(new OrderRequestDTO(partner.getId(), List.of(
+                new OrderItemRequestDTO(UUID.randomUUID(), 1, ORDER_ITEM_UNIT_PRICE))));
+
+        assertEquals(1, jdbcTemplate.queryForObject(ORDER_KEY_COUNT, Integer.class, order.id()));
+        orderRepository.deleteAll();
+        assertEquals(0, jdbcTemplate.queryForObject(ORDER_KEY_COUNT, Integer.class, order.id()));
+    }
+
+
+    private Flyway migrationFlyway(String target) {
+        return Flyway.configure()
+                     .configuration(flyway.getConfiguration())
+                     .schemas(MIGRATION_SCHEMA)
+                     .locations(MIGRATION_LOCATION)
+                     .target(target)
+                     .load();
+    }
+
+    @Test
+    void migration_shouldCopyExistingOrdersIntoPartitions() {
+        jdbcTemplate.execute(DROP_MIGRATION_SCHEMA);
+        try {
+            migrationFlyway(BEFORE_PARTITIONING).migrate();
+            UUID partnerId = UUID.randomUUID();
+            jdbcTemplate.update(INSERT_LEGACY_PARTNER, partnerId, PARTNER_A_NAME, CREDIT_LIMIT_INITIAL);
+            LocalDateTime lastYear = LocalDateTime.now().minusYears(1);
+            for (LocalDateTime createdAt : new LocalDateTime[]{lastYear, LocalDateTime.now(), null}) {
+                UUID orderId = UUID.randomUUID();
+                jdbcTemplate.update(INSERT_LEGACY_ORDER, orderId, partnerId, ORDER_ITEM_UNIT_PRICE,
+                                    Order.OrderStatus.PENDENTE.name(), createdAt, lastYear);
+                jdbcTemplate.update(INSERT_LEGACY_ORDER_ITEM, UUID.randomUUID(), orderId, UUID.randomUUID(),
+                                    ORDER_ITEM_UNIT_PRICE);
+            }
+
+            migrationFlyway(LATEST).migrate();
+
+            assertEquals(1, jdbcTemplate.queryForObject(IS_PARTITIONED, Integer.class));
+            assertEquals(3, jdbcTemplate.queryForObject(MIGRATED_ORDERS, Integer.class));
+            assertEquals(3, jdbcTemplate.queryForObject(MIGRATED_ITEMS, Integer.class));
+            assertEquals(0, jdbcTemplate.queryForObject(LEFTOVER_TABLES, Integer.class, MIGRATION_SCHEMA));
+        } finally {
+            jdbcTemplate.execute(DROP_MIGRATION_SCHEMA);
+        }
+    }
+
+}
@@ -0,0 +1,287 @@
+package com.orderservice.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.dto.OrderCursor;
+import com.orderservice.dto.OrderPageResponseDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.OrderItem;
+import com.orderservice.entity.Partner;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.PartnerRepository;
+import com.orderservice.service.OrderExportService;
+import com.orderservice.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "orderservice.outbox.relay.enabled=false"
+})
+public class OrderQueryIntegrationTest {
+
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("10.00");
+    private static final Order.OrderStatus ORDER_STATUS_PENDENTE = Order.OrderStatus.PENDENTE;
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final int SMALL_ORDER_COUNT = 5;
+    private static final int LARGE_ORDER_COUNT = 50;
+    private static final int PAGE_SIZE = 7;
+    private static final int RESUME_AFTER = 20;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Partner partner;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        partner = partnerRepository.save(Partner.builder()
+                                                .name(PARTNER_A_NAME)
+                                                .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    private void createOrders(int count) {
+        for (int i = 0; i < count; i++) {
+            Order order = Order.builder()
+                               .partnerId(partner.getId())
+                               .status(ORDER_STATUS_PENDENTE)
+                               .totalAmount(ORDER_ITEM_UNIT_PRICE.multiply(BigDecimal.valueOf(ITEMS_PER_ORDER)))
+                               .build();
+            List<OrderItem> items = new ArrayList<>();
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                items.add(OrderItem.builder()
+                                   .order(order)
+                                   .productId(UUID.randomUUID())
+                                   .quantity(1)
+                                   .unitPrice(ORDER_ITEM_UNIT_PRICE)
+                                   .build());
+            }
+            order.setItems(items);
+            orderRepository.save(order);
+        }
+    }
+
+    private List<String> export(OrderCursor after, OrderExportService.Format format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.export(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), after, format,
+                                  out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private long countStatements(Runnable query) {
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void getByStatus_shouldUseConstantStatementCount() {
+        createOrders(SMALL_ORDER_COUNT);
+        long smallCount = countStatements(() -> orderService.getByStatus(ORDER_STATUS_PENDENTE));
+
+        createOrders(LARGE_ORDER_COUNT);
+        long largeCount = countStatements(() -> orderService.getByStatus(ORDER_STATUS_PENDENTE));
+
+        assertEquals(smallCount, largeCount);
+        assertEquals(SMALL_ORDER_COUNT + LARGE_ORDER_COUNT, orderService.getByStatus(ORDER_STATUS_PENDENTE).size());
+    }
+
+    @Test
+    void getByPeriod_shouldUseConstantStatementCount() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(1);
+
+        createOrders(SMALL_ORDER_COUNT);
+        long smallCount = countStatements(() -> orderService.getByPeriod(start, end));
+
+        createOrders(LARGE_ORDER_COUNT);
+        long largeCount = countStatements(() -> orderService.getByPeriod(start, end));
+
+        assertEquals(smallCount, largeCount);
+    }
+
+    @Test
+    void getByStatus_shouldProjectWithoutHydratingEntities() {
+        createOrders(SMALL_ORDER_COUNT);
+
+        statistics.clear();
+        List<OrderResponseDTO> orders = orderService.getByStatus(ORDER_STATUS_PENDENTE);
+
+        assertEquals(SMALL_ORDER_COUNT, orders.size());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(0, statistics.getFlushCount());
+    }
+
+    @Test
+    void getByStatus_shouldReturnAllItemsWithoutDuplicatedOrders() {
+        createOrders(SMALL_ORDER_COUNT);
+
+        List<OrderResponseDTO> orders = orderService.getByStatus(ORDER_STATUS_PENDENTE);
+
+        assertEquals(SMALL_ORDER_COUNT, orders.size());
+        assertTrue(orders.stream().allMatch(o -> o.items().size() == ITEMS_PER_ORDER));
+    }
+
+    @Test
+    void getPageByStatus_shouldWalkAllOrdersOnceInKeysetOrder() {
+        createOrders(LARGE_ORDER_COUNT);
+
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            OrderPageResponseDTO page = orderService.getPageByStatus(ORDER_STATUS_PENDENTE, cursor, PAGE_SIZE);
+            assertTrue(page.content().size() <= PAGE_SIZE);
+            page.content().forEach(o -> assertTrue(seen.add(o.id())));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(LARGE_ORDER_COUNT, seen.size());
+    }
+
+    @Test
+    void getPageByPartner_withoutItems_shouldWalkAllOrdersWithoutLoadingItems() {
+        createOrders(LARGE_ORDER_COUNT);
+
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        statistics.clear();
+        do {
+            OrderPageResponseDTO page = orderService.getPageByPartner(partner.getId(), ORDER_STATUS_PENDENTE, cursor,
+                                                                      PAGE_SIZE, false);
+            assertTrue(page.content().size() <= PAGE_SIZE);
+            page.content().forEach(o -> {
+                assertNull(o.items());
+                assertTrue(seen.add(o.id()));
+            });
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(LARGE_ORDER_COUNT, seen.size());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void getPageByPartner_withItems_shouldReturnItems() {
+        createOrders(SMALL_ORDER_COUNT);
+
+        OrderPageResponseDTO page = orderService.getPageByPartner(partner.getId(), null, null, PAGE_SIZE, true);
+
+        assertEquals(SMALL_ORDER_COUNT, page.content().size());
+        assertTrue(page.content().stream().allMatch(o -> o.items().size() == ITEMS_PER_ORDER));
+    }
+
+    @Test
+    void exportNdjson_shouldResumeAfterLastSeenCursor() throws Exception {
+        createOrders(LARGE_ORDER_COUNT);
+
+        List<String> lines = export(null, OrderExportService.Format.NDJSON);
+        assertEquals(LARGE_ORDER_COUNT, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(ITEMS_PER_ORDER, first.get("items").size());
+
+        JsonNode lastSeen = objectMapper.readTree(lines.get(RESUME_AFTER - 1));
+        List<String> resumed = export(OrderCursor.decode(lastSeen.get("cursor").asText()),
+                                      OrderExportService.Format.NDJSON);
+
+        assertEquals(lines.subList(RESUME_AFTER, LARGE_ORDER_COUNT), resumed);
+    }
+
+    @Test
+    void exportCsv_shouldWriteOneLinePerItem() {
+        createOrders(SMALL_ORDER_COUNT);
+
+        List<String> lines = export(null, OrderExportService.Format.CSV);
+
+        assertEquals(1 + SMALL_ORDER_COUNT * ITEMS_PER_ORDER, lines.size());
+        assertTrue(lines.get(0).startsWith("cursor,order_id"));
+        assertEquals(partner.getId().toString(), lines.get(1).split(",")[2]);
+    }
+
+    @Test
+    void streamByPeriod_shouldEmitEveryOrderWithItems() {
+        createOrders(LARGE_ORDER_COUNT);
+
+        List<OrderResponseDTO> emitted = new ArrayList<>();
+        orderService.streamByPeriod(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), emitted::add);
+
+        assertEquals(LARGE_ORDER_COUNT, emitted.size());
+        assertTrue(emitted.stream().allMatch(o -> o.items().size() == ITEMS_PER_ORDER));
+    }
+
+}
\ No newline at end of file
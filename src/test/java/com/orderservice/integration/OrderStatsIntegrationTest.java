@@ -0,0 +1,186 @@
+package com.orderservice.integration;
+
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.dto.OrderStatsResponseDTO;
+import com.orderservice.dto.OrderStatusStatsDTO;
+import com.orderservice.dto.OrderStatusUpdateRequestDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.Partner;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OrderStatsDeltaRepository;
+import com.orderservice.repository.OrderStatsRepository;
+import com.orderservice.repository.PartnerRepository;
+import com.orderservice.service.OrderBatchService;
+import com.orderservice.service.OrderService;
+import com.orderservice.service.OrderStatsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest(properties = "orderservice.outbox.relay.enabled=false")
+public class OrderStatsIntegrationTest {
+
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final String PARTNER_B_NAME = "Partner B";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("100000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("10.00");
+    private static final int SINGLE_ORDER_COUNT = 6;
+    private static final int BATCH_ORDER_COUNT = 4;
+    private static final String ORDERS_BY_STATUS = "SELECT status, count(*) AS order_count, sum(total_amount) " +
+                                                   "AS total_amount FROM tb_order WHERE partner_id = ? " +
+                                                   "GROUP BY status ORDER BY status";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatsRepository orderStatsRepository;
+
+    @Autowired
+    private OrderStatsDeltaRepository orderStatsDeltaRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Partner partnerA;
+    private Partner partnerB;
+
+    @BeforeEach
+    void setup() {
+        partnerA = partnerRepository.save(Partner.builder().name(PARTNER_A_NAME).creditLimit(CREDIT_LIMIT_INITIAL).build());
+        partnerB = partnerRepository.save(Partner.builder().name(PARTNER_B_NAME).creditLimit(CREDIT_LIMIT_INITIAL).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        orderStatsRepository.deleteAll();
+        orderStatsDeltaRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    private OrderRequestDTO buildOrderRequestDTO(UUID partnerId, int quantity) {
+        return new OrderRequestDTO(partnerId, List.of(new OrderItemRequestDTO(UUID.randomUUID(), quantity,
+                                                                              ORDER_ITEM_UNIT_PRICE)));
+    }
+
+    private List<OrderStatusStatsDTO> ordersByStatus(UUID partnerId) {
+        return jdbcTemplate.query(ORDERS_BY_STATUS, (rs, row) -> new OrderStatusStatsDTO(
+                Order.OrderStatus.valueOf(rs.getString("status")), rs.getLong("order_count"),
+                rs.getBigDecimal("total_amount")), partnerId);
+    }
+
+    private void assertMatchesOrders(UUID partnerId) {
+        List<OrderStatusStatsDTO> expected = ordersByStatus(partnerId);
+        OrderStatsResponseDTO stats = orderService.getStats(partnerId);
+
+        assertEquals(expected.size(), stats.statuses().stream().filter(s -> s.orderCount() > 0).count());
+        for (OrderStatusStatsDTO status : expected) {
+            OrderStatusStatsDTO actual = stats.statuses().stream()
+                    .filter(s -> s.status() == status.status())
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(status.orderCount(), actual.orderCount());
+            assertEquals(0, status.totalAmount().compareTo(actual.totalAmount()));
+        }
+    }
+
+    @Test
+    void getStats_afterCreateApproveAndCancel_shouldMatchOrderTable() {
+        for (int i = 1; i <= SINGLE_ORDER_COUNT; i++) {
+            OrderResponseDTO order = orderService.createOrder(buildOrderRequestDTO(partnerA.getId(), i));
+            if (i % 2 == 0) {
+                orderService.updateStatus(order.id(), new OrderStatusUpdateRequestDTO(Order.OrderStatus.APROVADO));
+            }
+            if (i % 3 == 0) {
+                orderService.orderCancel(order.id());
+            }
+        }
+        orderBatchService.createOrders(List.of(
+                buildOrderRequestDTO(partnerA.getId(), 1),
+                buildOrderRequestDTO(partnerB.getId(), 2),
+                buildOrderRequestDTO(partnerB.getId(), 3),
+                buildOrderRequestDTO(partnerA.getId(), 4)
+        ));
+
+        assertMatchesOrders(partnerA.getId());
+        assertMatchesOrders(partnerB.getId());
+
+        OrderStatsResponseDTO global = orderService.getStats(null);
+        assertNull(global.partnerId());
+        assertEquals(SINGLE_ORDER_COUNT + BATCH_ORDER_COUNT, global.orderCount());
+        assertEquals(0, orderRepository.findAll().stream()
+                                       .map(Order::getTotalAmount)
+                                       .reduce(BigDecimal.ZERO, BigDecimal::add)
+                                       .compareTo(global.totalAmount()));
+    }
+
+    @Test
+    void getStats_afterRollUp_shouldFoldDeltasAndStillMatchOrderTable() {
+        for (int i = 1; i <= SINGLE_ORDER_COUNT; i++) {
+            OrderResponseDTO order = orderService.createOrder(buildOrderRequestDTO(partnerA.getId(), i));
+            if (i % 2 == 0) {
+                orderService.updateStatus(order.id(), new OrderStatusUpdateRequestDTO(Order.OrderStatus.APROVADO));
+            }
+        }
+
+        orderStatsService.rollUp();
+
+        assertEquals(0, orderStatsDeltaRepository.count());
+        assertFalse(orderStatsRepository.findByPartnerId(partnerA.getId()).isEmpty());
+        assertMatchesOrders(partnerA.getId());
+    }
+
+}
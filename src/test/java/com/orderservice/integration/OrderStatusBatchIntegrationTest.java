@@ -0,0 +1,180 @@
+package com.orderservice.integration;
+
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.OrderStatsResponseDTO;
+import com.orderservice.dto.OrderStatusBatchResponseDTO;
+import com.orderservice.dto.OrderStatusBatchResultDTO;
+import com.orderservice.dto.OrderStatusStatsDTO;
+import com.orderservice.entity.CreditMovement;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.Partner;
+import com.orderservice.repository.CreditMovementRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OrderStatsDeltaRepository;
+import com.orderservice.repository.OrderStatsRepository;
+import com.orderservice.repository.OutboxEventRepository;
+import com.orderservice.repository.PartnerCreditStripeRepository;
+import com.orderservice.repository.PartnerRepository;
+import com.orderservice.service.OrderService;
+import com.orderservice.service.OrderStatusBatchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest(properties = "orderservice.outbox.relay.enabled=false")
+public class OrderStatusBatchIntegrationTest {
+
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("400.00");
+    private static final String PARTNER_INSUFICIENT_CREDIT = "Partner does not have sufficient credit!";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @Autowired
+    private OrderStatusBatchService orderStatusBatchService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatsRepository orderStatsRepository;
+
+    @Autowired
+    private OrderStatsDeltaRepository orderStatsDeltaRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private CreditMovementRepository creditMovementRepository;
+
+    @Autowired
+    private PartnerCreditStripeRepository partnerCreditStripeRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Partner partner;
+
+    @BeforeEach
+    void setup() {
+        partner = partnerRepository.save(Partner.builder()
+                                                .name(PARTNER_A_NAME)
+                                                .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        creditMovementRepository.deleteAll();
+        partnerCreditStripeRepository.deleteAll();
+        orderRepository.deleteAll();
+        orderStatsRepository.deleteAll();
+        orderStatsDeltaRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    private List<UUID> createOrders(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(orderService.createOrder(new OrderRequestDTO(partner.getId(), List.of(
+                    new OrderItemRequestDTO(UUID.randomUUID(), 1, ORDER_ITEM_UNIT_PRICE)))).id());
+        }
+        return ids;
+    }
+
+    private long countOf(Order.OrderStatus status) {
+        OrderStatsResponseDTO stats = orderService.getStats(partner.getId());
+        return stats.statuses().stream()
+                    .filter(s -> s.status() == status)
+                    .mapToLong(OrderStatusStatsDTO::orderCount)
+                    .sum();
+    }
+
+    @Test
+    void updateStatus_shouldApproveWithinCreditAndCancelWithRelease() {
+        List<UUID> ids = createOrders(3);
+
+        OrderStatusBatchResponseDTO approved = orderStatusBatchService.updateStatus(ids, Order.OrderStatus.APROVADO);
+
+        assertEquals(2, approved.updated());
+        assertEquals(PARTNER_INSUFICIENT_CREDIT, approved.results().get(2).message());
+        assertEquals(new BigDecimal("200.00"), partnerRepository.findAvailableCreditById(partner.getId()).orElseThrow());
+        assertEquals(2, creditMovementRepository.findByPartnerId(partner.getId()).size());
+        assertEquals(2, countOf(Order.OrderStatus.APROVADO));
+        assertEquals(Order.OrderStatus.APROVADO, orderService.getById(ids.get(0)).status());
+        assertEquals(Order.OrderStatus.PENDENTE, orderService.getById(ids.get(2)).status());
+
+        OrderStatusBatchResponseDTO canceled = orderStatusBatchService.updateStatus(ids, Order.OrderStatus.CANCELADO);
+
+        assertEquals(3, canceled.updated());
+        assertEquals(CREDIT_LIMIT_INITIAL, partnerRepository.findAvailableCreditById(partner.getId()).orElseThrow());
+        assertEquals(2, creditMovementRepository.findByPartnerId(partner.getId()).stream()
+                                                .filter(m -> m.getType() == CreditMovement.MovementType.CREDIT)
+                                                .count());
+        assertEquals(3, countOf(Order.OrderStatus.CANCELADO));
+        assertEquals(0, countOf(Order.OrderStatus.APROVADO) + countOf(Order.OrderStatus.PENDENTE));
+        assertEquals(5, outboxEventRepository.count());
+
+        OrderStatusBatchResponseDTO again = orderStatusBatchService.updateStatus(ids, Order.OrderStatus.CANCELADO);
+
+        assertEquals(0, again.updated());
+        assertTrue(again.results().stream()
+                        .allMatch(result -> result.outcome() == OrderStatusBatchResultDTO.Outcome.REJECTED));
+        assertEquals(CREDIT_LIMIT_INITIAL, partnerRepository.findAvailableCreditById(partner.getId()).orElseThrow());
+    }
+
+    @Test
+    void updateStatus_shouldRejectUnknownOrders() {
+        List<UUID> ids = List.of(createOrders(1).get(0), UUID.randomUUID());
+
+        OrderStatusBatchResponseDTO response = orderStatusBatchService.updateStatus(ids, Order.OrderStatus.CANCELADO);
+
+        assertEquals(1, response.updated());
+        assertEquals(OrderStatusBatchResultDTO.Outcome.REJECTED, response.results().get(1).outcome());
+        assertEquals(CREDIT_LIMIT_INITIAL, partnerRepository.findAvailableCreditById(partner.getId()).orElseThrow());
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.orderservice.integration;
+
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.OrderStatsResponseDTO;
+import com.orderservice.dto.OrderStatusStatsDTO;
+import com.orderservice.dto.OrderStatusUpdateRequestDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.Partner;
+import com.orderservice.event.OrderStatusEventPublisher;
+import com.orderservice.exception.InvalidStatusTransitionException;
+import com.orderservice.repository.CreditMovementRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OrderStatsDeltaRepository;
+import com.orderservice.repository.OrderStatsRepository;
+import com.orderservice.repository.PartnerCreditStripeRepository;
+import com.orderservice.repository.PartnerRepository;
+import com.orderservice.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Races approvals against cancellations on the same order and checks that every order ends up
+ * canceled exactly once, with the partner credit and the status aggregates left consistent.
+ */
+@Testcontainers
+@SpringBootTest
+public class OrderStatusConcurrencyIntegrationTest {
+
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("10.00");
+    private static final int ORDER_COUNT = 20;
+    private static final int THREADS_PER_ORDER = 8;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @MockBean
+    private OrderStatusEventPublisher eventPublisher;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatsRepository orderStatsRepository;
+
+    @Autowired
+    private OrderStatsDeltaRepository orderStatsDeltaRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private CreditMovementRepository creditMovementRepository;
+
+    @Autowired
+    private PartnerCreditStripeRepository partnerCreditStripeRepository;
+
+    private Partner partner;
+
+    @BeforeEach
+    void setup() {
+        partner = partnerRepository.save(Partner.builder()
+                                                .name(PARTNER_A_NAME)
+                                                .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        creditMovementRepository.deleteAll();
+        partnerCreditStripeRepository.deleteAll();
+        orderRepository.deleteAll();
+        orderStatsRepository.deleteAll();
+        orderStatsDeltaRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    @Test
+    void parallelApproveAndCancel_shouldApplyEachTransitionOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_PER_ORDER);
+        OrderStatusUpdateRequestDTO approve = new OrderStatusUpdateRequestDTO(Order.OrderStatus.APROVADO);
+
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            UUID orderId = orderService.createOrder(new OrderRequestDTO(partner.getId(), List.of(
+                    new OrderItemRequestDTO(UUID.randomUUID(), 1, ORDER_ITEM_UNIT_PRICE)))).id();
+            AtomicInteger approved = new AtomicInteger();
+            AtomicInteger canceled = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+
+            List<Future<?>> futures = new ArrayList<>(THREADS_PER_ORDER);
+            for (int t = 0; t < THREADS_PER_ORDER; t++) {
+                boolean cancel = t % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        if (cancel) {
+                            orderService.orderCancel(orderId);
+                            canceled.incrementAndGet();
+                        } else {
+                            orderService.updateStatus(orderId, approve);
+                            approved.incrementAndGet();
+                        }
+                    } catch (InvalidStatusTransitionException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            assertEquals(1, canceled.get());
+            assertTrue(approved.get() <= 1);
+            assertEquals(THREADS_PER_ORDER - 1 - approved.get(), rejected.get());
+            assertEquals(Order.OrderStatus.CANCELADO, orderRepository.findById(orderId).orElseThrow().getStatus());
+        }
+        executor.shutdown();
+
+        assertEquals(0, CREDIT_LIMIT_INITIAL.compareTo(
+                partnerRepository.findAvailableCreditById(partner.getId()).orElseThrow()));
+
+        OrderStatsResponseDTO stats = orderService.getStats(partner.getId());
+        assertEquals(ORDER_COUNT, stats.orderCount());
+        for (OrderStatusStatsDTO status : stats.statuses()) {
+            long expected = status.status() == Order.OrderStatus.CANCELADO ? ORDER_COUNT : 0;
+            assertEquals(expected, status.orderCount());
+        }
+    }
+
+}
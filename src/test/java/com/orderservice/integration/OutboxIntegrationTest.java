@@ -0,0 +1,188 @@
+package com.orderservice.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.dto.OrderStatusUpdateRequestDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.OutboxEvent;
+import com.orderservice.entity.Partner;
+import com.orderservice.event.OrderStatusEvent;
+import com.orderservice.exception.InsufficientCreditException;
+import com.orderservice.repository.CreditMovementRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OutboxEventRepository;
+import com.orderservice.repository.PartnerCreditStripeRepository;
+import com.orderservice.repository.PartnerRepository;
+import com.orderservice.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest(properties = "orderservice.outbox.relay.interval=50")
+public class OutboxIntegrationTest {
+
+    private static final UUID PRODUCT_ID = UUID.randomUUID();
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal CREDIT_LIMIT_REDUCED = new BigDecimal("100.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("500.00");
+    private static final String NEXT_OUTBOX_ID = "SELECT nextval('seq_outbox_event')";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
+            .withDatabaseName("orderdb")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PartnerRepository partnerRepository;
+
+    @Autowired
+    private CreditMovementRepository creditMovementRepository;
+
+    @Autowired
+    private PartnerCreditStripeRepository partnerCreditStripeRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Partner partner;
+
+    @BeforeEach
+    void setup() {
+        partner = partnerRepository.save(Partner.builder()
+                                                .name(PARTNER_A_NAME)
+                                                .creditLimit(CREDIT_LIMIT_INITIAL)
+                                                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        creditMovementRepository.deleteAll();
+        partnerCreditStripeRepository.deleteAll();
+        orderRepository.deleteAll();
+        partnerRepository.deleteAll();
+    }
+
+    private OrderResponseDTO createOrder() {
+        return orderService.createOrder(new OrderRequestDTO(partner.getId(), List.of(
+                new OrderItemRequestDTO(PRODUCT_ID, 1, ORDER_ITEM_UNIT_PRICE))));
+    }
+
+    @Test
+    void updateStatus_shouldRelayEventAfterCommit() {
+        OrderResponseDTO order = createOrder();
+
+        orderService.updateStatus(order.id(), new OrderStatusUpdateRequestDTO(Order.OrderStatus.APROVADO));
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(1, events.size());
+        assertEquals(order.id(), events.get(0).getAggregateId());
+
+        await().atMost(Duration.ofSeconds(10))
+               .until(() -> outboxEventRepository.countByPublishedAtIsNull() == 0);
+        assertNotNull(outboxEventRepository.findAll().get(0).getPublishedAt());
+    }
+
+    @Test
+    void updateStatus_whenRolledBack_shouldNotWriteOutboxEvent() {
+        OrderResponseDTO order = createOrder();
+        partner.setCreditLimit(CREDIT_LIMIT_REDUCED);
+        partnerRepository.save(partner);
+
+        assertThrows(InsufficientCreditException.class,
+                     () -> orderService.updateStatus(order.id(), new OrderStatusUpdateRequestDTO(Order.OrderStatus.APROVADO)));
+
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(Order.OrderStatus.PENDENTE, orderRepository.findById(order.id()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateStatus_whenAnotherInstanceTakesAnIdInBetween_shouldNumberEventsInCommitOrder() {
+        OrderResponseDTO order = createOrder();
+        orderService.updateStatus(order.id(), new OrderStatusUpdateRequestDTO(Order.OrderStatus.APROVADO));
+        // another instance queues an event between the two transitions of the order
+        long otherInstanceId = jdbcTemplate.queryForObject(NEXT_OUTBOX_ID, Long.class);
+
+        orderService.updateStatus(order.id(), new OrderStatusUpdateRequestDTO(Order.OrderStatus.EM_PROCESSAMENTO));
+
+        List<Long> ids = outboxEventRepository.findAll().stream()
+                                              .filter(event -> event.getAggregateId().equals(order.id()))
+                                              .map(OutboxEvent::getId)
+                                              .sorted()
+                                              .toList();
+        assertEquals(2, ids.size());
+        assertTrue(ids.get(0) < otherInstanceId);
+        assertTrue(ids.get(1) > otherInstanceId);
+    }
+
+    // coalescing keeps the event with the highest id of an order, which has to be its latest status
+    @Test
+    void updateStatus_withIdsOfAnotherInstanceInterleaved_shouldGiveTheLatestStatusTheHighestId() throws IOException {
+        OrderResponseDTO order = createOrder();
+        for (Order.OrderStatus status : List.of(Order.OrderStatus.APROVADO, Order.OrderStatus.EM_PROCESSAMENTO,
+                                                Order.OrderStatus.CANCELADO)) {
+            jdbcTemplate.queryForObject(NEXT_OUTBOX_ID, Long.class);
+            orderService.updateStatus(order.id(), new OrderStatusUpdateRequestDTO(status));
+        }
+
+        OutboxEvent latest = outboxEventRepository.findAll().stream()
+                                                  .filter(event -> event.getAggregateId().equals(order.id()))
+                                                  .max(Comparator.comparing(OutboxEvent::getId))
+                                                  .orElseThrow();
+        assertEquals(Order.OrderStatus.CANCELADO,
+                     objectMapper.readValue(latest.getPayload(), OrderStatusEvent.class).status());
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.PartnerCreditDTO;
+import com.orderservice.entity.CreditMovement;
+import com.orderservice.entity.Partner;
+import com.orderservice.exception.InsufficientCreditException;
+import com.orderservice.exception.PartnerNotFoundException;
+import com.orderservice.repository.CreditMovementRepository;
+import com.orderservice.repository.PartnerCreditStripeRepository;
+import com.orderservice.repository.PartnerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.orderservice.configuration.CacheConfiguration.PARTNERS_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CreditLedgerServiceTest {
+
+    private static final UUID PARTNER_ID = UUID.randomUUID();
+    private static final UUID ORDER_ID = UUID.randomUUID();
+    private static final BigDecimal ORDER_TOTAL_AMOUNT = new BigDecimal("500.00");
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final String DEBIT = CreditMovement.MovementType.DEBIT.name();
+    private static final String CREDIT = CreditMovement.MovementType.CREDIT.name();
+    private static final int STRIPES = 8;
+    private static final int ORDER_STRIPE = Math.floorMod(ORDER_ID.hashCode(), STRIPES);
+
+    @Mock
+    private PartnerRepository partnerRepository;
+
+    @Mock
+    private PartnerCreditStripeRepository partnerCreditStripeRepository;
+
+    @Mock
+    private CreditMovementRepository creditMovementRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache partnersCache;
+
+    @InjectMocks
+    private CreditLedgerService creditLedgerService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(creditLedgerService, "stripes", STRIPES);
+        when(cacheManager.getCache(PARTNERS_CACHE)).thenReturn(partnersCache);
+    }
+
+    private void reserveAppends() {
+        when(creditMovementRepository.append(PARTNER_ID, ORDER_ID, DEBIT, ORDER_TOTAL_AMOUNT)).thenReturn(1);
+    }
+
+    private void stripeIsShort() {
+        when(partnerCreditStripeRepository.debit(PARTNER_ID, ORDER_STRIPE, ORDER_TOTAL_AMOUNT)).thenReturn(0);
+        when(partnerRepository.lockAllById(List.of(PARTNER_ID))).thenReturn(List.of(new Partner()));
+    }
+
+    @Test
+    void reserve_withSuficientCreditOnStripe_shouldNotLockPartner() {
+        reserveAppends();
+        when(partnerCreditStripeRepository.debit(PARTNER_ID, ORDER_STRIPE, ORDER_TOTAL_AMOUNT)).thenReturn(1);
+
+        assertDoesNotThrow(() -> creditLedgerService.reserve(PARTNER_ID, ORDER_ID, ORDER_TOTAL_AMOUNT));
+        verifyNoInteractions(partnerRepository);
+        verify(partnersCache, times(1)).evict(PARTNER_ID);
+    }
+
+    @Test
+    void reserve_withShortStripe_shouldTakeCreditFromPartnerAndSpreadTheRest() {
+        reserveAppends();
+        stripeIsShort();
+        when(partnerRepository.decreaseCreditLimit(eq(PARTNER_ID), eq(ORDER_TOTAL_AMOUNT), any())).thenReturn(1);
+
+        assertDoesNotThrow(() -> creditLedgerService.reserve(PARTNER_ID, ORDER_ID, ORDER_TOTAL_AMOUNT));
+
+        InOrder inOrder = inOrder(partnerRepository, partnerCreditStripeRepository);
+        inOrder.verify(partnerRepository).lockAllById(List.of(PARTNER_ID));
+        inOrder.verify(partnerCreditStripeRepository).gather(List.of(PARTNER_ID));
+        inOrder.verify(partnerRepository).decreaseCreditLimit(eq(PARTNER_ID), eq(ORDER_TOTAL_AMOUNT), any());
+        inOrder.verify(partnerCreditStripeRepository).spread(List.of(PARTNER_ID), STRIPES);
+        verify(partnersCache, times(1)).evict(PARTNER_ID);
+    }
+
+    @Test
+    void reserve_alreadyReserved_shouldNotDecreaseCreditLimitTwice() {
+        when(creditMovementRepository.append(PARTNER_ID, ORDER_ID, DEBIT, ORDER_TOTAL_AMOUNT)).thenReturn(0);
+
+        creditLedgerService.reserve(PARTNER_ID, ORDER_ID, ORDER_TOTAL_AMOUNT);
+
+        verifyNoInteractions(partnerRepository, partnerCreditStripeRepository);
+        verify(partnersCache, never()).evict(any());
+    }
+
+    @Test
+    void reserve_withInsuficientCredit_shouldThrowsException() {
+        reserveAppends();
+        stripeIsShort();
+        when(partnerRepository.decreaseCreditLimit(eq(PARTNER_ID), eq(ORDER_TOTAL_AMOUNT), any())).thenReturn(0);
+
+        assertThrows(InsufficientCreditException.class,
+                     () -> creditLedgerService.reserve(PARTNER_ID, ORDER_ID, ORDER_TOTAL_AMOUNT));
+        verify(partnerCreditStripeRepository, never()).spread(any(), anyInt());
+    }
+
+    @Test
+    void reserve_withInvalidPartner_shouldThrowsException() {
+        reserveAppends();
+        when(partnerCreditStripeRepository.debit(PARTNER_ID, ORDER_STRIPE, ORDER_TOTAL_AMOUNT)).thenReturn(0);
+        when(partnerRepository.lockAllById(List.of(PARTNER_ID))).thenReturn(List.of());
+
+        assertThrows(PartnerNotFoundException.class,
+                     () -> creditLedgerService.reserve(PARTNER_ID, ORDER_ID, ORDER_TOTAL_AMOUNT));
+        verify(partnerCreditStripeRepository, never()).gather(any());
+    }
+
+    @Test
+    void release_withReservation_shouldCreditOrderStripe() {
+        when(creditMovementRepository.existsByOrderIdAndType(ORDER_ID, CreditMovement.MovementType.DEBIT))
+                .thenReturn(true);
+        when(creditMovementRepository.append(PARTNER_ID, ORDER_ID, CREDIT, ORDER_TOTAL_AMOUNT)).thenReturn(1);
+
+        creditLedgerService.release(PARTNER_ID, ORDER_ID, ORDER_TOTAL_AMOUNT);
+
+        verify(partnerCreditStripeRepository, times(1)).credit(PARTNER_ID, ORDER_STRIPE, ORDER_TOTAL_AMOUNT);
+        verifyNoInteractions(partnerRepository);
+        verify(partnersCache, times(1)).evict(PARTNER_ID);
+    }
+
+    @Test
+    void release_withoutReservation_shouldNotIncreaseCreditLimit() {
+        when(creditMovementRepository.existsByOrderIdAndType(ORDER_ID, CreditMovement.MovementType.DEBIT))
+                .thenReturn(false);
+
+        creditLedgerService.release(PARTNER_ID, ORDER_ID, ORDER_TOTAL_AMOUNT);
+
+        verify(creditMovementRepository, never()).append(any(), any(), any(), any());
+        verifyNoInteractions(partnerCreditStripeRepository);
+    }
+
+    @Test
+    void lockCredit_shouldFoldStripesBeforeReadingCredit() {
+        Set<UUID> partnerIds = Set.of(PARTNER_ID);
+        when(partnerRepository.findAvailableCreditByIdIn(partnerIds))
+                .thenReturn(List.of(new PartnerCreditDTO(PARTNER_ID, CREDIT_LIMIT_INITIAL)));
+
+        Map<UUID, BigDecimal> credit = creditLedgerService.lockCredit(partnerIds);
+
+        assertEquals(Map.of(PARTNER_ID, CREDIT_LIMIT_INITIAL), credit);
+        InOrder inOrder = inOrder(partnerRepository, partnerCreditStripeRepository);
+        inOrder.verify(partnerRepository).lockAllById(partnerIds);
+        inOrder.verify(partnerCreditStripeRepository).gather(partnerIds);
+        inOrder.verify(partnerRepository).findAvailableCreditByIdIn(partnerIds);
+    }
+
+    @Test
+    void reserveAll_shouldSpreadWhatIsLeft() {
+        List<UUID> orderIds = List.of(ORDER_ID);
+        Set<UUID> partnerIds = Set.of(PARTNER_ID);
+
+        creditLedgerService.reserveAll(orderIds, partnerIds);
+
+        verify(creditMovementRepository, times(1)).reserveAll(orderIds);
+        verify(partnerCreditStripeRepository, times(1)).spread(partnerIds, STRIPES);
+        verify(partnersCache, times(1)).evict(PARTNER_ID);
+    }
+
+}
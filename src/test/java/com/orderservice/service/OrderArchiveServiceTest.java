@@ -0,0 +1,49 @@
+package com.orderservice.service;
+
+import com.orderservice.repository.OrderArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OrderArchiveServiceTest {
+
+    private static final LocalDateTime BEFORE = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
+    private static final int BATCH_SIZE = 100;
+
+    @Mock
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @InjectMocks
+    private OrderArchiveService orderArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(orderArchiveService, "batchSize", BATCH_SIZE);
+    }
+
+    @Test
+    void archive_shouldRunBatchesUntilOneIsNotFull() {
+        when(orderArchiveRepository.archive(BEFORE, BATCH_SIZE)).thenReturn(BATCH_SIZE, BATCH_SIZE, 42);
+
+        assertEquals(2 * BATCH_SIZE + 42, orderArchiveService.archive(BEFORE));
+        verify(orderArchiveRepository, times(3)).archive(BEFORE, BATCH_SIZE);
+    }
+
+    @Test
+    void archive_withNothingToArchive_shouldRunOneBatch() {
+        when(orderArchiveRepository.archive(BEFORE, BATCH_SIZE)).thenReturn(0);
+
+        assertEquals(0, orderArchiveService.archive(BEFORE));
+        verify(orderArchiveRepository, times(1)).archive(BEFORE, BATCH_SIZE);
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderBatchResponseDTO;
+import com.orderservice.dto.OrderBatchResultDTO;
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.PartnerCreditDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.PartnerRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OrderBatchServiceTest {
+
+    private static final UUID PARTNER_ID = UUID.randomUUID();
+    private static final UUID PRODUCT_ID = UUID.randomUUID();
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal ORDER_ITEM_UNIT_PRICE = new BigDecimal("400.00");
+    private static final String PARTNER_NOT_FOUND = "Partner not found!";
+    private static final String PARTNER_INSUFICIENT_CREDIT = "Partner does not have sufficient credit!";
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PartnerRepository partnerRepository;
+
+    @Mock
+    private OrderStatsService orderStatsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private OrderBatchService orderBatchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        orderBatchService = new OrderBatchService(orderRepository, partnerRepository, orderStatsService,
+                                                  new TransactionTemplate(transactionManager), entityManager);
+    }
+
+    private OrderRequestDTO buildOrderRequestDTO(UUID partnerId) {
+        return new OrderRequestDTO(partnerId, List.of(new OrderItemRequestDTO(PRODUCT_ID, 1, ORDER_ITEM_UNIT_PRICE)));
+    }
+
+    private PartnerCreditDTO buildPartnerCredit() {
+        return new PartnerCreditDTO(PARTNER_ID, CREDIT_LIMIT_INITIAL);
+    }
+
+    @Test
+    void createOrders_shouldRejectOrdersOverAggregatedCredit() {
+        when(partnerRepository.findAvailableCreditByIdIn(any())).thenReturn(List.of(buildPartnerCredit()));
+
+        OrderBatchResponseDTO response = orderBatchService.createOrders(List.of(
+                buildOrderRequestDTO(PARTNER_ID),
+                buildOrderRequestDTO(PARTNER_ID),
+                buildOrderRequestDTO(PARTNER_ID)
+        ));
+
+        assertEquals(2, response.created());
+        assertEquals(1, response.rejected());
+        assertEquals(OrderBatchResultDTO.Outcome.REJECTED, response.results().get(2).outcome());
+        assertEquals(PARTNER_INSUFICIENT_CREDIT, response.results().get(2).message());
+        verify(orderRepository, times(1)).saveAllAndFlush(argThat(orders -> ((List<Order>) orders).size() == 2));
+        verify(orderStatsService, times(1)).recordCreated(PARTNER_ID, 2, ORDER_ITEM_UNIT_PRICE.add(ORDER_ITEM_UNIT_PRICE));
+    }
+
+    @Test
+    void createOrders_withUnknownPartner_shouldRejectOnlyThatOrder() {
+        when(partnerRepository.findAvailableCreditByIdIn(any())).thenReturn(List.of(buildPartnerCredit()));
+
+        OrderBatchResponseDTO response = orderBatchService.createOrders(List.of(
+                buildOrderRequestDTO(UUID.randomUUID()),
+                buildOrderRequestDTO(PARTNER_ID)
+        ));
+
+        assertEquals(PARTNER_NOT_FOUND, response.results().get(0).message());
+        assertEquals(OrderBatchResultDTO.Outcome.CREATED, response.results().get(1).outcome());
+        assertEquals(1, response.results().get(1).index());
+    }
+
+    @Test
+    void createOrders_whenFlushHitsConstraintViolation_shouldRejectChunkOrders() {
+        when(partnerRepository.findAvailableCreditByIdIn(any())).thenReturn(List.of(buildPartnerCredit()));
+        when(orderRepository.saveAllAndFlush(any())).thenThrow(
+                new ConstraintViolationException("boom", new SQLException("boom"), "fk_order_partner"));
+
+        OrderBatchResponseDTO response = orderBatchService.createOrders(List.of(buildOrderRequestDTO(PARTNER_ID)));
+
+        assertEquals(0, response.created());
+        assertEquals(OrderBatchResultDTO.Outcome.REJECTED, response.results().get(0).outcome());
+        verifyNoInteractions(orderStatsService);
+    }
+
+    @Test
+    void createOrders_whenFlushFailsWithDataAccessException_shouldRejectChunkOrders() {
+        when(partnerRepository.findAvailableCreditByIdIn(any())).thenReturn(List.of(buildPartnerCredit()));
+        when(orderRepository.saveAllAndFlush(any())).thenThrow(new DataIntegrityViolationException("boom"));
+
+        OrderBatchResponseDTO response = orderBatchService.createOrders(List.of(buildOrderRequestDTO(PARTNER_ID)));
+
+        assertEquals(0, response.created());
+        assertEquals(OrderBatchResultDTO.Outcome.REJECTED, response.results().get(0).outcome());
+    }
+
+    @Test
+    void createOrders_whenChunkRollsBack_shouldGiveItsCreditToLaterOrders() {
+        BigDecimal unitPrice = BigDecimal.ONE;
+        int chunkSize = 500;
+        PartnerCreditDTO partnerCredit = new PartnerCreditDTO(PARTNER_ID,
+                                                              unitPrice.multiply(BigDecimal.valueOf(chunkSize)));
+        when(partnerRepository.findAvailableCreditByIdIn(any())).thenReturn(List.of(partnerCredit));
+        when(orderRepository.saveAllAndFlush(any())).thenThrow(new DataIntegrityViolationException("boom"))
+                                                    .thenReturn(List.of());
+        OrderRequestDTO request = new OrderRequestDTO(PARTNER_ID, List.of(new OrderItemRequestDTO(PRODUCT_ID, 1,
+                                                                                                   unitPrice)));
+
+        OrderBatchResponseDTO response = orderBatchService.createOrders(Collections.nCopies(chunkSize + 1, request));
+
+        assertEquals(1, response.created());
+        assertEquals(chunkSize, response.rejected());
+        assertEquals(OrderBatchResultDTO.Outcome.CREATED, response.results().get(chunkSize).outcome());
+    }
+
+}
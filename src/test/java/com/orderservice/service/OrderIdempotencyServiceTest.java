@@ -0,0 +1,192 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderRequestDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.entity.IdempotencyKey;
+import com.orderservice.entity.Order;
+import com.orderservice.exception.IdempotencyKeyReuseException;
+import com.orderservice.exception.InsufficientCreditException;
+import com.orderservice.exception.InvalidIdempotencyKeyException;
+import com.orderservice.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.orderservice.configuration.CacheConfiguration.IDEMPOTENCY_KEYS_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class OrderIdempotencyServiceTest {
+
+    private static final UUID PARTNER_ID = UUID.randomUUID();
+    private static final UUID ORDER_ID = UUID.randomUUID();
+    private static final UUID PRODUCT_ID = UUID.randomUUID();
+    private static final BigDecimal ORDER_TOTAL_AMOUNT = new BigDecimal("500.00");
+    private static final BigDecimal OTHER_TOTAL_AMOUNT = new BigDecimal("900.00");
+    private static final String IDEMPOTENCY_KEY = "retry-1";
+    private static final String PARTNER_INSUFICIENT_CREDIT = "Partner does not have sufficient credit!";
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        orderIdempotencyService = new OrderIdempotencyService(orderService, idempotencyKeyRepository,
+                                                              new TransactionTemplate(transactionManager),
+                                                              new ConcurrentMapCacheManager(IDEMPOTENCY_KEYS_CACHE));
+    }
+
+    private OrderRequestDTO buildOrderRequestDTO() {
+        return buildOrderRequestDTO(ORDER_TOTAL_AMOUNT);
+    }
+
+    private OrderRequestDTO buildOrderRequestDTO(BigDecimal unitPrice) {
+        return new OrderRequestDTO(PARTNER_ID, List.of(new OrderItemRequestDTO(PRODUCT_ID, 1, unitPrice)));
+    }
+
+    private IdempotencyKey buildIdempotencyKey(OrderRequestDTO dto) {
+        return IdempotencyKey.builder()
+                             .key(IDEMPOTENCY_KEY)
+                             .orderId(ORDER_ID)
+                             .requestHash(OrderIdempotencyService.requestHash(dto))
+                             .build();
+    }
+
+    private OrderResponseDTO buildOrderResponseDTO() {
+        return new OrderResponseDTO(ORDER_ID, PARTNER_ID, List.of(), ORDER_TOTAL_AMOUNT, Order.OrderStatus.PENDENTE,
+                                    null, null);
+    }
+
+    @Test
+    void createOrder_replayed_shouldAnswerFromCacheWithoutTouchingOrders() {
+        when(idempotencyKeyRepository.claim(eq(IDEMPOTENCY_KEY), anyString())).thenReturn(1);
+        when(orderService.createOrder(any())).thenReturn(buildOrderResponseDTO());
+
+        OrderIdempotencyService.Outcome first = orderIdempotencyService.createOrder(IDEMPOTENCY_KEY,
+                                                                                    buildOrderRequestDTO());
+        OrderIdempotencyService.Outcome replay = orderIdempotencyService.createOrder(IDEMPOTENCY_KEY,
+                                                                                     buildOrderRequestDTO());
+
+        assertFalse(first.replayed());
+        assertTrue(replay.replayed());
+        assertEquals(ORDER_ID, replay.orderId());
+        verify(orderService, times(1)).createOrder(any());
+        verify(idempotencyKeyRepository, times(1)).claim(eq(IDEMPOTENCY_KEY), anyString());
+        verify(idempotencyKeyRepository, times(1)).complete(IDEMPOTENCY_KEY, ORDER_ID);
+    }
+
+    @Test
+    void createOrder_withKeyClaimedElsewhere_shouldReturnStoredOrder() {
+        when(idempotencyKeyRepository.claim(eq(IDEMPOTENCY_KEY), anyString())).thenReturn(0);
+        when(idempotencyKeyRepository.findCompletedByKey(IDEMPOTENCY_KEY))
+                .thenReturn(Optional.of(buildIdempotencyKey(buildOrderRequestDTO())));
+
+        OrderIdempotencyService.Outcome outcome = orderIdempotencyService.createOrder(IDEMPOTENCY_KEY,
+                                                                                      buildOrderRequestDTO());
+
+        assertTrue(outcome.replayed());
+        assertEquals(ORDER_ID, outcome.orderId());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void createOrder_withKeyReusedForAnotherRequest_shouldThrowsException() {
+        when(idempotencyKeyRepository.claim(eq(IDEMPOTENCY_KEY), anyString())).thenReturn(1);
+        when(orderService.createOrder(any())).thenReturn(buildOrderResponseDTO());
+        orderIdempotencyService.createOrder(IDEMPOTENCY_KEY, buildOrderRequestDTO());
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                     () -> orderIdempotencyService.createOrder(IDEMPOTENCY_KEY, buildOrderRequestDTO(OTHER_TOTAL_AMOUNT)));
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    @Test
+    void createOrder_withKeyClaimedElsewhereForAnotherRequest_shouldThrowsException() {
+        when(idempotencyKeyRepository.claim(eq(IDEMPOTENCY_KEY), anyString())).thenReturn(0);
+        when(idempotencyKeyRepository.findCompletedByKey(IDEMPOTENCY_KEY))
+                .thenReturn(Optional.of(buildIdempotencyKey(buildOrderRequestDTO(OTHER_TOTAL_AMOUNT))));
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                     () -> orderIdempotencyService.createOrder(IDEMPOTENCY_KEY, buildOrderRequestDTO()));
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void requestHash_shouldIgnoreTrailingZerosOfPrices() {
+        assertEquals(OrderIdempotencyService.requestHash(buildOrderRequestDTO(new BigDecimal("500"))),
+                     OrderIdempotencyService.requestHash(buildOrderRequestDTO(ORDER_TOTAL_AMOUNT)));
+    }
+
+    @Test
+    void createOrder_concurrentDuplicates_shouldExecuteOnce() throws Exception {
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(idempotencyKeyRepository.claim(eq(IDEMPOTENCY_KEY), anyString())).thenReturn(1);
+        when(orderService.createOrder(any())).thenAnswer(invocation -> {
+            creating.countDown();
+            assertTrue(release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            return buildOrderResponseDTO();
+        });
+
+        CompletableFuture<OrderIdempotencyService.Outcome> first = CompletableFuture.supplyAsync(
+                () -> orderIdempotencyService.createOrder(IDEMPOTENCY_KEY, buildOrderRequestDTO()));
+        assertTrue(creating.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        CompletableFuture<OrderIdempotencyService.Outcome> duplicate = CompletableFuture.supplyAsync(
+                () -> orderIdempotencyService.createOrder(IDEMPOTENCY_KEY, buildOrderRequestDTO()));
+        release.countDown();
+
+        assertEquals(ORDER_ID, first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).orderId());
+        assertEquals(ORDER_ID, duplicate.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).orderId());
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    @Test
+    void createOrder_whenCreationFails_shouldNotRememberKey() {
+        when(idempotencyKeyRepository.claim(eq(IDEMPOTENCY_KEY), anyString())).thenReturn(1);
+        when(orderService.createOrder(any()))
+                .thenThrow(new InsufficientCreditException(PARTNER_INSUFICIENT_CREDIT))
+                .thenReturn(buildOrderResponseDTO());
+
+        assertThrows(InsufficientCreditException.class,
+                     () -> orderIdempotencyService.createOrder(IDEMPOTENCY_KEY, buildOrderRequestDTO()));
+        OrderIdempotencyService.Outcome retry = orderIdempotencyService.createOrder(IDEMPOTENCY_KEY,
+                                                                                    buildOrderRequestDTO());
+
+        assertFalse(retry.replayed());
+        verify(orderService, times(2)).createOrder(any());
+    }
+
+    @Test
+    void createOrder_withBlankKey_shouldThrowsException() {
+        assertThrows(InvalidIdempotencyKeyException.class,
+                     () -> orderIdempotencyService.createOrder(" ", buildOrderRequestDTO()));
+        verifyNoInteractions(orderService, idempotencyKeyRepository);
+    }
+
+}
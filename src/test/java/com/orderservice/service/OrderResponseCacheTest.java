@@ -0,0 +1,86 @@
+package com.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.dto.CachedOrderResponseDTO;
+import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.exception.OrderNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+import java.util.UUID;
+
+import static com.orderservice.configuration.CacheConfiguration.ORDERS_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OrderResponseCacheTest {
+
+    private static final UUID ORDER_ID = UUID.randomUUID();
+    private static final UUID PARTNER_ID = UUID.randomUUID();
+    private static final BigDecimal ORDER_TOTAL_AMOUNT = new BigDecimal("500.00");
+    private static final LocalDateTime CREATED_AT = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
+    private static final LocalDateTime UPDATED_AT = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
+    private static final String ORDER_NOT_FOUND = "Order not found!";
+
+    @Mock
+    private OrderService orderService;
+
+    private CacheManager cacheManager;
+    private OrderResponseCache orderResponseCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cacheManager = new CaffeineCacheManager(ORDERS_CACHE);
+        orderResponseCache = new OrderResponseCache(orderService, new ObjectMapper().findAndRegisterModules(),
+                                                    cacheManager);
+    }
+
+    private OrderResponseDTO buildOrderResponseDTO(Order.OrderStatus status) {
+        return new OrderResponseDTO(ORDER_ID, PARTNER_ID, List.of(), ORDER_TOTAL_AMOUNT, status, CREATED_AT, UPDATED_AT);
+    }
+
+    @Test
+    void get_shouldSerializeOnceAndServeFromCache() {
+        when(orderService.getById(ORDER_ID)).thenReturn(buildOrderResponseDTO(Order.OrderStatus.PENDENTE));
+
+        CachedOrderResponseDTO first = orderResponseCache.get(ORDER_ID);
+        CachedOrderResponseDTO second = orderResponseCache.get(ORDER_ID);
+
+        assertSame(first, second);
+        assertTrue(new String(first.body()).contains(ORDER_ID.toString()));
+        verify(orderService, times(1)).getById(ORDER_ID);
+    }
+
+    @Test
+    void get_afterEviction_shouldReturnNewETag() {
+        when(orderService.getById(ORDER_ID)).thenReturn(buildOrderResponseDTO(Order.OrderStatus.PENDENTE),
+                                                        buildOrderResponseDTO(Order.OrderStatus.APROVADO));
+
+        String pendenteETag = orderResponseCache.get(ORDER_ID).eTag();
+        cacheManager.getCache(ORDERS_CACHE).evict(ORDER_ID);
+        String aprovadoETag = orderResponseCache.get(ORDER_ID).eTag();
+
+        assertNotEquals(pendenteETag, aprovadoETag);
+    }
+
+    @Test
+    void get_withInvalidId_shouldThrowsOrderNotFound() {
+        UUID anotherId = UUID.randomUUID();
+        when(orderService.getById(anotherId)).thenThrow(new OrderNotFoundException(ORDER_NOT_FOUND));
+
+        OrderNotFoundException exception = assertThrows(OrderNotFoundException.class,
+                                                        () -> orderResponseCache.get(anotherId));
+        assertEquals(ORDER_NOT_FOUND, exception.getMessage());
+    }
+
+}
@@ -1,28 +1,42 @@
 package com.orderservice.service;
 
+import com.orderservice.dto.OrderCursor;
+import com.orderservice.dto.OrderHeaderDTO;
 import com.orderservice.dto.OrderItemRequestDTO;
+import com.orderservice.dto.OrderPageResponseDTO;
 import com.orderservice.dto.OrderRequestDTO;
 import com.orderservice.dto.OrderResponseDTO;
+import com.orderservice.dto.OrderRowDTO;
 import com.orderservice.dto.OrderStatusUpdateRequestDTO;
 import com.orderservice.entity.Order;
 import com.orderservice.entity.OrderItem;
 import com.orderservice.entity.Partner;
+import com.orderservice.event.OrderStatusEvent;
 import com.orderservice.event.OrderStatusEventPublisher;
 import com.orderservice.exception.InsufficientCreditException;
+import com.orderservice.exception.InvalidCursorException;
+import com.orderservice.exception.InvalidStatusTransitionException;
 import com.orderservice.exception.OrderNotFoundException;
 import com.orderservice.exception.PartnerNotFoundException;
+import com.orderservice.repository.OrderArchiveRepository;
 import com.orderservice.repository.OrderItemRepository;
 import com.orderservice.repository.OrderRepository;
 import com.orderservice.repository.PartnerRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.Limit;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.*;
+import java.util.stream.Stream;
 
+import static com.orderservice.configuration.CacheConfiguration.ORDERS_CACHE;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -39,16 +53,22 @@ public class OrderServiceTest {
     private static final BigDecimal ORDER_ITEM_UNIT_PRICE_NEW = new BigDecimal("1500.00");
     private static final Order.OrderStatus ORDER_STATUS_PENDENTE = Order.OrderStatus.PENDENTE;
     private static final Order.OrderStatus ORDER_STATUS_ENVIADO = Order.OrderStatus.ENVIADO;
+    private static final Order.OrderStatus ORDER_STATUS_APROVADO = Order.OrderStatus.APROVADO;
+    private static final Order.OrderStatus ORDER_STATUS_CANCELADO = Order.OrderStatus.CANCELADO;
     private static final LocalDateTime CREATED_AT = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
     private static final LocalDateTime UPDATED_AT = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
     private static final LocalDateTime START_DATE = LocalDate.of(2020, Month.JANUARY, 17).atStartOfDay();
     private static final LocalDateTime END_DATE = LocalDate.of(2020, Month.JANUARY, 19).atStartOfDay();
+    private static final int PAGE_SIZE = 1;
     private static final Partner PARTNER = new Partner(PARTNER_ID, PARTNER_A_NAME, CREDIT_LIMIT_INITIAL, CREATED_AT,
                                                        UPDATED_AT);
 
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderArchiveRepository orderArchiveRepository;
+
     @Mock
     private OrderItemRepository orderItemRepository;
 
@@ -58,6 +78,18 @@ public class OrderServiceTest {
     @Mock
     private OrderStatusEventPublisher eventPublisher;
 
+    @Mock
+    private CreditLedgerService creditLedgerService;
+
+    @Mock
+    private OrderStatsService orderStatsService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache ordersCache;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -67,6 +99,7 @@ public class OrderServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(cacheManager.getCache(ORDERS_CACHE)).thenReturn(ordersCache);
         orderItem = new OrderItem();
         List<OrderItem> orderItemList = new ArrayList<OrderItem>();
         orderItemList.add(orderItem);
@@ -86,6 +119,15 @@ public class OrderServiceTest {
         order.setItems(orderItemList);
     }
 
+    private List<OrderRowDTO> buildOrderRows() {
+        return List.of(new OrderRowDTO(ORDER_ID, PARTNER_ID, ORDER_TOTAL_AMOUNT, ORDER_STATUS_PENDENTE, CREATED_AT,
+                                       UPDATED_AT, ORDER_ITEM_ID, PRODUCT_ID, 1, ORDER_ITEM_UNIT_PRICE));
+    }
+
+    private OrderHeaderDTO buildOrderHeader(Order.OrderStatus status) {
+        return new OrderHeaderDTO(ORDER_ID, PARTNER_ID, ORDER_TOTAL_AMOUNT, status, CREATED_AT, UPDATED_AT);
+    }
+
     private OrderRequestDTO buildOrderRequestDTO() {
         OrderItemRequestDTO item = new OrderItemRequestDTO(PRODUCT_ID, 1, ORDER_ITEM_UNIT_PRICE);
         List<OrderItemRequestDTO> orderItemRequestDTOList = new ArrayList<OrderItemRequestDTO>();
@@ -98,7 +140,7 @@ public class OrderServiceTest {
     void createOrder_withSuficientCredit_shouldCreateOrder() {
         OrderRequestDTO orderRequestDTO = buildOrderRequestDTO();
 
-        when(partnerRepository.findById(PARTNER_ID)).thenReturn(Optional.of(PARTNER));
+        when(partnerRepository.findAvailableCreditById(PARTNER_ID)).thenReturn(Optional.of(PARTNER.getCreditLimit()));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
 
         OrderResponseDTO orderResponseDTO = orderService.createOrder(orderRequestDTO);
@@ -106,6 +148,7 @@ public class OrderServiceTest {
         assertNotNull(orderResponseDTO);
         assertEquals(ORDER_ID, orderResponseDTO.id());
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderStatsService, times(1)).recordCreated(PARTNER_ID, ORDER_TOTAL_AMOUNT);
     }
 
     @Test
@@ -115,7 +158,7 @@ public class OrderServiceTest {
         orderItemList.add(item);
         OrderRequestDTO orderRequestDTO = new OrderRequestDTO(PARTNER_ID, orderItemList);
 
-        when(partnerRepository.findById(PARTNER.getId())).thenReturn(Optional.of(PARTNER));
+        when(partnerRepository.findAvailableCreditById(PARTNER.getId())).thenReturn(Optional.of(PARTNER.getCreditLimit()));
 
         assertThrows(InsufficientCreditException.class, () -> orderService.createOrder(orderRequestDTO));
         verify(orderRepository, never()).save(any());
@@ -125,7 +168,7 @@ public class OrderServiceTest {
     void createOrder_withInvalidParter_shouldThrowsException() {
         OrderRequestDTO orderRequestDTO = buildOrderRequestDTO();
 
-        when(partnerRepository.findById(UUID.randomUUID())).thenReturn(Optional.empty());
+        when(partnerRepository.findAvailableCreditById(UUID.randomUUID())).thenReturn(Optional.empty());
 
         assertThrows(PartnerNotFoundException.class, () -> orderService.createOrder(orderRequestDTO));
 
@@ -134,27 +177,38 @@ public class OrderServiceTest {
 
     @Test
     void getById_shouldReturnOrder() {
-        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(orderRepository.findRowsById(ORDER_ID)).thenReturn(buildOrderRows());
 
         OrderResponseDTO orderResponseDTO = orderService.getById(ORDER_ID);
 
         assertNotNull(orderResponseDTO);
         assertEquals(ORDER_ID, orderResponseDTO.id());
+        assertEquals(ORDER_ITEM_ID, orderResponseDTO.items().get(0).id());
     }
 
     @Test
     void getById_withInvalidId_shouldReturnException() {
         UUID anotherId = UUID.randomUUID();
-        when(orderRepository.findById(anotherId)).thenReturn(Optional.empty());
+        when(orderRepository.findRowsById(anotherId)).thenReturn(Collections.emptyList());
+        when(orderArchiveRepository.findRowsById(anotherId)).thenReturn(Collections.emptyList());
 
         assertThrows(OrderNotFoundException.class, () -> orderService.getById(anotherId));
     }
 
     @Test
-    void getByStatus_shouldReturnOrderList() {
-        List<Order> orderList = List.of(order);
+    void getById_withArchivedOrder_shouldReturnOrderFromArchive() {
+        when(orderRepository.findRowsById(ORDER_ID)).thenReturn(Collections.emptyList());
+        when(orderArchiveRepository.findRowsById(ORDER_ID)).thenReturn(buildOrderRows());
+
+        OrderResponseDTO orderResponseDTO = orderService.getById(ORDER_ID);
+
+        assertEquals(ORDER_ID, orderResponseDTO.id());
+        assertEquals(ORDER_ITEM_ID, orderResponseDTO.items().get(0).id());
+    }
 
-        when(orderRepository.findByStatus(ORDER_STATUS_PENDENTE)).thenReturn(orderList);
+    @Test
+    void getByStatus_shouldReturnOrderList() {
+        when(orderRepository.findRowsByStatus(ORDER_STATUS_PENDENTE)).thenReturn(buildOrderRows());
 
         List<OrderResponseDTO> orderResponseDTOList = orderService.getByStatus(ORDER_STATUS_PENDENTE);
 
@@ -164,7 +218,7 @@ public class OrderServiceTest {
 
     @Test
     void getByStatus_shouldReturnEmptyOrderList() {
-        when(orderRepository.findByStatus(ORDER_STATUS_ENVIADO)).thenReturn(Collections.emptyList());
+        when(orderRepository.findRowsByStatus(ORDER_STATUS_ENVIADO)).thenReturn(Collections.emptyList());
 
         List<OrderResponseDTO> orderResponseDTOList = orderService.getByStatus(ORDER_STATUS_ENVIADO);
 
@@ -173,18 +227,29 @@ public class OrderServiceTest {
 
     @Test
     void getByPeriod_shouldReturnOrderList() {
-        List<Order> orderList = List.of(order);
-
-        when(orderRepository.findByCreatedAtBetween(START_DATE, END_DATE)).thenReturn(orderList);
+        when(orderRepository.findRowsByPeriod(START_DATE, END_DATE)).thenReturn(buildOrderRows());
 
         List<OrderResponseDTO> orderResponseDTOList = orderService.getByPeriod(START_DATE, END_DATE);
 
         assertFalse(orderResponseDTOList.isEmpty());
     }
 
+    @Test
+    void getByPeriod_withArchivedOrders_shouldMergeTiersInKeyOrder() {
+        UUID archivedId = UUID.randomUUID();
+        when(orderRepository.findRowsByPeriod(START_DATE, END_DATE)).thenReturn(buildOrderRows());
+        when(orderArchiveRepository.findRowsByPeriod(START_DATE, END_DATE)).thenReturn(List.of(
+                new OrderRowDTO(archivedId, PARTNER_ID, ORDER_TOTAL_AMOUNT, ORDER_STATUS_CANCELADO, START_DATE,
+                                UPDATED_AT, UUID.randomUUID(), PRODUCT_ID, 1, ORDER_ITEM_UNIT_PRICE)));
+
+        List<OrderResponseDTO> orderResponseDTOList = orderService.getByPeriod(START_DATE, END_DATE);
+
+        assertEquals(List.of(archivedId, ORDER_ID), orderResponseDTOList.stream().map(OrderResponseDTO::id).toList());
+    }
+
     @Test
     void getByPeriod_shouldReturnEmptyOrderList() {
-        when(orderRepository.findByCreatedAtBetween(START_DATE, END_DATE)).thenReturn(Collections.emptyList());
+        when(orderRepository.findRowsByPeriod(START_DATE, END_DATE)).thenReturn(Collections.emptyList());
 
         List<OrderResponseDTO> orderResponseDTOList = orderService.getByPeriod(START_DATE, END_DATE);
 
@@ -193,42 +258,264 @@ public class OrderServiceTest {
 
     @Test
     void updateStatus_shouldUpdateStatusOrder() {
-        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArgument(0));
+        when(orderRepository.findHeaderById(ORDER_ID)).thenReturn(Optional.of(buildOrderHeader(ORDER_STATUS_PENDENTE)));
+        when(orderRepository.transition(eq(ORDER_ID), eq(ORDER_STATUS_PENDENTE), eq(ORDER_STATUS_APROVADO),
+                                        any(LocalDateTime.class))).thenReturn(1);
+        when(orderRepository.findRowsById(ORDER_ID)).thenReturn(buildOrderRows());
 
-        OrderStatusUpdateRequestDTO orderStatusUpdateRequestDTO = new OrderStatusUpdateRequestDTO(ORDER_STATUS_ENVIADO);
+        OrderStatusUpdateRequestDTO orderStatusUpdateRequestDTO = new OrderStatusUpdateRequestDTO(ORDER_STATUS_APROVADO);
 
         OrderResponseDTO orderResponseDTO = orderService.updateStatus(ORDER_ID, orderStatusUpdateRequestDTO);
 
         assertNotNull(orderResponseDTO);
-        assertEquals(ORDER_STATUS_ENVIADO, orderResponseDTO.status());
+        verify(ordersCache, times(1)).evict(ORDER_ID);
+        verify(eventPublisher, times(1)).publishStatusChange(any(OrderStatusEvent.class));
+        verify(orderStatsService, times(1)).recordStatusChange(PARTNER_ID, ORDER_STATUS_PENDENTE, ORDER_STATUS_APROVADO,
+                                                               ORDER_TOTAL_AMOUNT);
+    }
+
+    @Test
+    void updateStatus_withIllegalTransition_shouldReturnException() {
+        when(orderRepository.findHeaderById(ORDER_ID)).thenReturn(Optional.of(buildOrderHeader(ORDER_STATUS_PENDENTE)));
+
+        OrderStatusUpdateRequestDTO orderStatusUpdateRequestDTO = new OrderStatusUpdateRequestDTO(ORDER_STATUS_ENVIADO);
+
+        assertThrows(InvalidStatusTransitionException.class,
+                     () -> orderService.updateStatus(ORDER_ID, orderStatusUpdateRequestDTO));
+        verify(orderRepository, never()).transition(any(), any(), any(), any());
+        verify(orderRepository, never()).findRowsById(any());
+        verify(orderStatsService, never()).recordStatusChange(any(), any(), any(), any());
+    }
+
+    @Test
+    void updateStatus_withConcurrentChange_shouldRetryAgainstNewStatus() {
+        when(orderRepository.findHeaderById(ORDER_ID))
+                .thenReturn(Optional.of(buildOrderHeader(ORDER_STATUS_PENDENTE)))
+                .thenReturn(Optional.of(buildOrderHeader(ORDER_STATUS_APROVADO)));
+        when(orderRepository.transition(eq(ORDER_ID), eq(ORDER_STATUS_PENDENTE), eq(ORDER_STATUS_CANCELADO),
+                                        any(LocalDateTime.class))).thenReturn(0);
+        when(orderRepository.transition(eq(ORDER_ID), eq(ORDER_STATUS_APROVADO), eq(ORDER_STATUS_CANCELADO),
+                                        any(LocalDateTime.class))).thenReturn(1);
+
+        orderService.orderCancel(ORDER_ID);
+
+        verify(orderRepository, times(2)).transition(eq(ORDER_ID), any(), eq(ORDER_STATUS_CANCELADO),
+                                                     any(LocalDateTime.class));
+        verify(creditLedgerService, times(1)).release(PARTNER_ID, ORDER_ID, ORDER_TOTAL_AMOUNT);
+        verify(orderStatsService, times(1)).recordStatusChange(PARTNER_ID, ORDER_STATUS_APROVADO,
+                                                               ORDER_STATUS_CANCELADO, ORDER_TOTAL_AMOUNT);
+        verify(orderStatsService, never()).recordStatusChange(PARTNER_ID, ORDER_STATUS_PENDENTE,
+                                                              ORDER_STATUS_CANCELADO, ORDER_TOTAL_AMOUNT);
     }
 
     @Test
     void updateStatus_withInvalidId_shouldReturnException() {
         UUID anotherId = UUID.randomUUID();
-        when(orderRepository.findById(anotherId)).thenReturn(Optional.empty());
+        when(orderRepository.findHeaderById(anotherId)).thenReturn(Optional.empty());
 
         OrderStatusUpdateRequestDTO orderStatusUpdateRequestDTO = new OrderStatusUpdateRequestDTO(ORDER_STATUS_ENVIADO);
 
         assertThrows(OrderNotFoundException.class, () -> orderService.updateStatus(anotherId, orderStatusUpdateRequestDTO));
     }
 
+    @Test
+    void updateStatus_toAprovado_shouldReserveCredit() {
+        when(orderRepository.findHeaderById(ORDER_ID)).thenReturn(Optional.of(buildOrderHeader(ORDER_STATUS_PENDENTE)));
+        when(orderRepository.transition(eq(ORDER_ID), eq(ORDER_STATUS_PENDENTE), eq(ORDER_STATUS_APROVADO),
+                                        any(LocalDateTime.class))).thenReturn(1);
+        when(orderRepository.findRowsById(ORDER_ID)).thenReturn(buildOrderRows());
+
+        orderService.updateStatus(ORDER_ID, new OrderStatusUpdateRequestDTO(ORDER_STATUS_APROVADO));
+
+        verify(creditLedgerService, times(1)).reserve(PARTNER_ID, ORDER_ID, ORDER_TOTAL_AMOUNT);
+    }
+
+    @Test
+    void updateStatus_toAprovado_withInsuficientCredit_shouldNotPublishEvent() {
+        when(orderRepository.findHeaderById(ORDER_ID)).thenReturn(Optional.of(buildOrderHeader(ORDER_STATUS_PENDENTE)));
+        when(orderRepository.transition(eq(ORDER_ID), eq(ORDER_STATUS_PENDENTE), eq(ORDER_STATUS_APROVADO),
+                                        any(LocalDateTime.class))).thenReturn(1);
+        doThrow(new InsufficientCreditException("Partner does not have sufficient credit!"))
+                .when(creditLedgerService).reserve(PARTNER_ID, ORDER_ID, ORDER_TOTAL_AMOUNT);
+
+        assertThrows(InsufficientCreditException.class,
+                     () -> orderService.updateStatus(ORDER_ID, new OrderStatusUpdateRequestDTO(ORDER_STATUS_APROVADO)));
+        verify(eventPublisher, never()).publishStatusChange(any(OrderStatusEvent.class));
+        verify(orderStatsService, never()).recordStatusChange(any(), any(), any(), any());
+    }
+
     @Test
     void cancelOrder_shouldCancelOrder() {
-        when(partnerRepository.findById(PARTNER_ID)).thenReturn(Optional.of(PARTNER));
-        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArgument(0));
+        when(orderRepository.findHeaderById(ORDER_ID)).thenReturn(Optional.of(buildOrderHeader(ORDER_STATUS_PENDENTE)));
+        when(orderRepository.transition(eq(ORDER_ID), eq(ORDER_STATUS_PENDENTE), eq(ORDER_STATUS_CANCELADO),
+                                        any(LocalDateTime.class))).thenReturn(1);
 
         orderService.orderCancel(ORDER_ID);
+
+        verify(creditLedgerService, times(1)).release(PARTNER_ID, ORDER_ID, ORDER_TOTAL_AMOUNT);
+        verify(ordersCache, times(1)).evict(ORDER_ID);
+        verify(orderStatsService, times(1)).recordStatusChange(PARTNER_ID, ORDER_STATUS_PENDENTE,
+                                                               ORDER_STATUS_CANCELADO, ORDER_TOTAL_AMOUNT);
+    }
+
+    @Test
+    void cancelOrder_alreadyCanceled_shouldReturnException() {
+        when(orderRepository.findHeaderById(ORDER_ID)).thenReturn(Optional.of(buildOrderHeader(ORDER_STATUS_CANCELADO)));
+
+        assertThrows(InvalidStatusTransitionException.class, () -> orderService.orderCancel(ORDER_ID));
+        verify(creditLedgerService, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void cancelOrder_archivedOrder_shouldReturnException() {
+        when(orderRepository.findHeaderById(ORDER_ID)).thenReturn(Optional.empty());
+        when(orderArchiveRepository.findHeaderById(ORDER_ID))
+                .thenReturn(Optional.of(buildOrderHeader(ORDER_STATUS_CANCELADO)));
+
+        assertThrows(InvalidStatusTransitionException.class, () -> orderService.orderCancel(ORDER_ID));
+        verify(orderRepository, never()).transition(any(), any(), any(), any());
     }
 
     @Test
     void cancelOrder_withInvalidId_shouldReturnException() {
         UUID anotherId = UUID.randomUUID();
-        when(orderRepository.findById(anotherId)).thenReturn(Optional.empty());
+        when(orderRepository.findHeaderById(anotherId)).thenReturn(Optional.empty());
 
         assertThrows(OrderNotFoundException.class, () -> orderService.orderCancel(anotherId));
     }
 
+    @Test
+    void getPageByStatus_withMoreResults_shouldReturnNextCursor() {
+        OrderCursor first = new OrderCursor(CREATED_AT, ORDER_ID);
+        OrderCursor second = new OrderCursor(CREATED_AT, UUID.randomUUID());
+
+        when(orderRepository.findKeysByStatus(ORDER_STATUS_PENDENTE, Limit.of(PAGE_SIZE + 1)))
+                .thenReturn(List.of(first, second));
+        when(orderRepository.findRowsByIdIn(List.of(ORDER_ID), CREATED_AT, CREATED_AT)).thenReturn(buildOrderRows());
+
+        OrderPageResponseDTO page = orderService.getPageByStatus(ORDER_STATUS_PENDENTE, null, PAGE_SIZE);
+
+        assertEquals(1, page.content().size());
+        assertEquals(first, OrderCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void getPageByStatus_withArchivedKeys_shouldPageAcrossTiers() {
+        UUID archivedId = UUID.randomUUID();
+        OrderCursor archived = new OrderCursor(START_DATE, archivedId);
+
+        when(orderRepository.findKeysByStatus(ORDER_STATUS_CANCELADO, Limit.of(PAGE_SIZE + 1)))
+                .thenReturn(List.of(new OrderCursor(CREATED_AT, ORDER_ID)));
+        when(orderArchiveRepository.findKeysByStatus(ORDER_STATUS_CANCELADO, Limit.of(PAGE_SIZE + 1)))
+                .thenReturn(List.of(archived));
+        when(orderArchiveRepository.findRowsByIdIn(List.of(archivedId))).thenReturn(List.of(
+                new OrderRowDTO(archivedId, PARTNER_ID, ORDER_TOTAL_AMOUNT, ORDER_STATUS_CANCELADO, START_DATE,
+                                UPDATED_AT, null, null, null, null)));
+
+        OrderPageResponseDTO page = orderService.getPageByStatus(ORDER_STATUS_CANCELADO, null, PAGE_SIZE);
+
+        assertEquals(archivedId, page.content().get(0).id());
+        assertEquals(archived, OrderCursor.decode(page.nextCursor()));
+        verify(orderRepository).findRowsByIdIn(List.of(archivedId), START_DATE, START_DATE);
+    }
+
+    @Test
+    void getPageByPeriod_withCursor_shouldSeekAfterCursor() {
+        OrderCursor after = new OrderCursor(CREATED_AT, UUID.randomUUID());
+
+        when(orderRepository.findKeysByPeriodAfter(START_DATE, END_DATE, after.createdAt(), after.id(),
+                                                   Limit.of(PAGE_SIZE + 1)))
+                .thenReturn(List.of(new OrderCursor(CREATED_AT, ORDER_ID)));
+        when(orderRepository.findRowsByIdIn(List.of(ORDER_ID), CREATED_AT, CREATED_AT)).thenReturn(buildOrderRows());
+
+        OrderPageResponseDTO page = orderService.getPageByPeriod(START_DATE, END_DATE, after.encode(), PAGE_SIZE);
+
+        assertEquals(1, page.content().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getPageByPartner_withoutItems_shouldReturnHeadersOnly() {
+        OrderHeaderDTO first = new OrderHeaderDTO(ORDER_ID, PARTNER_ID, ORDER_TOTAL_AMOUNT, ORDER_STATUS_PENDENTE,
+                                                  CREATED_AT, UPDATED_AT);
+        OrderHeaderDTO second = new OrderHeaderDTO(UUID.randomUUID(), PARTNER_ID, ORDER_TOTAL_AMOUNT,
+                                                   ORDER_STATUS_PENDENTE, UPDATED_AT, UPDATED_AT);
+
+        when(partnerRepository.existsById(PARTNER_ID)).thenReturn(true);
+        when(orderRepository.findHeadersByPartnerIdAndStatus(PARTNER_ID, ORDER_STATUS_PENDENTE, Limit.of(PAGE_SIZE + 1)))
+                .thenReturn(List.of(first, second));
+
+        OrderPageResponseDTO page = orderService.getPageByPartner(PARTNER_ID, ORDER_STATUS_PENDENTE, null, PAGE_SIZE,
+                                                                  false);
+
+        assertEquals(1, page.content().size());
+        assertNull(page.content().get(0).items());
+        assertEquals(first.cursor(), OrderCursor.decode(page.nextCursor()));
+        verify(orderRepository, never()).findRowsByIdIn(any(), any(), any());
+    }
+
+    @Test
+    void getPageByPartner_withItemsAndCursor_shouldSeekAfterCursor() {
+        OrderCursor after = new OrderCursor(CREATED_AT, UUID.randomUUID());
+
+        when(partnerRepository.existsById(PARTNER_ID)).thenReturn(true);
+        when(orderRepository.findHeadersByPartnerIdAfter(PARTNER_ID, after.createdAt(), after.id(),
+                                                         Limit.of(PAGE_SIZE + 1)))
+                .thenReturn(List.of(new OrderHeaderDTO(ORDER_ID, PARTNER_ID, ORDER_TOTAL_AMOUNT, ORDER_STATUS_PENDENTE,
+                                                       CREATED_AT, UPDATED_AT)));
+        when(orderRepository.findRowsByIdIn(List.of(ORDER_ID), CREATED_AT, CREATED_AT)).thenReturn(buildOrderRows());
+
+        OrderPageResponseDTO page = orderService.getPageByPartner(PARTNER_ID, null, after.encode(), PAGE_SIZE, true);
+
+        assertEquals(1, page.content().get(0).items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getPageByPartner_withInvalidPartner_shouldThrowsException() {
+        when(partnerRepository.existsById(PARTNER_ID)).thenReturn(false);
+
+        assertThrows(PartnerNotFoundException.class,
+                     () -> orderService.getPageByPartner(PARTNER_ID, null, null, PAGE_SIZE, false));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void toResponseDTOs_shouldFoldAdjacentRowsIntoOneOrder() {
+        UUID emptyOrderId = UUID.randomUUID();
+        List<OrderRowDTO> rows = List.of(
+                new OrderRowDTO(ORDER_ID, PARTNER_ID, ORDER_TOTAL_AMOUNT, ORDER_STATUS_PENDENTE, CREATED_AT, UPDATED_AT,
+                                ORDER_ITEM_ID, PRODUCT_ID, 1, ORDER_ITEM_UNIT_PRICE),
+                new OrderRowDTO(ORDER_ID, PARTNER_ID, ORDER_TOTAL_AMOUNT, ORDER_STATUS_PENDENTE, CREATED_AT, UPDATED_AT,
+                                UUID.randomUUID(), PRODUCT_ID, 2, ORDER_ITEM_UNIT_PRICE),
+                new OrderRowDTO(emptyOrderId, PARTNER_ID, ORDER_TOTAL_AMOUNT, ORDER_STATUS_PENDENTE, UPDATED_AT,
+                                UPDATED_AT, null, null, null, null));
+
+        List<OrderResponseDTO> orders = OrderService.toResponseDTOs(rows);
+
+        assertEquals(2, orders.size());
+        assertEquals(2, orders.get(0).items().size());
+        assertEquals(emptyOrderId, orders.get(1).id());
+        assertTrue(orders.get(1).items().isEmpty());
+    }
+
+    @Test
+    void getPageByStatus_withInvalidCursor_shouldThrowsException() {
+        assertThrows(InvalidCursorException.class,
+                     () -> orderService.getPageByStatus(ORDER_STATUS_PENDENTE, "invalid", PAGE_SIZE));
+    }
+
+    @Test
+    void streamByStatus_shouldEmitEveryOrder() {
+        when(orderRepository.streamKeysByStatus(ORDER_STATUS_PENDENTE))
+                .thenReturn(Stream.of(new OrderCursor(CREATED_AT, ORDER_ID)));
+        when(orderRepository.findRowsByIdIn(anyList(), eq(CREATED_AT), eq(CREATED_AT))).thenReturn(buildOrderRows());
+
+        List<OrderResponseDTO> emitted = new ArrayList<>();
+        orderService.streamByStatus(ORDER_STATUS_PENDENTE, emitted::add);
+
+        assertEquals(1, emitted.size());
+        assertEquals(ORDER_ID, emitted.get(0).id());
+    }
+
 }
\ No newline at end of file
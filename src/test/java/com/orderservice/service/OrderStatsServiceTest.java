@@ -0,0 +1,145 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderStatsResponseDTO;
+import com.orderservice.dto.OrderStatusStatsDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.repository.OrderStatsDeltaRepository;
+import com.orderservice.repository.OrderStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OrderStatsServiceTest {
+
+    private static final UUID PARTNER_ID = UUID.randomUUID();
+    private static final BigDecimal ORDER_TOTAL_AMOUNT = new BigDecimal("500.00");
+    private static final BigDecimal APPROVED_TOTAL_AMOUNT = new BigDecimal("250.00");
+    private static final String PENDENTE = Order.OrderStatus.PENDENTE.name();
+    private static final String APROVADO = Order.OrderStatus.APROVADO.name();
+    private static final int ROLLUP_BATCH_SIZE = 2;
+
+    @Mock
+    private OrderStatsRepository orderStatsRepository;
+
+    @Mock
+    private OrderStatsDeltaRepository orderStatsDeltaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderStatsService orderStatsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        orderStatsService = new OrderStatsService(orderStatsRepository, orderStatsDeltaRepository,
+                                                  new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(orderStatsService, "rollupBatchSize", ROLLUP_BATCH_SIZE);
+    }
+
+    @Test
+    void recordCreated_shouldAppendPendingDelta() {
+        orderStatsService.recordCreated(PARTNER_ID, ORDER_TOTAL_AMOUNT);
+
+        verify(orderStatsDeltaRepository, times(1)).add(PARTNER_ID, PENDENTE, 1, ORDER_TOTAL_AMOUNT);
+    }
+
+    @Test
+    void recordStatusChange_shouldAppendMoveDeltas() {
+        orderStatsService.recordStatusChange(PARTNER_ID, Order.OrderStatus.PENDENTE, Order.OrderStatus.APROVADO,
+                                             ORDER_TOTAL_AMOUNT);
+
+        verify(orderStatsDeltaRepository, times(1)).move(PARTNER_ID, PENDENTE, APROVADO, 1L, ORDER_TOTAL_AMOUNT);
+    }
+
+    @Test
+    void recordStatusChange_withCount_shouldMoveManyOrders() {
+        orderStatsService.recordStatusChange(PARTNER_ID, Order.OrderStatus.PENDENTE, Order.OrderStatus.APROVADO, 3,
+                                             ORDER_TOTAL_AMOUNT);
+
+        verify(orderStatsDeltaRepository, times(1)).move(PARTNER_ID, PENDENTE, APROVADO, 3L, ORDER_TOTAL_AMOUNT);
+    }
+
+    @Test
+    void recordStatusChange_withSameStatus_shouldNotTouchCounters() {
+        orderStatsService.recordStatusChange(PARTNER_ID, Order.OrderStatus.APROVADO, Order.OrderStatus.APROVADO,
+                                             ORDER_TOTAL_AMOUNT);
+
+        verifyNoInteractions(orderStatsRepository, orderStatsDeltaRepository);
+    }
+
+    @Test
+    void getStats_withPartner_shouldSumPartnerCounters() {
+        when(orderStatsRepository.findByPartnerId(PARTNER_ID)).thenReturn(List.of(
+                new OrderStatusStatsDTO(Order.OrderStatus.PENDENTE, 2, ORDER_TOTAL_AMOUNT),
+                new OrderStatusStatsDTO(Order.OrderStatus.APROVADO, 1, APPROVED_TOTAL_AMOUNT)));
+        when(orderStatsDeltaRepository.sumByPartnerId(PARTNER_ID)).thenReturn(List.of());
+
+        OrderStatsResponseDTO stats = orderStatsService.getStats(PARTNER_ID);
+
+        assertEquals(PARTNER_ID, stats.partnerId());
+        assertEquals(3, stats.orderCount());
+        assertEquals(ORDER_TOTAL_AMOUNT.add(APPROVED_TOTAL_AMOUNT), stats.totalAmount());
+        assertEquals(2, stats.statuses().size());
+        verify(orderStatsRepository, never()).sumByStatus();
+    }
+
+    @Test
+    void getStats_withoutPartner_shouldSumAllPartners() {
+        when(orderStatsRepository.sumByStatus()).thenReturn(List.of());
+        when(orderStatsDeltaRepository.sumByStatus()).thenReturn(List.of());
+
+        OrderStatsResponseDTO stats = orderStatsService.getStats(null);
+
+        assertNull(stats.partnerId());
+        assertEquals(0, stats.orderCount());
+        assertEquals(BigDecimal.ZERO, stats.totalAmount());
+    }
+
+    @Test
+    void getStats_withPendingDeltas_shouldAddThemToCounters() {
+        when(orderStatsRepository.findByPartnerId(PARTNER_ID)).thenReturn(List.of(
+                new OrderStatusStatsDTO(Order.OrderStatus.PENDENTE, 2, ORDER_TOTAL_AMOUNT)));
+        when(orderStatsDeltaRepository.sumByPartnerId(PARTNER_ID)).thenReturn(List.of(
+                new OrderStatusStatsDTO(Order.OrderStatus.APROVADO, 1, APPROVED_TOTAL_AMOUNT),
+                new OrderStatusStatsDTO(Order.OrderStatus.PENDENTE, -1, APPROVED_TOTAL_AMOUNT.negate())));
+
+        OrderStatsResponseDTO stats = orderStatsService.getStats(PARTNER_ID);
+
+        assertEquals(2, stats.orderCount());
+        assertEquals(0, ORDER_TOTAL_AMOUNT.compareTo(stats.totalAmount()));
+        assertEquals(List.of(new OrderStatusStatsDTO(Order.OrderStatus.APROVADO, 1, APPROVED_TOTAL_AMOUNT),
+                             new OrderStatusStatsDTO(Order.OrderStatus.PENDENTE, 1,
+                                                     ORDER_TOTAL_AMOUNT.subtract(APPROVED_TOTAL_AMOUNT))),
+                     stats.statuses());
+    }
+
+    @Test
+    void rollUp_whileBatchesAreFull_shouldKeepFolding() {
+        when(orderStatsRepository.rollUp(ROLLUP_BATCH_SIZE)).thenReturn(2L, 2L, 1L);
+
+        orderStatsService.rollUp();
+
+        verify(orderStatsRepository, times(3)).rollUp(ROLLUP_BATCH_SIZE);
+    }
+
+    @Test
+    void rollUp_withNothingToFold_shouldRunOnce() {
+        when(orderStatsRepository.rollUp(ROLLUP_BATCH_SIZE)).thenReturn(0L);
+
+        orderStatsService.rollUp();
+
+        verify(orderStatsRepository, times(1)).rollUp(ROLLUP_BATCH_SIZE);
+    }
+
+}
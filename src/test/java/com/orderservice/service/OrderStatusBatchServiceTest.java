@@ -0,0 +1,181 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderHeaderDTO;
+import com.orderservice.dto.OrderStatusBatchResponseDTO;
+import com.orderservice.dto.OrderStatusBatchResultDTO;
+import com.orderservice.entity.Order;
+import com.orderservice.entity.Partner;
+import com.orderservice.event.OrderStatusEvent;
+import com.orderservice.event.OrderStatusEventPublisher;
+import com.orderservice.repository.OrderArchiveRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.PartnerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.orderservice.configuration.CacheConfiguration.ORDERS_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OrderStatusBatchServiceTest {
+
+    private static final UUID PARTNER_ID = UUID.randomUUID();
+    private static final UUID FIRST_ORDER_ID = UUID.randomUUID();
+    private static final UUID SECOND_ORDER_ID = UUID.randomUUID();
+    private static final UUID THIRD_ORDER_ID = UUID.randomUUID();
+    private static final UUID ARCHIVED_ORDER_ID = UUID.randomUUID();
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal ORDER_TOTAL_AMOUNT = new BigDecimal("400.00");
+    private static final LocalDateTime CREATED_AT = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
+    private static final LocalDateTime UPDATED_AT = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
+    private static final String ORDER_NOT_FOUND = "Order not found!";
+    private static final String PARTNER_INSUFICIENT_CREDIT = "Partner does not have sufficient credit!";
+    private static final String CHUNK_FAILED = "Order status could not be updated!";
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Mock
+    private PartnerRepository partnerRepository;
+
+    @Mock
+    private CreditLedgerService creditLedgerService;
+
+    @Mock
+    private OrderStatsService orderStatsService;
+
+    @Mock
+    private OrderStatusEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderStatusBatchService orderStatusBatchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        orderStatusBatchService = new OrderStatusBatchService(orderRepository, orderArchiveRepository, partnerRepository,
+                                                              creditLedgerService, orderStatsService, eventPublisher,
+                                                              new TransactionTemplate(transactionManager),
+                                                              new CaffeineCacheManager(ORDERS_CACHE));
+    }
+
+    private OrderHeaderDTO buildOrderHeader(UUID id, Order.OrderStatus status) {
+        return new OrderHeaderDTO(id, PARTNER_ID, ORDER_TOTAL_AMOUNT, status, CREATED_AT, UPDATED_AT);
+    }
+
+    private Partner buildPartner() {
+        return new Partner(PARTNER_ID, PARTNER_A_NAME, CREDIT_LIMIT_INITIAL, CREATED_AT, UPDATED_AT);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateStatus_toApproved_shouldRejectOrdersOverAggregatedCredit() {
+        List<UUID> ids = List.of(FIRST_ORDER_ID, SECOND_ORDER_ID, THIRD_ORDER_ID);
+        when(orderRepository.lockHeadersByIdIn(ids)).thenReturn(List.of(
+                buildOrderHeader(FIRST_ORDER_ID, Order.OrderStatus.PENDENTE),
+                buildOrderHeader(SECOND_ORDER_ID, Order.OrderStatus.PENDENTE),
+                buildOrderHeader(THIRD_ORDER_ID, Order.OrderStatus.PENDENTE)));
+        when(creditLedgerService.lockCredit(Set.of(PARTNER_ID)))
+                .thenReturn(new HashMap<>(Map.of(PARTNER_ID, CREDIT_LIMIT_INITIAL)));
+
+        OrderStatusBatchResponseDTO response = orderStatusBatchService.updateStatus(ids, Order.OrderStatus.APROVADO);
+
+        assertEquals(2, response.updated());
+        assertEquals(1, response.rejected());
+        assertEquals(OrderStatusBatchResultDTO.Outcome.UPDATED, response.results().get(0).outcome());
+        assertEquals(OrderStatusBatchResultDTO.Outcome.UPDATED, response.results().get(1).outcome());
+        assertEquals(PARTNER_INSUFICIENT_CREDIT, response.results().get(2).message());
+        List<UUID> approved = List.of(FIRST_ORDER_ID, SECOND_ORDER_ID);
+        verify(orderRepository, times(1)).transitionAll(eq(approved), eq(List.of(Order.OrderStatus.PENDENTE)),
+                                                        eq(Order.OrderStatus.APROVADO), any());
+        verify(creditLedgerService, times(1)).reserveAll(approved, Set.of(PARTNER_ID));
+        verify(orderStatsService, times(1)).recordStatusChange(PARTNER_ID, Order.OrderStatus.PENDENTE,
+                                                               Order.OrderStatus.APROVADO, 2,
+                                                               ORDER_TOTAL_AMOUNT.add(ORDER_TOTAL_AMOUNT));
+        ArgumentCaptor<List<OrderStatusEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher, times(1)).publishStatusChanges(events.capture());
+        assertEquals(approved, events.getValue().stream().map(OrderStatusEvent::orderId).toList());
+    }
+
+    @Test
+    void updateStatus_shouldRejectIllegalMissingAndArchivedOrders() {
+        UUID missingOrderId = UUID.randomUUID();
+        List<UUID> ids = List.of(FIRST_ORDER_ID, SECOND_ORDER_ID, missingOrderId, ARCHIVED_ORDER_ID);
+        when(orderRepository.lockHeadersByIdIn(ids)).thenReturn(List.of(
+                buildOrderHeader(FIRST_ORDER_ID, Order.OrderStatus.APROVADO),
+                buildOrderHeader(SECOND_ORDER_ID, Order.OrderStatus.EM_PROCESSAMENTO)));
+        when(orderArchiveRepository.findHeadersByIdIn(List.of(missingOrderId, ARCHIVED_ORDER_ID)))
+                .thenReturn(List.of(buildOrderHeader(ARCHIVED_ORDER_ID, Order.OrderStatus.ENTREGUE)));
+
+        OrderStatusBatchResponseDTO response = orderStatusBatchService.updateStatus(ids, Order.OrderStatus.ENVIADO);
+
+        assertEquals(1, response.updated());
+        assertEquals("Order status cannot change from APROVADO to ENVIADO!", response.results().get(0).message());
+        assertEquals(OrderStatusBatchResultDTO.Outcome.UPDATED, response.results().get(1).outcome());
+        assertEquals(ORDER_NOT_FOUND, response.results().get(2).message());
+        assertEquals("Order status cannot change from ENTREGUE to ENVIADO!", response.results().get(3).message());
+        verify(orderRepository, times(1)).transitionAll(eq(List.of(SECOND_ORDER_ID)), any(),
+                                                        eq(Order.OrderStatus.ENVIADO), any());
+        verifyNoInteractions(partnerRepository, creditLedgerService);
+    }
+
+    @Test
+    void updateStatus_toCanceled_shouldReleaseCreditOfAllOrders() {
+        List<UUID> ids = List.of(FIRST_ORDER_ID, SECOND_ORDER_ID, FIRST_ORDER_ID);
+        List<UUID> distinctIds = List.of(FIRST_ORDER_ID, SECOND_ORDER_ID);
+        when(orderRepository.lockHeadersByIdIn(distinctIds)).thenReturn(List.of(
+                buildOrderHeader(FIRST_ORDER_ID, Order.OrderStatus.PENDENTE),
+                buildOrderHeader(SECOND_ORDER_ID, Order.OrderStatus.APROVADO)));
+        when(partnerRepository.lockAllById(Set.of(PARTNER_ID))).thenReturn(List.of(buildPartner()));
+
+        OrderStatusBatchResponseDTO response = orderStatusBatchService.updateStatus(ids, Order.OrderStatus.CANCELADO);
+
+        assertEquals(2, response.updated());
+        assertEquals(2, response.results().size());
+        verify(partnerRepository, times(1)).lockAllById(Set.of(PARTNER_ID));
+        verify(creditLedgerService, never()).lockCredit(any());
+        verify(creditLedgerService, times(1)).releaseAll(distinctIds, Set.of(PARTNER_ID));
+        verify(orderStatsService, times(1)).recordStatusChange(PARTNER_ID, Order.OrderStatus.PENDENTE,
+                                                               Order.OrderStatus.CANCELADO, 1, ORDER_TOTAL_AMOUNT);
+        verify(orderStatsService, times(1)).recordStatusChange(PARTNER_ID, Order.OrderStatus.APROVADO,
+                                                               Order.OrderStatus.CANCELADO, 1, ORDER_TOTAL_AMOUNT);
+    }
+
+    @Test
+    void updateStatus_whenChunkFails_shouldRejectItsOrders() {
+        List<UUID> ids = List.of(FIRST_ORDER_ID);
+        when(orderRepository.lockHeadersByIdIn(ids)).thenReturn(List.of(
+                buildOrderHeader(FIRST_ORDER_ID, Order.OrderStatus.APROVADO)));
+        when(orderRepository.transitionAll(any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("boom"));
+
+        OrderStatusBatchResponseDTO response = orderStatusBatchService.updateStatus(
+                ids, Order.OrderStatus.EM_PROCESSAMENTO);
+
+        assertEquals(0, response.updated());
+        assertEquals(CHUNK_FAILED, response.results().get(0).message());
+        verifyNoInteractions(eventPublisher);
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderCursor;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderTiersTest {
+
+    private static final LocalDateTime DAY_ONE = LocalDate.of(2020, Month.JANUARY, 17).atStartOfDay();
+    private static final LocalDateTime DAY_TWO = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
+    private static final LocalDateTime DAY_THREE = LocalDate.of(2020, Month.JANUARY, 19).atStartOfDay();
+
+    @Test
+    void merge_shouldInterleaveTiersOnCreationTime() {
+        OrderCursor hot = new OrderCursor(DAY_TWO, UUID.randomUUID());
+        OrderCursor firstArchived = new OrderCursor(DAY_ONE, UUID.randomUUID());
+        OrderCursor lastArchived = new OrderCursor(DAY_THREE, UUID.randomUUID());
+
+        List<OrderCursor> merged = OrderTiers.merge(List.of(hot), List.of(firstArchived, lastArchived), key -> key);
+
+        assertEquals(List.of(firstArchived, hot, lastArchived), merged);
+    }
+
+    @Test
+    void merge_withSameCreationTime_shouldOrderIdsAsUnsignedBytes() {
+        // UUID.compareTo puts this id first, PostgreSQL puts it last
+        OrderCursor highId = new OrderCursor(DAY_ONE, UUID.fromString("80000000-0000-0000-0000-000000000000"));
+        OrderCursor lowId = new OrderCursor(DAY_ONE, UUID.fromString("00000000-0000-0000-0000-000000000001"));
+
+        assertEquals(List.of(lowId, highId), OrderTiers.merge(List.of(highId), List.of(lowId), key -> key));
+    }
+
+    @Test
+    void merge_withOrderInBothTiers_shouldKeepTheHotCopy() {
+        OrderCursor moved = new OrderCursor(DAY_ONE, UUID.randomUUID());
+        OrderCursor hot = new OrderCursor(DAY_TWO, UUID.randomUUID());
+        OrderCursor archived = new OrderCursor(DAY_THREE, UUID.randomUUID());
+
+        List<OrderCursor> merged = OrderTiers.merge(List.of(moved, hot), List.of(moved, moved, archived),
+                                                    key -> key);
+
+        assertEquals(List.of(moved, hot, archived), merged);
+    }
+
+    @Test
+    void merge_withLimit_shouldStopAtLimit() {
+        OrderCursor first = new OrderCursor(DAY_ONE, UUID.randomUUID());
+        OrderCursor second = new OrderCursor(DAY_TWO, UUID.randomUUID());
+        OrderCursor third = new OrderCursor(DAY_THREE, UUID.randomUUID());
+
+        assertEquals(List.of(first, second), OrderTiers.merge(List.of(first, third), List.of(second), key -> key, 2));
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.PartnerRequestDTO;
+import com.orderservice.dto.PartnerResponseDTO;
+import com.orderservice.entity.Partner;
+import com.orderservice.repository.PartnerCreditStripeRepository;
+import com.orderservice.repository.PartnerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.orderservice.configuration.CacheConfiguration.PARTNERS_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+public class PartnerServiceCacheTest {
+
+    private static final UUID PARTNER_ID = UUID.randomUUID();
+    private static final String PARTNER_A_NAME = "Partner A";
+    private static final String PARTNER_UPDATE_NAME = "Partner Update";
+    private static final BigDecimal CREDIT_LIMIT_INITIAL = new BigDecimal("1000.00");
+    private static final BigDecimal CREDIT_LIMIT_UPDATED = new BigDecimal("2000.00");
+    private static final LocalDateTime CREATED_AT = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
+    private static final LocalDateTime UPDATED_AT = LocalDate.of(2020, Month.JANUARY, 18).atStartOfDay();
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(PARTNERS_CACHE);
+        }
+
+        @Bean
+        PartnerService partnerService(PartnerRepository partnerRepository,
+                                      PartnerCreditStripeRepository partnerCreditStripeRepository) {
+            return new PartnerService(partnerRepository, partnerCreditStripeRepository);
+        }
+
+    }
+
+    @MockBean
+    private PartnerRepository partnerRepository;
+
+    @MockBean
+    private PartnerCreditStripeRepository partnerCreditStripeRepository;
+
+    @Autowired
+    private PartnerService partnerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(PARTNERS_CACHE).clear();
+    }
+
+    @Test
+    void getById_shouldReadRepositoryOnlyOnce() {
+        when(partnerRepository.findResponseById(PARTNER_ID)).thenReturn(Optional.of(
+                new PartnerResponseDTO(PARTNER_ID, PARTNER_A_NAME, CREDIT_LIMIT_INITIAL)));
+
+        partnerService.getById(PARTNER_ID);
+        PartnerResponseDTO cached = partnerService.getById(PARTNER_ID);
+
+        assertEquals(PARTNER_A_NAME, cached.name());
+        verify(partnerRepository, times(1)).findResponseById(PARTNER_ID);
+    }
+
+    @Test
+    void update_shouldRefreshCachedPartner() {
+        Partner partner = new Partner(PARTNER_ID, PARTNER_A_NAME, CREDIT_LIMIT_INITIAL, CREATED_AT, UPDATED_AT);
+        Partner updated = new Partner(PARTNER_ID, PARTNER_UPDATE_NAME, CREDIT_LIMIT_UPDATED, CREATED_AT, UPDATED_AT);
+        when(partnerRepository.findResponseById(PARTNER_ID)).thenReturn(Optional.of(
+                new PartnerResponseDTO(PARTNER_ID, PARTNER_A_NAME, CREDIT_LIMIT_INITIAL)));
+        when(partnerRepository.lockAllById(List.of(PARTNER_ID))).thenReturn(List.of(partner));
+        when(partnerRepository.save(any(Partner.class))).thenReturn(updated);
+
+        partnerService.getById(PARTNER_ID);
+        partnerService.update(PARTNER_ID, new PartnerRequestDTO(PARTNER_UPDATE_NAME, CREDIT_LIMIT_UPDATED));
+        PartnerResponseDTO cached = partnerService.getById(PARTNER_ID);
+
+        assertEquals(PARTNER_UPDATE_NAME, cached.name());
+        assertEquals(CREDIT_LIMIT_UPDATED, cached.creditLimit());
+        verify(partnerRepository, times(1)).findResponseById(PARTNER_ID);
+    }
+
+    @Test
+    void evict_shouldForceNextReadFromRepository() {
+        when(partnerRepository.findResponseById(PARTNER_ID)).thenReturn(Optional.of(
+                new PartnerResponseDTO(PARTNER_ID, PARTNER_A_NAME, CREDIT_LIMIT_INITIAL)));
+
+        partnerService.getById(PARTNER_ID);
+        cacheManager.getCache(PARTNERS_CACHE).evict(PARTNER_ID);
+        partnerService.getById(PARTNER_ID);
+
+        verify(partnerRepository, times(2)).findResponseById(PARTNER_ID);
+    }
+
+}
@@ -4,6 +4,7 @@ import com.orderservice.dto.PartnerRequestDTO;
 import com.orderservice.dto.PartnerResponseDTO;
 import com.orderservice.entity.Partner;
 import com.orderservice.exception.PartnerNotFoundException;
+import com.orderservice.repository.PartnerCreditStripeRepository;
 import com.orderservice.repository.PartnerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -36,6 +38,9 @@ public class PartnerServiceTest {
     @Mock
     private PartnerRepository partnerRepository;
 
+    @Mock
+    private PartnerCreditStripeRepository partnerCreditStripeRepository;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -58,7 +63,8 @@ public class PartnerServiceTest {
 
     @Test
     void getPartnerById_shouldReturnPartnerWhenExist() {
-        when(partnerRepository.findById(PARTNER_ID)).thenReturn(Optional.of(PARTNER));
+        when(partnerRepository.findResponseById(PARTNER_ID)).thenReturn(Optional.of(
+                new PartnerResponseDTO(PARTNER_ID, PARTNER_A_NAME, CREDIT_LIMIT_INITIAL)));
 
         PartnerResponseDTO partnerResponseDTO = partnerService.getById(PARTNER_ID);
 
@@ -66,27 +72,27 @@ public class PartnerServiceTest {
         assertEquals(PARTNER_ID, partnerResponseDTO.id());
         assertEquals(PARTNER_A_NAME, partnerResponseDTO.name());
 
-        verify(partnerRepository, times(1)).findById(PARTNER_ID);
+        verify(partnerRepository, times(1)).findResponseById(PARTNER_ID);
     }
 
     @Test
     void getPartnerById_shouldThorwsExceptionWhenNotFound() {
         UUID anotherPartnerId = UUID.randomUUID();
-        when(partnerRepository.findById(anotherPartnerId)).thenReturn(Optional.empty());
+        when(partnerRepository.findResponseById(anotherPartnerId)).thenReturn(Optional.empty());
 
         PartnerNotFoundException partnerNotFoundException = assertThrows(PartnerNotFoundException.class, () ->
                 partnerService.getById(anotherPartnerId)
         );
         assertEquals(PARTNER_NOT_FOUND, partnerNotFoundException.getMessage());
 
-        verify(partnerRepository, times(1)).findById(anotherPartnerId);
+        verify(partnerRepository, times(1)).findResponseById(anotherPartnerId);
     }
 
     @Test
     void updatePartner_shouldUpdate() {
         PartnerRequestDTO partnerRequestDTO = new PartnerRequestDTO(PARTNER_UPDATE_NAME, CREDIT_LIMIT_UPDATED);
 
-        when(partnerRepository.findById(PARTNER_ID)).thenReturn(Optional.of(PARTNER));
+        when(partnerRepository.lockAllById(List.of(PARTNER_ID))).thenReturn(List.of(PARTNER));
         when(partnerRepository.save(any(Partner.class))).thenAnswer(i -> i.getArgument(0));
 
         PartnerResponseDTO partnerResponseDTO = partnerService.update(PARTNER_ID, partnerRequestDTO);
@@ -96,7 +102,8 @@ public class PartnerServiceTest {
         assertEquals(PARTNER_UPDATE_NAME, partnerResponseDTO.name());
         assertEquals(CREDIT_LIMIT_UPDATED, partnerResponseDTO.creditLimit());
 
-        verify(partnerRepository, times(1)).findById(PARTNER_ID);
+        verify(partnerRepository, times(1)).lockAllById(List.of(PARTNER_ID));
+        verify(partnerCreditStripeRepository, times(1)).deleteByPartnerId(PARTNER_ID);
         verify(partnerRepository, times(1)).save(any(Partner.class));
     }
 
@@ -104,7 +111,7 @@ public class PartnerServiceTest {
     void updatePartner_shouldThrowsExceptionWhenNotFound() {
         PartnerRequestDTO partnerRequestDTO = new PartnerRequestDTO(PARTNER_UPDATE_NAME, CREDIT_LIMIT_UPDATED);
 
-        when(partnerRepository.findById(PARTNER_ID)).thenReturn(Optional.empty());
+        when(partnerRepository.lockAllById(List.of(PARTNER_ID))).thenReturn(List.of());
 
         PartnerNotFoundException partnerNotFoundException = assertThrows(PartnerNotFoundException.class, () ->
                 partnerService.update(PARTNER_ID, partnerRequestDTO)
@@ -112,7 +119,8 @@ public class PartnerServiceTest {
 
         assertEquals(PARTNER_NOT_FOUND, partnerNotFoundException.getMessage());
 
-        verify(partnerRepository, times(1)).findById(PARTNER_ID);
+        verify(partnerRepository, times(1)).lockAllById(List.of(PARTNER_ID));
+        verify(partnerCreditStripeRepository, never()).deleteByPartnerId(any());
         verify(partnerRepository, never()).save(any(Partner.class));
     }
 